@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.esco.task;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+/** Application entrypoint. */
+@SpringBootApplication
+@ConfigurationPropertiesScan
+@Slf4j
+public class Application implements CommandLineRunner {
+  private final EscoLoader loader;
+  private final EscoImportRepository importRepository;
+  private final EscoTaskProperties taskProperties;
+
+  static void main(String[] args) {
+    new SpringApplication(Application.class).run(args);
+  }
+
+  Application(
+      EscoLoader loader, EscoImportRepository importRepository, EscoTaskProperties taskProperties) {
+    this.loader = loader;
+    this.importRepository = importRepository;
+    this.taskProperties = taskProperties;
+  }
+
+  @Override
+  public void run(String @NonNull ... args) throws Exception {
+    log.info(
+        "Starting ESCO update task (source={}, languages={}, parallelism={})",
+        taskProperties.source(),
+        taskProperties.languages(),
+        taskProperties.parallelism());
+
+    // Fail before touching the database if the data set is incomplete
+    var missing = new ArrayList<Path>();
+    for (var file : EscoFile.values()) {
+      for (var lang : taskProperties.languages()) {
+        var path = file.path(taskProperties.source(), lang);
+        if (!Files.isReadable(path)) {
+          missing.add(path);
+        }
+      }
+    }
+    if (!missing.isEmpty()) {
+      throw new IllegalStateException("Missing ESCO files: " + missing);
+    }
+
+    final long start = System.nanoTime();
+    importRepository.clearLabels();
+
+    // Phase 1: load the files in parallel (one connection and COPY per file)
+    long rows = 0;
+    try (var executor = Executors.newFixedThreadPool(taskProperties.parallelism())) {
+      var loads = new ArrayList<Future<Long>>();
+      for (var file : EscoFile.values()) {
+        for (var lang : taskProperties.languages()) {
+          loads.add(executor.submit(() -> load(file, lang)));
+        }
+      }
+      for (var load : loads) {
+        rows += load.get();
+      }
+    }
+    final long loaded = System.nanoTime();
+    log.info("Loaded {} rows in {} ms", rows, millis(start, loaded));
+
+    // Phase 2: import osaamiset and ammatit in one transaction (one consistent version switch)
+    importRepository.importAll();
+    log.info("ESCO update task completed (import {} ms)", millis(loaded, System.nanoTime()));
+  }
+
+  private long load(EscoFile file, String lang) throws Exception {
+    final var path = file.path(taskProperties.source(), lang);
+    final long start = System.nanoTime();
+    final long rows = loader.load(file, lang, path);
+    log.info(
+        "Loaded {} ({} rows, {} ms)", path.getFileName(), rows, millis(start, System.nanoTime()));
+    return rows;
+  }
+
+  private static long millis(long startNanos, long endNanos) {
+    return (endNanos - startNanos) / 1_000_000;
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.esco.task;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Streaming reader of RFC 4180 CSV files (as exported by ESCO). Only the current record is kept in
+ * memory. Quoted fields may contain separators, line breaks and doubled quotes.
+ */
+final class EscoCsvReader implements Closeable {
+
+  private static final char BOM = '\uFEFF';
+
+  private final Reader in;
+  private final List<String> header;
+
+  EscoCsvReader(Reader reader) throws IOException {
+    this.in = reader instanceof BufferedReader ? reader : new BufferedReader(reader);
+    var first = readRecord();
+    if (first == null) {
+      throw new EOFException("Missing CSV header");
+    }
+    if (!first.isEmpty() && !first.getFirst().isEmpty() && first.getFirst().charAt(0) == BOM) {
+      first.set(0, first.getFirst().substring(1));
+    }
+    this.header = List.copyOf(first);
+  }
+
+  /** Returns the index of the named column. */
+  int column(String name) {
+    int index = header.indexOf(name);
+    if (index < 0) {
+      throw new IllegalArgumentException("Missing CSV column: " + name);
+    }
+    return index;
+  }
+
+  /** Returns the next record, or null at the end of the file. Empty lines are skipped. */
+  @Nullable List<String> next() throws IOException {
+    var record = readRecord();
+    while (record != null && record.size() == 1 && record.getFirst().isEmpty()) {
+      record = readRecord();
+    }
+    return record;
+  }
+
+  private @Nullable List<String> readRecord() throws IOException {
+    int c = in.read();
+    if (c == -1) {
+      return null;
+    }
+    final var fields = new ArrayList<String>();
+    final var field = new StringBuilder();
+    boolean quoted = false;
+    while (true) {
+      if (quoted) {
+        if (c == -1) {
+          throw new EOFException("Unterminated quoted CSV field");
+        }
+        if (c == '"') {
+          c = in.read();
+          if (c != '"') {
+            quoted = false;
+            continue;
+          }
+        }
+        field.append((char) c);
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else if (c == '\n' || c == -1) {
+        fields.add(field.toString());
+        return fields;
+      } else if (c != '\r') {
+        field.append((char) c);
+      }
+      c = in.read();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+}
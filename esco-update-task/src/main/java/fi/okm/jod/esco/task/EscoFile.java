@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.esco.task;
+
+import java.nio.file.Path;
+import org.jspecify.annotations.Nullable;
+
+/** ESCO CSV files (one per language) and the columns loaded from them. */
+enum EscoFile {
+  SKILLS("skills", "skill", null),
+  OCCUPATIONS("occupations", "occupation", "code"),
+  ISCO_GROUPS("ISCOGroups", "occupation", "code");
+
+  private final String prefix;
+  private final String kind;
+  private final @Nullable String notationColumn;
+
+  EscoFile(String prefix, String kind, @Nullable String notationColumn) {
+    this.prefix = prefix;
+    this.kind = kind;
+    this.notationColumn = notationColumn;
+  }
+
+  /** Kind of the concepts in esco_data.labels. */
+  String kind() {
+    return kind;
+  }
+
+  @Nullable String notationColumn() {
+    return notationColumn;
+  }
+
+  Path path(Path source, String lang) {
+    return source.resolve(prefix + "_" + lang + ".csv");
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.esco.task;
+
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Runs the esco_data staging and import procedures. */
+@Repository
+class EscoImportRepository {
+
+  private final JdbcClient jdbc;
+
+  EscoImportRepository(JdbcClient jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  @Transactional
+  void clearLabels() {
+    jdbc.sql("TRUNCATE esco_data.labels").update();
+  }
+
+  /**
+   * Replaces the JSON staging tables with the loaded labels and imports osaamiset and ammatit. Both
+   * catalog versions change in the same transaction, so the application switches to the new data
+   * at once.
+   */
+  @Transactional
+  void importAll() {
+    jdbc.sql("CALL esco_data.import_labels()").update();
+    jdbc.sql("CALL esco_data.import_osaaminen()").update();
+    jdbc.sql("CALL esco_data.import_ammatti()").update();
+  }
+}
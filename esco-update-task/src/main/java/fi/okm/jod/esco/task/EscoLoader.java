@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.esco.task;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import javax.sql.DataSource;
+import org.jspecify.annotations.Nullable;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.stereotype.Component;
+
+/**
+ * Streams one ESCO CSV file to the esco_data.labels staging table using the PostgreSQL COPY
+ * protocol. Only the needed columns are sent, and the memory use does not depend on the file size.
+ */
+@Component
+class EscoLoader {
+
+  private static final String COPY_SQL =
+      """
+      COPY esco_data.labels (kind, lang, uri, label, description, notation)
+      FROM STDIN (FORMAT csv)
+      """;
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final DataSource dataSource;
+
+  EscoLoader(DataSource dataSource) {
+    this.dataSource = dataSource;
+  }
+
+  /** Loads the file and returns the number of rows loaded. */
+  long load(EscoFile file, String lang, Path path) throws IOException, SQLException {
+    try (var csv = new EscoCsvReader(Files.newBufferedReader(path, UTF_8));
+        var connection = dataSource.getConnection()) {
+      final int uri = csv.column("conceptUri");
+      final int label = csv.column("preferredLabel");
+      final int description = csv.column("description");
+      final int notation = file.notationColumn() == null ? -1 : csv.column(file.notationColumn());
+
+      final var copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+      try {
+        final var buffer = new StringBuilder(BUFFER_SIZE);
+        long rows = 0;
+        for (var record = csv.next(); record != null; record = csv.next()) {
+          if (field(record, uri) == null) {
+            continue;
+          }
+          append(buffer, file.kind());
+          buffer.append(',');
+          append(buffer, lang);
+          buffer.append(',');
+          append(buffer, field(record, uri));
+          buffer.append(',');
+          append(buffer, field(record, label));
+          buffer.append(',');
+          append(buffer, field(record, description));
+          buffer.append(',');
+          append(buffer, field(record, notation));
+          buffer.append('\n');
+          rows++;
+          if (buffer.length() >= BUFFER_SIZE) {
+            write(copyIn, buffer);
+          }
+        }
+        write(copyIn, buffer);
+        copyIn.endCopy();
+        return rows;
+      } finally {
+        if (copyIn.isActive()) {
+          copyIn.cancelCopy();
+        }
+      }
+    }
+  }
+
+  private static @Nullable String field(List<String> record, int index) {
+    if (index < 0 || index >= record.size()) {
+      return null;
+    }
+    var value = record.get(index).strip();
+    return value.isEmpty() ? null : value;
+  }
+
+  /** Appends a CSV value, null as an unquoted empty value (NULL in COPY). */
+  private static void append(StringBuilder buffer, @Nullable String value) {
+    if (value != null) {
+      buffer.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+  }
+
+  private static void write(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+    var bytes = buffer.toString().getBytes(UTF_8);
+    copyIn.writeToCopy(bytes, 0, bytes.length);
+    buffer.setLength(0);
+  }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.esco.task;
+
+import java.nio.file.Path;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration properties for the ESCO update task.
+ *
+ * @param source directory of the ESCO CSV files ({@code skills_fi.csv}, {@code
+ *     occupations_fi.csv}, {@code ISCOGroups_fi.csv}, ...)
+ * @param languages languages to load
+ * @param parallelism number of files loaded concurrently
+ */
+@ConfigurationProperties(prefix = "jod.esco-task")
+record EscoTaskProperties(
+    Path source,
+    @DefaultValue({"fi", "sv", "en"}) List<String> languages,
+    @DefaultValue("3") int parallelism) {}
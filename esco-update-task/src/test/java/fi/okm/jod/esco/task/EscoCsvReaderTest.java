@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.esco.task;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class EscoCsvReaderTest {
+
+  @Test
+  void readsQuotedFields() throws IOException {
+    var csv =
+        "\uFEFFconceptUri,preferredLabel,description\r\n"
+            + "\"urn:1\",\"Label, with comma\",\"Line 1\nLine 2\"\r\n"
+            + "urn:2,\"Say \"\"hello\"\"\",\r\n"
+            + "\r\n";
+
+    var records = readAll(csv);
+
+    assertThat(records)
+        .containsExactly(
+            List.of("urn:1", "Label, with comma", "Line 1\nLine 2"),
+            List.of("urn:2", "Say \"hello\"", ""));
+  }
+
+  @Test
+  void findsColumnsByName() throws IOException {
+    try (var reader = new EscoCsvReader(new StringReader("conceptUri,preferredLabel\n"))) {
+      assertThat(reader.column("preferredLabel")).isEqualTo(1);
+      assertThat(reader.next()).isNull();
+      assertThatThrownBy(() -> reader.column("code"))
+          .isInstanceOf(IllegalArgumentException.class);
+    }
+  }
+
+  @Test
+  void rejectsUnterminatedQuotes() throws IOException {
+    try (var reader = new EscoCsvReader(new StringReader("a,b\n\"urn:1,x\n"))) {
+      assertThatThrownBy(reader::next).isInstanceOf(EOFException.class);
+    }
+  }
+
+  private static List<List<String>> readAll(String csv) throws IOException {
+    var records = new ArrayList<List<String>>();
+    try (var reader = new EscoCsvReader(new StringReader(csv))) {
+      assertThat(reader.column("conceptUri")).isZero();
+      for (var record = reader.next(); record != null; record = reader.next()) {
+        records.add(record);
+      }
+    }
+    return records;
+  }
+}
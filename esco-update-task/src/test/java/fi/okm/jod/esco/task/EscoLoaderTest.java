@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.esco.task;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+import org.testcontainers.utility.MountableFile;
+
+/** Loads small CSV files to a database migrated with the yksilo-service schema. */
+@Testcontainers
+class EscoLoaderTest {
+
+  // the same setup as the local development database (compose.yml of yksilo-service)
+  @Container
+  @SuppressWarnings("resource")
+  static PostgreSQLContainer postgres =
+      new PostgreSQLContainer("postgres:16-alpine") {
+        @Override
+        public String getUsername() {
+          return "yksilo";
+        }
+
+        @Override
+        public String getPassword() {
+          return "yksilo";
+        }
+      }.withDatabaseName("yksilo")
+          .withCopyToContainer(
+              MountableFile.forHostPath("../scripts/docker-entrypoint-initdb.d/"),
+              "/docker-entrypoint-initdb.d/");
+
+  private static DataSource dataSource;
+
+  @TempDir private Path source;
+
+  @BeforeAll
+  static void migrate() {
+    dataSource =
+        new DriverManagerDataSource(
+            postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    // the flyway settings of yksilo-service (application.yml)
+    Flyway.configure()
+        .dataSource(dataSource)
+        .locations("filesystem:../src/main/resources/db/migration")
+        .defaultSchema("yksilo")
+        .schemas("yksilo", "koulutusmahdollisuus_data", "tyomahdollisuus_data", "esco_data")
+        .group(true)
+        .outOfOrder(true)
+        .load()
+        .migrate();
+  }
+
+  @Test
+  void shouldImportLoadedLabels() throws Exception {
+    final var loader = new EscoLoader(dataSource);
+    final var importRepository = new EscoImportRepository(JdbcClient.create(dataSource));
+    final var jdbc = JdbcClient.create(dataSource);
+
+    importRepository.clearLabels();
+    assertThat(
+            loader.load(
+                EscoFile.SKILLS,
+                "fi",
+                write(
+                    "skills_fi.csv",
+                    """
+                    conceptType,conceptUri,preferredLabel,description
+                    KnowledgeSkillCompetence,urn:test:skill:1,"Taito ""A"", B","Kuvaus
+                    kahdella rivillä"
+                    KnowledgeSkillCompetence,urn:test:skill:2,Toinen taito,
+                    KnowledgeSkillCompetence,,Ilman tunnistetta,Ohitetaan
+                    """)))
+        .isEqualTo(2);
+    assertThat(
+            loader.load(
+                EscoFile.SKILLS,
+                "en",
+                write(
+                    "skills_en.csv",
+                    """
+                    conceptType,conceptUri,preferredLabel,description
+                    KnowledgeSkillCompetence,urn:test:skill:1,Skill,Description
+                    """)))
+        .isEqualTo(1);
+    assertThat(
+            loader.load(
+                EscoFile.OCCUPATIONS,
+                "fi",
+                write(
+                    "occupations_fi.csv",
+                    """
+                    conceptType,conceptUri,code,preferredLabel,description
+                    Occupation,urn:test:occupation:1,1234.1,Ammatti,
+                    """)))
+        .isEqualTo(1);
+    importRepository.importAll();
+
+    assertThat(
+            jdbc.sql(
+                    """
+                    SELECT ok.kaannos_key, ok.nimi, ok.kuvaus
+                    FROM osaaminen_kaannos ok
+                           JOIN osaaminen o ON o.id = ok.osaaminen_id
+                    WHERE o.uri = 'urn:test:skill:1'
+                    ORDER BY ok.kaannos_key
+                    """)
+                .query()
+                .listOfRows())
+        .containsExactly(
+            Map.of("kaannos_key", "EN", "nimi", "Skill", "kuvaus", "Description"),
+            Map.of(
+                "kaannos_key",
+                "FI",
+                "nimi",
+                "Taito \"A\", B",
+                "kuvaus",
+                "Kuvaus\nkahdella rivillä"));
+    // an empty value is loaded as null
+    assertThat(
+            jdbc.sql(
+                    """
+                    SELECT ok.nimi, ok.kuvaus
+                    FROM osaaminen_kaannos ok
+                           JOIN osaaminen o ON o.id = ok.osaaminen_id
+                    WHERE o.uri = 'urn:test:skill:2'
+                    """)
+                .query()
+                .singleRow())
+        .containsEntry("nimi", "Toinen taito")
+        .containsEntry("kuvaus", null);
+    assertThat(
+            jdbc.sql(
+                    """
+                    SELECT a.koodi, ak.kaannos_key, ak.nimi, ak.kuvaus
+                    FROM ammatti_kaannos ak
+                           JOIN ammatti a ON a.id = ak.ammatti_id
+                    WHERE a.uri = 'urn:test:occupation:1'
+                    """)
+                .query()
+                .singleRow())
+        .containsEntry("koodi", "1234.1")
+        .containsEntry("kaannos_key", "FI")
+        .containsEntry("nimi", "Ammatti")
+        .containsEntry("kuvaus", null);
+  }
+
+  private Path write(String name, String content) throws IOException {
+    return Files.writeString(source.resolve(name), content, UTF_8);
+  }
+}
@@ -38,52 +38,14 @@ if [[ -n $AWS_SESSION_TOKEN && -n $BUCKET_NAME ]]; then
   # Sync data from S3
   aws s3 sync "${S3_BUCKET}/${ESCO_VERSION}/" ./tmp/data/ --exclude "*" --include "*.csv"
 
-  echo 'Truncate esco_data.skills...'
-  # Truncate the table
-  psql "postgresql://yksilo@localhost/${DB_NAME}?sslmode=require" \
-      -p ${DB_PORT} \
-      -c "TRUNCATE TABLE esco_data.skills"
-
-  # Change directory to data
-  cd ./tmp/data
-
-  # Import data for each language
-  echo "Importing esco  ${ESCO_VERSION} skills data..."
-  for lang in "en" "fi" "sv"; do
-      <skills_${lang}.csv psql "postgresql://yksilo@localhost/${DB_NAME}?sslmode=require" \
-        -p ${DB_PORT} \
-        -c "SET esco.lang=${lang}" \
-        -c "\COPY esco_data.skills(conceptType,conceptUri,skillType,reuseLevel,preferredLabel,altLabels,hiddenLabels,status,modifiedDate,scopeNote,definition,inScheme,description) FROM STDIN (FORMAT CSV, HEADER true)"
-  done
-
-  # Truncate the table
-  echo 'Truncate esco_data.occupations...'
-  psql "postgresql://yksilo@localhost/${DB_NAME}?sslmode=require" \
-      -p ${DB_PORT} \
-        -c "TRUNCATE TABLE esco_data.occupations"
-
-  echo "Importing esco  ${ESCO_VERSION} occupations data..."
-  for lang in "en" "fi" "sv"; do
-      <occupations_${lang}.csv psql "postgresql://yksilo@localhost/${DB_NAME}?sslmode=require" \
-        -p ${DB_PORT} \
-        -c "SET esco.lang=${lang}" \
-        -c "\COPY esco_data.occupations(conceptType,conceptUri,iscoGroup,preferredLabel,altLabels,hiddenLabels,status,modifiedDate,regulatedProfessionNote,scopeNote,definition,inScheme,description,code) FROM STDIN (FORMAT CSV, HEADER true)"
-    done
-
-  echo -n "Importing esco  ${ESCO_VERSION} ISCOGroups data..."
-  for lang in "en" "fi" "sv"; do
-      <ISCOGroups_${lang}.csv psql "postgresql://yksilo@localhost/${DB_NAME}?sslmode=require" \
-        -p ${DB_PORT} \
-        -c "SET esco.lang=${lang}"\
-        -c "\COPY esco_data.occupations(conceptType,conceptUri,code,preferredLabel,status,altLabels,inScheme,description) FROM STDIN (FORMAT csv, HEADER true);"
-    done
-
-  #update esco data
-    for esco in "ammatti" "osaaminen"; do
-      psql "postgresql://yksilo@localhost/${DB_NAME}?sslmode=require" \
-        -p ${DB_PORT} \
-        -c "CALL esco_data.import_${esco}();"
-    done
+  # Load the CSV files and run the import procedures (see esco-update-task)
+  echo "Importing esco ${ESCO_VERSION} data..."
+  SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+  SPRING_DATASOURCE_URL="jdbc:postgresql://localhost:${DB_PORT}/${DB_NAME}?sslmode=require" \
+    SPRING_DATASOURCE_USERNAME=yksilo \
+    SPRING_DATASOURCE_PASSWORD="${PGPASSWORD}" \
+    ESCO_TASK_SOURCE="$(pwd)/tmp/data" \
+    "${SCRIPT_DIR}/../esco-update-task/gradlew" -p "${SCRIPT_DIR}/../esco-update-task" bootRun
 
   else
     echo 'ERROR: Missing AWS credentials or $BUCKET_NAME. Before running this SSH tunnel the database as instructed at https://wiki.eduuni.fi/display/OPHPALV/RDS
@@ -17,7 +17,7 @@ import software.amazon.awssdk.regions.providers.AwsRegionProvider;
 import software.amazon.awssdk.retries.StandardRetryStrategy;
 import software.amazon.awssdk.services.rds.RdsClient;
 import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.sagemakerruntime.SageMakerRuntimeClient;
+import software.amazon.awssdk.services.sagemakerruntime.SageMakerRuntimeAsyncClient;
 
 @Configuration
 @Profile("cloud")
@@ -33,13 +33,14 @@ public class AwsConfig {
   }
 
   @Bean
-  public SageMakerRuntimeClient sageMakerRuntimeClient(
+  public SageMakerRuntimeAsyncClient sageMakerRuntimeClient(
       AwsCredentialsProvider credentialsProvider, AwsRegionProvider regionProvider) {
-    return SageMakerRuntimeClient.builder()
+    // retries are handled by the inference service (see InferenceProperties)
+    return SageMakerRuntimeAsyncClient.builder()
         .credentialsProvider(credentialsProvider)
         .region(regionProvider.getRegion())
         .overrideConfiguration(
-            c -> c.retryStrategy(StandardRetryStrategy.builder().maxAttempts(4).build()))
+            c -> c.retryStrategy(StandardRetryStrategy.builder().maxAttempts(1).build()))
         .build();
   }
 
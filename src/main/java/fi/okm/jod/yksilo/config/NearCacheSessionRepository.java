@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.session.MapSession;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+
+/**
+ * Session repository that keeps the recently used sessions in memory, so that the parallel API
+ * calls of a page load do not all read the session from Redis.
+ *
+ * <p>The sessions are stored in the same hash layout as the default {@code
+ * RedisSessionRepository}, so the existing sessions remain valid. A cached session is used for at
+ * most the given time to live. Saving changed attributes or deleting a session publishes the
+ * session id on a channel, and the instances evict the session from their caches when they
+ * receive it (see {@link #onMessage}).
+ *
+ * <p>The last access time is written only when it has advanced by the write interval since the
+ * previous write (or when the attributes change), which may expire an idle session up to the
+ * interval early.
+ */
+@Slf4j
+final class NearCacheSessionRepository
+    implements SessionRepository<NearCacheSessionRepository.NearCacheSession>, MessageListener {
+
+  static final String CREATION_TIME = "creationTime";
+  static final String LAST_ACCESSED_TIME = "lastAccessedTime";
+  static final String MAX_INACTIVE_INTERVAL = "maxInactiveInterval";
+  static final String ATTRIBUTE_PREFIX = "sessionAttr:";
+
+  private final RedisOperations<String, Object> redis;
+  private final String namespace;
+  private final Duration defaultMaxInactiveInterval;
+  private final Duration lastAccessWriteInterval;
+  private final Cache<String, Cached> cache;
+
+  /**
+   * @param redis operations with the session serializer for the hash values
+   * @param namespace prefix of the session keys
+   */
+  NearCacheSessionRepository(
+      RedisOperations<String, Object> redis,
+      String namespace,
+      Duration defaultMaxInactiveInterval,
+      Duration ttl,
+      long maximumSize,
+      Duration lastAccessWriteInterval) {
+    this.redis = redis;
+    this.namespace = namespace;
+    this.defaultMaxInactiveInterval = defaultMaxInactiveInterval;
+    this.lastAccessWriteInterval = lastAccessWriteInterval;
+    this.cache = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maximumSize).build();
+  }
+
+  /** Channel of the ids of the changed and deleted sessions. */
+  String channel() {
+    return namespace + ":invalidated";
+  }
+
+  @Override
+  public NearCacheSession createSession() {
+    final var session = new MapSession();
+    session.setMaxInactiveInterval(defaultMaxInactiveInterval);
+    return new NearCacheSession(session, true, session.getLastAccessedTime());
+  }
+
+  @Override
+  public void save(NearCacheSession session) {
+    final var id = session.getId();
+    final var key = key(id);
+    final boolean created = session.isNew;
+    final boolean changed = !session.delta.isEmpty();
+
+    if (!created && !id.equals(session.originalId)) {
+      try {
+        redis.rename(key(session.originalId), key);
+      } catch (NonTransientDataAccessException e) {
+        // the session has expired or been deleted meanwhile, as in RedisSessionRepository
+        if (!"ERR no such key".equals(NestedExceptionUtils.getMostSpecificCause(e).getMessage())) {
+          throw e;
+        }
+      }
+      invalidate(session.originalId);
+    }
+
+    final var fields = new HashMap<String, Object>();
+    final var removed = new ArrayList<String>();
+    session.delta.forEach(
+        (field, value) -> {
+          if (value == null) {
+            removed.add(field);
+          } else {
+            fields.put(field, value);
+          }
+        });
+    if (created) {
+      fields.put(CREATION_TIME, session.getCreationTime().toEpochMilli());
+      fields.put(MAX_INACTIVE_INTERVAL, (int) session.getMaxInactiveInterval().toSeconds());
+      for (var name : session.getAttributeNames()) {
+        fields.put(ATTRIBUTE_PREFIX + name, session.getAttribute(name));
+      }
+    }
+    if (created
+        || changed
+        || !session
+            .getLastAccessedTime()
+            .isBefore(session.persistedLastAccessedTime.plus(lastAccessWriteInterval))) {
+      fields.put(LAST_ACCESSED_TIME, session.getLastAccessedTime().toEpochMilli());
+      session.persistedLastAccessedTime = session.getLastAccessedTime();
+    }
+
+    if (!fields.isEmpty()) {
+      redis.opsForHash().putAll(key, fields);
+      redis.expire(key, session.getMaxInactiveInterval());
+    }
+    if (!removed.isEmpty()) {
+      redis.opsForHash().delete(key, removed.toArray());
+    }
+    session.isNew = false;
+    session.originalId = id;
+    session.delta.clear();
+
+    cache.put(id, new Cached(new MapSession(session.session), session.persistedLastAccessedTime));
+    if (changed && !created) {
+      publish(id);
+    }
+  }
+
+  @Override
+  public @Nullable NearCacheSession findById(String id) {
+    final var cached = cache.get(id, this::load);
+    if (cached == null) {
+      return null;
+    }
+    if (cached.session().isExpired()) {
+      deleteById(id);
+      return null;
+    }
+    return new NearCacheSession(
+        new MapSession(cached.session()), false, cached.persistedLastAccessedTime());
+  }
+
+  @Override
+  public void deleteById(String id) {
+    redis.delete(key(id));
+    invalidate(id);
+  }
+
+  /** Evicts the session of the received id from the cache. */
+  @Override
+  public void onMessage(Message message, byte @Nullable [] pattern) {
+    cache.invalidate(new String(message.getBody(), StandardCharsets.UTF_8));
+  }
+
+  private @Nullable Cached load(String id) {
+    final var entries = redis.<String, Object>opsForHash().entries(key(id));
+    // a hash without the creation time is left by a write to an expired session
+    if (!(entries.get(CREATION_TIME) instanceof Number creationTime)
+        || !(entries.get(LAST_ACCESSED_TIME) instanceof Number lastAccessedTime)
+        || !(entries.get(MAX_INACTIVE_INTERVAL) instanceof Number maxInactiveInterval)) {
+      return null;
+    }
+    final var session = new MapSession(id);
+    session.setCreationTime(Instant.ofEpochMilli(creationTime.longValue()));
+    session.setLastAccessedTime(Instant.ofEpochMilli(lastAccessedTime.longValue()));
+    session.setMaxInactiveInterval(Duration.ofSeconds(maxInactiveInterval.longValue()));
+    entries.forEach(
+        (field, value) -> {
+          if (field.startsWith(ATTRIBUTE_PREFIX)) {
+            session.setAttribute(field.substring(ATTRIBUTE_PREFIX.length()), value);
+          }
+        });
+    return new Cached(session, session.getLastAccessedTime());
+  }
+
+  private void invalidate(String id) {
+    cache.invalidate(id);
+    publish(id);
+  }
+
+  private void publish(String id) {
+    try {
+      redis.convertAndSend(channel(), id);
+    } catch (DataAccessException e) {
+      // the cached copies expire after the time to live
+      log.warn("Publishing session invalidation failed: {}", e.getMessage());
+    }
+  }
+
+  private String key(String id) {
+    return namespace + ":sessions:" + id;
+  }
+
+  /**
+   * Cached copy of a session, with the last access time last written to Redis (which the write
+   * interval is counted from).
+   */
+  private record Cached(MapSession session, Instant persistedLastAccessedTime) {}
+
+  /** Session read from the cache or Redis, tracking the changes to be saved. */
+  final class NearCacheSession implements Session {
+
+    private final MapSession session;
+    private final Map<String, @Nullable Object> delta = new HashMap<>();
+    private boolean isNew;
+    private String originalId;
+    private Instant persistedLastAccessedTime;
+
+    private NearCacheSession(
+        MapSession session, boolean isNew, Instant persistedLastAccessedTime) {
+      this.session = session;
+      this.isNew = isNew;
+      this.originalId = session.getId();
+      this.persistedLastAccessedTime = persistedLastAccessedTime;
+    }
+
+    @Override
+    public String getId() {
+      return session.getId();
+    }
+
+    @Override
+    public String changeSessionId() {
+      return session.changeSessionId();
+    }
+
+    @Override
+    public <T> @Nullable T getAttribute(String attributeName) {
+      return session.getAttribute(attributeName);
+    }
+
+    @Override
+    public Set<String> getAttributeNames() {
+      return session.getAttributeNames();
+    }
+
+    @Override
+    public void setAttribute(String attributeName, @Nullable Object attributeValue) {
+      session.setAttribute(attributeName, attributeValue);
+      delta.put(ATTRIBUTE_PREFIX + attributeName, attributeValue);
+    }
+
+    @Override
+    public void removeAttribute(String attributeName) {
+      setAttribute(attributeName, null);
+    }
+
+    @Override
+    public Instant getCreationTime() {
+      return session.getCreationTime();
+    }
+
+    @Override
+    public void setLastAccessedTime(Instant lastAccessedTime) {
+      session.setLastAccessedTime(lastAccessedTime);
+    }
+
+    @Override
+    public Instant getLastAccessedTime() {
+      return session.getLastAccessedTime();
+    }
+
+    @Override
+    public void setMaxInactiveInterval(Duration interval) {
+      session.setMaxInactiveInterval(interval);
+      delta.put(MAX_INACTIVE_INTERVAL, (int) interval.toSeconds());
+    }
+
+    @Override
+    public Duration getMaxInactiveInterval() {
+      return session.getMaxInactiveInterval();
+    }
+
+    @Override
+    public boolean isExpired() {
+      return session.isExpired();
+    }
+  }
+}
@@ -9,6 +9,8 @@
 
 package fi.okm.jod.yksilo.config;
 
+import fi.okm.jod.yksilo.config.admission.AdmissionControl;
+import fi.okm.jod.yksilo.config.admission.AdmissionControlFilter;
 import jakarta.servlet.RequestDispatcher;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -18,6 +20,7 @@ import java.net.UnknownHostException;
 import java.time.Duration;
 import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -58,7 +61,8 @@ public class SecurityConfig {
   public SecurityFilterChain securityFilterChain(
       HttpSecurity http,
       Environment env,
-      @Value("${jod.session.maxDuration}") Duration sessionMaxDuration)
+      @Value("${jod.session.maxDuration}") Duration sessionMaxDuration,
+      ObjectProvider<AdmissionControl> admissionControl)
       throws Exception {
 
     RequestMatcher[] csrfIgnoringRequestMatchers;
@@ -88,7 +92,7 @@ public class SecurityConfig {
       csrfIgnoringRequestMatchers = new RequestMatcher[] {notAuthenticated};
     }
 
-    return http.securityMatcher("/api/**")
+    http.securityMatcher("/api/**")
         .sessionManagement(
             session -> session.sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED))
         .requestCache(RequestCacheConfigurer::disable)
@@ -132,8 +136,13 @@ public class SecurityConfig {
               headers.addHeaderWriter(new CacheControlHeadersWriter());
             })
         .addFilterBefore(new MdcFilter(), AuthorizationFilter.class)
-        .addFilterAfter(new SessionDurationFilter(sessionMaxDuration), MdcFilter.class)
-        .build();
+        .addFilterAfter(new SessionDurationFilter(sessionMaxDuration), MdcFilter.class);
+
+    admissionControl.ifAvailable(
+        control ->
+            http.addFilterAfter(new AdmissionControlFilter(control), SessionDurationFilter.class));
+
+    return http.build();
   }
 
   static final class CacheControlHeadersWriter implements HeaderWriter {
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.config;
+
+import fi.okm.jod.yksilo.controller.KeskusteluController.InferenceSession;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.security.core.context.SecurityContextImpl;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Serializes the session attributes in a compact binary form: a magic byte, the format version,
+ * the dictionary id of the attribute type and the value encoded as Smile (binary JSON). Since the
+ * type is known from the id, the common attributes are read without resolving a class name from
+ * the data.
+ *
+ * <p>Values without the magic byte are JSON written by the previous serializer and are read with
+ * it, so the existing sessions stay valid. The encoded sizes are recorded per attribute type.
+ */
+final class SessionAttributeSerializer implements RedisSerializer<Object> {
+
+  // never the first byte of a JSON document
+  static final byte MAGIC = (byte) 0xFE;
+  static final byte VERSION = 1;
+
+  // The ids are stored in the sessions: append only. Id 0 is any other type, which is read like
+  // JSON (using the type information of the value).
+  static final List<Class<?>> TYPES =
+      List.of(
+          Object.class,
+          String.class,
+          Long.class,
+          Integer.class,
+          Boolean.class,
+          SecurityContextImpl.class,
+          InferenceSession.class);
+
+  private final ObjectMapper binaryMapper;
+  private final RedisSerializer<Object> jsonSerializer;
+  private final boolean writeBinary;
+  private final Map<Class<?>, Integer> ids = new HashMap<>();
+  private final List<DistributionSummary> sizes;
+  private final DistributionSummary jsonSize;
+
+  /**
+   * @param binaryMapper Smile mapper configured like the JSON mapper of the json serializer
+   * @param jsonSerializer reads (and, unless writeBinary is set, writes) the JSON values
+   * @param writeBinary whether to write the binary format (old instances can not read it)
+   */
+  SessionAttributeSerializer(
+      ObjectMapper binaryMapper,
+      RedisSerializer<Object> jsonSerializer,
+      boolean writeBinary,
+      MeterRegistry meterRegistry) {
+    this.binaryMapper = binaryMapper;
+    this.jsonSerializer = jsonSerializer;
+    this.writeBinary = writeBinary;
+    for (int id = 1; id < TYPES.size(); id++) {
+      ids.put(TYPES.get(id), id);
+    }
+    this.sizes =
+        IntStream.range(0, TYPES.size())
+            .mapToObj(
+                id -> size(meterRegistry, id == 0 ? "other" : TYPES.get(id).getSimpleName()))
+            .toList();
+    this.jsonSize = size(meterRegistry, "json");
+  }
+
+  @Override
+  public byte[] serialize(@Nullable Object value) {
+    if (value == null) {
+      return new byte[0];
+    }
+    if (!writeBinary) {
+      return record(jsonSize, jsonSerializer.serialize(value));
+    }
+    final int id = ids.getOrDefault(value.getClass(), 0);
+    final var out = new ByteArrayOutputStream(128);
+    out.write(MAGIC);
+    out.write(VERSION);
+    out.write(id);
+    try {
+      binaryMapper.writeValue(out, value);
+    } catch (JacksonException e) {
+      throw new SerializationException("Could not write session attribute", e);
+    }
+    return record(sizes.get(id), out.toByteArray());
+  }
+
+  @Override
+  public @Nullable Object deserialize(byte @Nullable [] bytes) {
+    if (bytes == null || bytes.length == 0) {
+      return null;
+    }
+    if (bytes[0] != MAGIC) {
+      return jsonSerializer.deserialize(bytes);
+    }
+    if (bytes.length < 3 || bytes[1] != VERSION) {
+      throw new SerializationException("Unsupported session attribute format");
+    }
+    final int id = bytes[2];
+    if (id < 0 || id >= TYPES.size()) {
+      throw new SerializationException("Unknown session attribute type " + id);
+    }
+    try {
+      return binaryMapper.readValue(bytes, 3, bytes.length - 3, TYPES.get(id));
+    } catch (JacksonException e) {
+      throw new SerializationException("Could not read session attribute", e);
+    }
+  }
+
+  private static DistributionSummary size(MeterRegistry registry, String type) {
+    return DistributionSummary.builder("fi.okm.jod.yksilo.session.attribute.size")
+        .baseUnit("bytes")
+        .tag("type", type)
+        .register(registry);
+  }
+
+  private static byte[] record(DistributionSummary summary, byte[] bytes) {
+    summary.record(bytes.length);
+    return bytes;
+  }
+}
@@ -21,12 +21,15 @@ import fi.okm.jod.yksilo.config.login.JodSaml2Principal;
 import fi.okm.jod.yksilo.controller.KeskusteluController.InferenceSession;
 import fi.okm.jod.yksilo.domain.JodUser;
 import io.lettuce.core.RedisCredentialsProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import java.net.URL;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import org.jspecify.annotations.NonNull;
 import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.data.redis.autoconfigure.LettuceClientConfigurationBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
@@ -42,8 +45,12 @@ import org.springframework.security.oauth2.core.oidc.OidcIdToken;
 import org.springframework.util.StringUtils;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.regions.providers.AwsRegionProvider;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.cfg.MapperBuilder;
 import tools.jackson.databind.json.JsonMapper;
 import tools.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import tools.jackson.dataformat.smile.SmileMapper;
+import tools.jackson.dataformat.smile.SmileWriteFeature;
 
 @Configuration(proxyBeanMethods = false)
 @SuppressWarnings("java:S4544")
@@ -63,7 +70,18 @@ public class SessionConfig implements BeanClassLoaderAware {
   }
 
   @Bean
-  public RedisSerializer<Object> springSessionDefaultRedisSerializer() {
+  public RedisSerializer<Object> springSessionDefaultRedisSerializer(
+      @Value("${jod.session.binary-format:false}") boolean binaryFormat,
+      ObjectProvider<MeterRegistry> meterRegistry) {
+    // JSON is still read from the sessions written before the binary format.
+    return new SessionAttributeSerializer(
+        configure(SmileMapper.builder().enable(SmileWriteFeature.CHECK_SHARED_STRING_VALUES)),
+        new GenericJacksonJsonRedisSerializer(configure(JsonMapper.builder())),
+        binaryFormat,
+        meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+  }
+
+  <M extends ObjectMapper, B extends MapperBuilder<M, B>> M configure(B builder) {
     // Create a custom ObjectMapper that uses Spring Security’s Jackson modules.
 
     var validatorBuilder =
@@ -71,14 +89,12 @@ public class SessionConfig implements BeanClassLoaderAware {
             .allowIfSubType(JodUser.class)
             .allowIfSubType(URL.class);
 
-    var mapper =
-        JsonMapper.builder()
-            .addModules(SecurityJacksonModules.getModules(this.loader, validatorBuilder))
-            .addMixIn(InferenceSession.class, SessionMixin.class)
-            .addMixIn(JodOidcPrincipal.class, JodOidcPrincipalMixin.class)
-            .addMixIn(JodSaml2Principal.class, JodSaml2PrincipalMixin.class)
-            .build();
-    return new GenericJacksonJsonRedisSerializer(mapper);
+    return builder
+        .addModules(SecurityJacksonModules.getModules(this.loader, validatorBuilder))
+        .addMixIn(InferenceSession.class, SessionMixin.class)
+        .addMixIn(JodOidcPrincipal.class, JodOidcPrincipalMixin.class)
+        .addMixIn(JodSaml2Principal.class, JodSaml2PrincipalMixin.class)
+        .build();
   }
 
   @Bean
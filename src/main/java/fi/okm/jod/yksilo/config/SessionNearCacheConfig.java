@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.config;
+
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+
+/**
+ * Replaces the default Redis session repository with {@link NearCacheSessionRepository}. Spring
+ * Boot backs off from configuring the session repository when this configuration is enabled.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "jod.session.near-cache.enabled", havingValue = "true")
+@EnableSpringHttpSession
+public class SessionNearCacheConfig {
+
+  @Bean
+  NearCacheSessionRepository sessionRepository(
+      RedisConnectionFactory connectionFactory,
+      RedisSerializer<Object> springSessionDefaultRedisSerializer,
+      @Value("${spring.session.data.redis.namespace:spring:session}") String namespace,
+      @Value("${spring.session.timeout:30m}") Duration timeout,
+      @Value("${jod.session.near-cache.ttl:10s}") Duration ttl,
+      @Value("${jod.session.near-cache.maximum-size:10000}") long maximumSize,
+      @Value("${jod.session.near-cache.last-access-write-interval:1m}")
+          Duration lastAccessWriteInterval) {
+    var redis = new RedisTemplate<String, Object>();
+    redis.setConnectionFactory(connectionFactory);
+    redis.setKeySerializer(RedisSerializer.string());
+    redis.setValueSerializer(RedisSerializer.string());
+    redis.setHashKeySerializer(RedisSerializer.string());
+    redis.setHashValueSerializer(springSessionDefaultRedisSerializer);
+    redis.afterPropertiesSet();
+    return new NearCacheSessionRepository(
+        redis, namespace, timeout, ttl, maximumSize, lastAccessWriteInterval);
+  }
+
+  @Bean
+  RedisMessageListenerContainer sessionInvalidationListenerContainer(
+      RedisConnectionFactory connectionFactory, NearCacheSessionRepository sessionRepository) {
+    var container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(connectionFactory);
+    container.addMessageListener(sessionRepository, new ChannelTopic(sessionRepository.channel()));
+    return container;
+  }
+}
@@ -10,6 +10,9 @@
 package fi.okm.jod.yksilo.config;
 
 import java.util.List;
+import java.util.Map;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.MDC;
 import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -29,7 +32,29 @@ public class TaskExecutorConfig {
         new CompositeTaskDecorator(
             List.of(
                 (TaskDecorator) DelegatingSecurityContextRunnable::new,
-                new ContextPropagatingTaskDecorator()));
+                new ContextPropagatingTaskDecorator(),
+                TaskExecutorConfig::propagateMdc));
     return builder.taskDecorator(decorator).build();
   }
+
+  private static Runnable propagateMdc(Runnable task) {
+    final var context = MDC.getCopyOfContextMap();
+    return () -> {
+      final var previous = MDC.getCopyOfContextMap();
+      setContextMap(context);
+      try {
+        task.run();
+      } finally {
+        setContextMap(previous);
+      }
+    };
+  }
+
+  private static void setContextMap(@Nullable Map<String, String> context) {
+    if (context == null) {
+      MDC.clear();
+    } else {
+      MDC.setContextMap(context);
+    }
+  }
 }
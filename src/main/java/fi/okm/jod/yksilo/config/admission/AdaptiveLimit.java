@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.config.admission;
+
+/**
+ * Concurrency limit that adapts to the overload signals of the endpoint (AIMD): the limit grows
+ * by one per limit successful requests while it is in use, and shrinks by 10% on every overloaded
+ * or failed request.
+ */
+final class AdaptiveLimit {
+
+  static final double BACKOFF = 0.9;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private double limit;
+  private int inFlight;
+
+  AdaptiveLimit(int initialLimit, int minLimit, int maxLimit) {
+    this.limit = initialLimit;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+  }
+
+  /** Takes a permit if the limit allows, the permit must be released. */
+  synchronized boolean tryAcquire() {
+    if (inFlight >= (int) limit) {
+      return false;
+    }
+    inFlight++;
+    return true;
+  }
+
+  /**
+   * Releases a permit.
+   *
+   * @param status HTTP status of the response
+   */
+  synchronized void release(int status) {
+    final boolean saturated = inFlight * 2 >= limit;
+    inFlight--;
+    if (status == 429 || status >= 500) {
+      limit = Math.max(minLimit, limit * BACKOFF);
+    } else if (status < 400 && saturated) {
+      limit = Math.min(maxLimit, limit + 1 / limit);
+    }
+  }
+
+  synchronized int limit() {
+    return (int) limit;
+  }
+}
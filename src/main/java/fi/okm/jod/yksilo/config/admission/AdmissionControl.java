@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.config.admission;
+
+import fi.okm.jod.yksilo.domain.JodUser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * Admission control of the inference backed endpoints. A request is admitted if
+ *
+ * <ul>
+ *   <li>the token bucket of the client (the user, or the address of an anonymous client) and the
+ *       cluster-wide token bucket of the endpoint both have a token (in Redis), and
+ *   <li>the requests in progress on this instance are below the {@link AdaptiveLimit} of the
+ *       endpoint.
+ * </ul>
+ *
+ * <p>Rejected requests fail fast with 429 and Retry-After instead of waiting for the inference
+ * capacity until they time out. The rate limit fails open if Redis is unavailable.
+ */
+@Component
+@ConditionalOnProperty(name = "jod.admission.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class AdmissionControl {
+
+  static final String KEY_PREFIX = "jod:admission:";
+  static final Duration CONCURRENCY_RETRY_AFTER = Duration.ofSeconds(1);
+
+  // Takes a token from every bucket (KEYS) if all of them have one, using the Redis server time.
+  // ARGV has the capacity and the refill rate (per millisecond) of each bucket. Returns the time
+  // in milliseconds until a token is available, 0 if the tokens were taken.
+  private static final RedisScript<Long> TAKE_TOKEN =
+      RedisScript.of(
+          """
+          local time = redis.call('TIME')
+          local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+          local tokens = {}
+          local wait = 0
+          for i, key in ipairs(KEYS) do
+            local capacity = tonumber(ARGV[i * 2 - 1])
+            local rate = tonumber(ARGV[i * 2])
+            local bucket = redis.call('HMGET', key, 'tokens', 'ts')
+            local available = tonumber(bucket[1]) or capacity
+            local elapsed = math.max(0, now - (tonumber(bucket[2]) or now))
+            tokens[i] = math.min(capacity, available + elapsed * rate)
+            if tokens[i] < 1 then
+              wait = math.max(wait, math.ceil((1 - tokens[i]) / rate))
+            end
+          end
+          for i, key in ipairs(KEYS) do
+            local capacity = tonumber(ARGV[i * 2 - 1])
+            local rate = tonumber(ARGV[i * 2])
+            if wait == 0 then
+              tokens[i] = tokens[i] - 1
+            end
+            redis.call('HSET', key, 'tokens', tostring(tokens[i]), 'ts', now)
+            redis.call('PEXPIRE', key, math.ceil(capacity / rate))
+          end
+          return wait
+          """,
+          Long.class);
+
+  private final AdmissionProperties properties;
+  private final StringRedisTemplate redis;
+  private final MeterRegistry meterRegistry;
+  private final List<PathPattern> endpoints;
+  private final Map<String, AdaptiveLimit> limits = new ConcurrentHashMap<>();
+
+  AdmissionControl(
+      AdmissionProperties properties, StringRedisTemplate redis, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.redis = redis;
+    this.meterRegistry = meterRegistry;
+    this.endpoints =
+        properties.endpoints().stream().map(PathPatternParser.defaultInstance::parse).toList();
+  }
+
+  /** Returns the limited endpoint of the request, or null if the request is not limited. */
+  @Nullable String endpointOf(HttpServletRequest request) {
+    if (!HttpMethod.POST.matches(request.getMethod())) {
+      return null;
+    }
+    final var path =
+        PathContainer.parsePath(
+            request.getRequestURI().substring(request.getContextPath().length()));
+    for (var endpoint : endpoints) {
+      if (endpoint.matches(path)) {
+        return endpoint.getPatternString();
+      }
+    }
+    return null;
+  }
+
+  AdaptiveLimit limitOf(String endpoint) {
+    return limits.computeIfAbsent(
+        endpoint,
+        e ->
+            new AdaptiveLimit(
+                properties.initialConcurrency(),
+                properties.minConcurrency(),
+                properties.maxConcurrency()));
+  }
+
+  /**
+   * Takes a token from the buckets of the client and the endpoint.
+   *
+   * @return how long the client should wait before retrying, zero if the request is admitted
+   */
+  Duration takeToken(String endpoint, HttpServletRequest request) {
+    final var tag = "{" + endpoint + "}";
+    try {
+      final var wait =
+          redis.execute(
+              TAKE_TOKEN,
+              List.of(KEY_PREFIX + tag + ":" + clientOf(request), KEY_PREFIX + tag),
+              String.valueOf(properties.clientBurst()),
+              String.valueOf(properties.clientRate() / 1000),
+              String.valueOf(properties.endpointBurst()),
+              String.valueOf(properties.endpointRate() / 1000));
+      return wait == null ? Duration.ZERO : Duration.ofMillis(wait);
+    } catch (DataAccessException e) {
+      log.warn("Rate limiting failed, admitting the request: {}", e.getMessage());
+      return Duration.ZERO;
+    }
+  }
+
+  void rejected(String endpoint, String reason) {
+    Counter.builder("fi.okm.jod.yksilo.admission.rejected")
+        .tag("endpoint", endpoint)
+        .tag("reason", reason)
+        .register(meterRegistry)
+        .increment();
+  }
+
+  private String clientOf(HttpServletRequest request) {
+    if (SecurityContextHolder.getContext().getAuthentication() instanceof Authentication auth
+        && auth.getPrincipal() instanceof JodUser user) {
+      return "user:" + user.getId();
+    }
+    // anonymous sessions are free to create, so the address is used instead
+    var address =
+        properties.clientAddressHeader().isEmpty()
+            ? null
+            : request.getHeader(properties.clientAddressHeader());
+    if (address == null || address.isBlank()) {
+      return "addr:" + request.getRemoteAddr();
+    }
+    // CloudFront-Viewer-Address is "address:port"
+    final int port = address.lastIndexOf(':');
+    return "addr:" + (port > 0 ? address.substring(0, port) : address).trim();
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.config.admission;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import org.jspecify.annotations.NonNull;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/** Rejects the requests not admitted by the {@link AdmissionControl} with 429 and Retry-After. */
+public final class AdmissionControlFilter extends OncePerRequestFilter {
+
+  private final AdmissionControl admissionControl;
+
+  public AdmissionControlFilter(AdmissionControl admissionControl) {
+    this.admissionControl = admissionControl;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain chain)
+      throws ServletException, IOException {
+    final var endpoint = admissionControl.endpointOf(request);
+    if (endpoint == null) {
+      chain.doFilter(request, response);
+      return;
+    }
+
+    final var wait = admissionControl.takeToken(endpoint, request);
+    if (!wait.isZero()) {
+      admissionControl.rejected(endpoint, "rate");
+      reject(response, wait);
+      return;
+    }
+
+    final var limit = admissionControl.limitOf(endpoint);
+    if (!limit.tryAcquire()) {
+      admissionControl.rejected(endpoint, "concurrency");
+      reject(response, AdmissionControl.CONCURRENCY_RETRY_AFTER);
+      return;
+    }
+
+    boolean completed = false;
+    try {
+      chain.doFilter(request, response);
+      completed = true;
+    } finally {
+      if (completed && request.isAsyncStarted()) {
+        request.getAsyncContext().addListener(new Release(limit, response));
+      } else {
+        // an exception is a failure even if the status has not been set yet
+        limit.release(completed ? response.getStatus() : 500);
+      }
+    }
+  }
+
+  private static void reject(HttpServletResponse response, Duration wait) throws IOException {
+    final long seconds = Math.max(1, (wait.toMillis() + 999) / 1000);
+    response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+    response.sendError(429, "Too many requests");
+  }
+
+  private record Release(AdaptiveLimit limit, HttpServletResponse response)
+      implements AsyncListener {
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+      limit.release(response.getStatus());
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+      // onComplete follows
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+      // onComplete follows
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+      // not restarted
+    }
+  }
+}
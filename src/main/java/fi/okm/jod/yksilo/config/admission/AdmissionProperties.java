@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.config.admission;
+
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Admission control settings of the inference backed endpoints.
+ *
+ * @param endpoints Path patterns (under the context path) of the limited endpoints, only POST
+ *     requests are limited
+ * @param clientAddressHeader Header with the client address set by the proxy (for example
+ *     CloudFront-Viewer-Address), the remote address is used if not set
+ * @param clientBurst Token bucket size per client (user or address) and endpoint
+ * @param clientRate Token refill rate per client and endpoint (tokens per second)
+ * @param endpointBurst Token bucket size per endpoint (cluster-wide)
+ * @param endpointRate Token refill rate per endpoint (tokens per second)
+ * @param initialConcurrency Initial concurrency limit per endpoint and instance
+ * @param minConcurrency Lower bound of the adaptive concurrency limit
+ * @param maxConcurrency Upper bound of the adaptive concurrency limit
+ */
+@ConfigurationProperties("jod.admission")
+public record AdmissionProperties(
+    @DefaultValue({
+          "/api/ehdotus/**",
+          "/api/keskustelut",
+          "/api/keskustelut/*",
+          "/api/profiili/cv"
+        })
+        List<String> endpoints,
+    @DefaultValue("") String clientAddressHeader,
+    @DefaultValue("20") int clientBurst,
+    @DefaultValue("0.5") double clientRate,
+    @DefaultValue("200") int endpointBurst,
+    @DefaultValue("20") double endpointRate,
+    @DefaultValue("32") int initialConcurrency,
+    @DefaultValue("4") int minConcurrency,
+    @DefaultValue("128") int maxConcurrency) {
+
+  public AdmissionProperties {
+    if (clientBurst <= 0 || clientRate <= 0 || endpointBurst <= 0 || endpointRate <= 0) {
+      throw new IllegalArgumentException("Token bucket sizes and rates must be positive");
+    }
+    if (minConcurrency <= 0
+        || initialConcurrency < minConcurrency
+        || maxConcurrency < initialConcurrency) {
+      throw new IllegalArgumentException("Concurrency limits must be positive and ordered");
+    }
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.ArrayList;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.boot.jdbc.autoconfigure.JdbcConnectionDetails;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Routes the read-only transactions to the read replicas ({@code jod.datasource.replica.urls},
+ * comma separated), see {@link ReplicaRouter}.
+ *
+ * <p>The primary data source is wrapped in a {@link LazyConnectionDataSourceProxy}, which fetches
+ * the actual connection on the first statement, when the transaction manager has already marked
+ * the connection read-only. The replicas use the same user (and IAM authentication if enabled).
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "jod.datasource.replica.urls")
+class ReplicaDataSourceConfig {
+
+  @Bean
+  ReplicaRouter replicaRouter(
+      ReplicaProperties properties,
+      DataSourceProperties dataSourceProperties,
+      ObjectProvider<JdbcConnectionDetails> jdbcConnectionDetails,
+      ObjectProvider<RdsIamAuthTokenProvider> rdsAuthTokenProvider) {
+    final var authTokenProvider = rdsAuthTokenProvider.getIfAvailable();
+    // the connection details (e.g. a service connection) if the primary is auto-configured
+    final var connectionDetails = jdbcConnectionDetails.getIfAvailable();
+    final var username =
+        connectionDetails == null
+            ? dataSourceProperties.getUsername()
+            : connectionDetails.getUsername();
+    final var password =
+        connectionDetails == null
+            ? dataSourceProperties.getPassword()
+            : connectionDetails.getPassword();
+    final var replicas = new ArrayList<DataSource>();
+    for (var url : properties.urls()) {
+      final HikariDataSource replica;
+      if (authTokenProvider == null) {
+        replica = new HikariDataSource();
+        replica.setPassword(password);
+      } else {
+        final var iamAuthReplica = new RdsIamAuthHikariDataSource();
+        iamAuthReplica.setAuthTokenProvider(authTokenProvider);
+        replica = iamAuthReplica;
+      }
+      replica.setPoolName("replica-" + replicas.size());
+      replica.setJdbcUrl(url);
+      replica.setUsername(username);
+      replica.setReadOnly(true);
+      replica.setMaximumPoolSize(properties.maximumPoolSize());
+      replicas.add(replica);
+    }
+    return new ReplicaRouter(replicas, properties.maxLag());
+  }
+
+  @Bean
+  static BeanPostProcessor replicaRoutingPostProcessor(
+      ObjectProvider<ReplicaRouter> replicaRouter) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if ("dataSource".equals(beanName) && bean instanceof DataSource primary) {
+          final var router = replicaRouter.getObject();
+          router.setPrimary(primary);
+          final var proxy = new LazyConnectionDataSourceProxy(primary);
+          proxy.setReadOnlyDataSource(router.readOnlyDataSource());
+          return proxy;
+        }
+        return bean;
+      }
+    };
+  }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.config.datasource;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Read replicas for the read-only transactions.
+ *
+ * @param urls JDBC URLs of the replicas, the replicas are not used if empty
+ * @param maxLag replicas lagging more are not used, and the reads of a session go to the primary
+ *     for this long after a write
+ * @param lagCheckInterval interval of checking the replication lag
+ * @param maximumPoolSize maximum size of the connection pool of each replica
+ */
+@ConfigurationProperties("jod.datasource.replica")
+public record ReplicaProperties(
+    @DefaultValue List<String> urls,
+    @DefaultValue("5s") Duration maxLag,
+    @DefaultValue("10s") Duration lagCheckInterval,
+    @DefaultValue("10") int maximumPoolSize) {}
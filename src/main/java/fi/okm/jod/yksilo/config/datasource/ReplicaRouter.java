@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.config.datasource;
+
+import fi.okm.jod.yksilo.service.profiili.ProfileChangesCommittedEvent;
+import jakarta.servlet.http.HttpSession;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Routes the connections of the read-only transactions to the replicas (round robin) whose
+ * replication lag is below the limit, or to the primary if there are none. Not a data source
+ * itself, so that the primary remains the only data source bean; see {@link #readOnlyDataSource()}.
+ *
+ * <p>Reads your writes: after a profile change, the reads of the same HTTP session go to the
+ * primary for the maximum lag. The time of the last write is stored in the session, so it applies
+ * to all the instances.
+ */
+@Slf4j
+class ReplicaRouter implements DisposableBean {
+
+  static final String LAST_WRITE_ATTRIBUTE = ReplicaRouter.class.getName() + ".WRITE";
+
+  private static final String LAG_QUERY =
+      """
+      SELECT CASE
+               WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+               ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+             END
+      """;
+
+  private final List<DataSource> replicas;
+  private final Duration maxLag;
+  private final LongSupplier clock;
+  private final AtomicInteger next = new AtomicInteger();
+  private volatile List<DataSource> available = List.of();
+  private volatile DataSource primary;
+
+  ReplicaRouter(List<DataSource> replicas, Duration maxLag) {
+    this(replicas, maxLag, System::currentTimeMillis);
+  }
+
+  // for testing
+  ReplicaRouter(List<DataSource> replicas, Duration maxLag, LongSupplier clock) {
+    this.replicas = List.copyOf(replicas);
+    this.maxLag = maxLag;
+    this.clock = clock;
+  }
+
+  void setPrimary(DataSource primary) {
+    this.primary = primary;
+  }
+
+  /** Returns the data source of the read-only transactions, which routes each connection. */
+  DataSource readOnlyDataSource() {
+    return new AbstractDataSource() {
+      @Override
+      public Connection getConnection() throws SQLException {
+        return select().getConnection();
+      }
+
+      @Override
+      public Connection getConnection(String username, String password) throws SQLException {
+        return select().getConnection(username, password);
+      }
+    };
+  }
+
+  DataSource select() {
+    final var candidates = available;
+    if (candidates.isEmpty() || recentlyWritten()) {
+      return primary;
+    }
+    return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+  }
+
+  /** Updates the replicas available for reads based on their replication lag. */
+  @Scheduled(
+      initialDelay = 0,
+      fixedDelayString = "${jod.datasource.replica.lag-check-interval:10s}")
+  void checkLag() {
+    final var result = replicas.stream().filter(this::isAvailable).toList();
+    if (result.size() != available.size()) {
+      log.info("{} of {} read replicas available", result.size(), replicas.size());
+    }
+    available = result;
+  }
+
+  private boolean isAvailable(DataSource replica) {
+    try (var connection = replica.getConnection();
+        var statement = connection.createStatement();
+        var resultSet = statement.executeQuery(LAG_QUERY)) {
+      final double lagSeconds = resultSet.next() ? resultSet.getDouble(1) : Double.MAX_VALUE;
+      return lagSeconds * 1000 < maxLag.toMillis();
+    } catch (SQLException e) {
+      log.warn("Checking read replica lag failed: {}", e.getMessage());
+      return false;
+    }
+  }
+
+  @EventListener(ProfileChangesCommittedEvent.class)
+  void profileChanged() {
+    if (session() instanceof HttpSession session) {
+      session.setAttribute(LAST_WRITE_ATTRIBUTE, clock.getAsLong());
+    }
+  }
+
+  private boolean recentlyWritten() {
+    return session() instanceof HttpSession session
+        && session.getAttribute(LAST_WRITE_ATTRIBUTE) instanceof Number lastWrite
+        && clock.getAsLong() - lastWrite.longValue() < maxLag.toMillis();
+  }
+
+  private static @Nullable HttpSession session() {
+    return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attrs
+        ? attrs.getRequest().getSession(false)
+        : null;
+  }
+
+  @Override
+  public void destroy() throws Exception {
+    for (var replica : replicas) {
+      if (replica instanceof AutoCloseable closeable) {
+        closeable.close();
+      }
+    }
+  }
+}
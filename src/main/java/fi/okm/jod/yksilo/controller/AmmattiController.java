@@ -15,8 +15,11 @@ import fi.okm.jod.yksilo.dto.AmmattiDto;
 import fi.okm.jod.yksilo.dto.SivuDto;
 import fi.okm.jod.yksilo.service.AmmattiService;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import java.io.IOException;
 import java.net.URI;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -34,29 +37,43 @@ import org.springframework.web.context.request.WebRequest;
 @RequiredArgsConstructor
 @Tag(name = "ammatit", description = "Ammattien (ESCO) listaus")
 class AmmattiController {
+  private static final CacheControl CACHE_CONTROL =
+      CacheControl.maxAge(60, TimeUnit.SECONDS).mustRevalidate().cachePublic();
+
   private final AmmattiService ammatit;
+  private final SerializedPageCache pages;
 
   @GetMapping
   ResponseEntity<SivuDto<AmmattiDto>> find(
       WebRequest request,
+      HttpServletRequest servletRequest,
+      HttpServletResponse response,
       @RequestParam(required = false, defaultValue = "0") @Min(0) int sivu,
       @RequestParam(required = false, defaultValue = "10") @Min(1) @Max(1000) int koko,
-      @RequestParam(required = false) Set<URI> uri) {
+      @RequestParam(required = false) Set<URI> uri)
+      throws IOException {
 
     var etag = weakEtagOf(ammatit.currentVersion());
     SivuDto<AmmattiDto> body;
 
     if (request.checkNotModified(etag)) {
       body = null;
+    } else if (uri == null) {
+      // the pages of the whole catalog are served pre-serialized
+      var result = ammatit.findAll(sivu, koko);
+      pages.write(
+          servletRequest,
+          response,
+          CACHE_CONTROL,
+          new SerializedPageCache.Key("ammatit", result.version(), sivu, koko),
+          result.payload());
+      return null;
     } else {
-      var result = (uri == null) ? ammatit.findAll(sivu, koko) : ammatit.findBy(sivu, koko, uri);
+      var result = ammatit.findBy(sivu, koko, uri);
       body = result.payload();
       etag = weakEtagOf(result.version());
     }
 
-    return ResponseEntity.ok()
-        .eTag(etag)
-        .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).mustRevalidate().cachePublic())
-        .body(body);
+    return ResponseEntity.ok().eTag(etag).cacheControl(CACHE_CONTROL).body(body);
   }
 }
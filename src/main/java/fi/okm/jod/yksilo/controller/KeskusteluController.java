@@ -14,29 +14,45 @@ import fi.okm.jod.yksilo.config.feature.Feature;
 import fi.okm.jod.yksilo.config.feature.FeatureRequired;
 import fi.okm.jod.yksilo.domain.Kieli;
 import fi.okm.jod.yksilo.domain.LocalizedString;
+import fi.okm.jod.yksilo.errorhandler.ErrorInfo.ErrorCode;
+import fi.okm.jod.yksilo.errorhandler.ErrorInfoFactory;
+import fi.okm.jod.yksilo.service.AmmattiService;
+import fi.okm.jod.yksilo.service.OsaaminenService;
 import fi.okm.jod.yksilo.service.inference.InferenceService;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.media.Schema.AccessMode;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
-import java.time.Instant;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
 import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping(path = "/api/keskustelut")
@@ -45,71 +61,302 @@ import org.springframework.web.bind.annotation.RestController;
 @FeatureRequired(Feature.VIRTUAALIOHJAAJA)
 public class KeskusteluController {
 
-  private static final String CONVERSATION_SESSION_ATTRIBUTE =
-      KeskusteluController.class.getName() + ".CONVERSATION";
+  /** Header of the client key of the conversation (returned when it is created). */
+  public static final String AVAIN_HEADER = "X-Keskustelu-Avain";
+
   public static final int MAX_CONVERSATION_SECONDS = 1800;
+  static final Duration STREAM_TIMEOUT = Duration.ofMinutes(2);
 
   private final InferenceService<InferenceRequest, InferenceResponse> inferenceService;
+  private final OsaaminenService osaaminenService;
+  private final AmmattiService ammattiService;
+  private final KeskusteluStore store;
+  private final ErrorInfoFactory errorInfo;
+  private final TaskExecutor taskExecutor;
   private final String endpoint;
 
   public KeskusteluController(
       InferenceService<InferenceRequest, InferenceResponse> inferenceService,
+      OsaaminenService osaaminenService,
+      AmmattiService ammattiService,
+      KeskusteluStore store,
+      ErrorInfoFactory errorInfo,
+      @Qualifier("taskExecutor") TaskExecutor taskExecutor,
       @Value("${jod.keskustelu.endpoint}") String endpoint) {
     this.inferenceService = inferenceService;
+    this.osaaminenService = osaaminenService;
+    this.ammattiService = ammattiService;
+    this.store = store;
+    this.errorInfo = errorInfo;
+    this.taskExecutor = taskExecutor;
     this.endpoint = endpoint;
   }
 
+  /**
+   * Starts a new conversation. The inference request does not hold a request thread, the
+   * conversation is stored on the task executor when the response arrives.
+   */
   @PostMapping
-  public Keskustelu createKeskustelu(
-      @RequestBody @NotNull @Valid UusiKeskustelu uusiKeskustelu, HttpServletRequest request) {
+  public CompletableFuture<Keskustelu> createKeskustelu(
+      @RequestBody @NotNull @Valid UusiKeskustelu uusiKeskustelu) {
 
-    var inferenceResponse =
-        inferenceService.infer(
-            endpoint,
-            InferenceRequest.newConversation(uusiKeskustelu.viesti(), uusiKeskustelu.tila()),
-            new ParameterizedTypeReference<>() {});
+    var inferenceRequest =
+        InferenceRequest.newConversation(uusiKeskustelu.viesti(), uusiKeskustelu.tila());
+    return inferenceService
+        .inferAsync(endpoint, inferenceRequest, RESPONSE_TYPE)
+        .thenApplyAsync(
+            inferenceResponse -> {
+              var session = inferenceResponse.session();
+              var avain = create(session, inferenceRequest, inferenceResponse.response());
+              return new Keskustelu(
+                  session.id(),
+                  avain,
+                  inferenceResponse.response(),
+                  inferenceResponse.suggestions());
+            },
+            taskExecutor);
+  }
 
-    var httpSession = request.getSession();
-    httpSession.setAttribute(CONVERSATION_SESSION_ATTRIBUTE, inferenceResponse.session());
+  @PostMapping("/{id}")
+  public CompletableFuture<ResponseEntity<Vastaus>> continueKeskustelu(
+      @PathVariable UUID id,
+      @RequestHeader(name = AVAIN_HEADER, required = false) String avain,
+      @RequestBody @NotNull @Size(min = 2, max = 1000) LocalizedString viesti) {
 
-    log.info("Created a new conversation with id {}", inferenceResponse.session().id());
+    var inferenceSession = find(id, avain);
+    if (inferenceSession == null) {
+      return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
+    }
 
-    return new Keskustelu(
-        inferenceResponse.session().id(),
-        inferenceResponse.response(),
-        inferenceResponse.suggestions());
+    log.info("Continuing conversation {}", id);
+    var inferenceRequest = InferenceRequest.continueConversation(inferenceSession, viesti);
+    return inferenceService
+        .inferAsync(endpoint, inferenceRequest, RESPONSE_TYPE)
+        .thenApplyAsync(
+            inferenceResponse -> {
+              append(inferenceSession, inferenceRequest, inferenceResponse.response());
+              return ResponseEntity.ok(
+                  new Vastaus(inferenceResponse.response(), inferenceResponse.suggestions()));
+            },
+            taskExecutor);
   }
 
-  @PostMapping("/{id}")
-  public ResponseEntity<Vastaus> continueKeskustelu(
-      @PathVariable UUID id,
-      @RequestBody @NotNull @Size(min = 2, max = 1000) LocalizedString viesti,
-      HttpServletRequest request) {
+  /** Returns the messages of the conversation, the oldest first. */
+  @GetMapping("/{id}")
+  public ResponseEntity<List<Viesti>> getKeskustelu(
+      @PathVariable UUID id, @RequestHeader(name = AVAIN_HEADER, required = false) String avain) {
 
-    if (!(request.getSession(false) instanceof HttpSession httpSession
-        && httpSession.getAttribute(CONVERSATION_SESSION_ATTRIBUTE)
-            instanceof InferenceSession inferenceSession)) {
+    var inferenceSession = find(id, avain);
+    if (inferenceSession == null) {
       return ResponseEntity.notFound().build();
     }
+    return ResponseEntity.ok(store.history(inferenceSession));
+  }
 
-    if (!inferenceSession.id().equals(id)
-        || Instant.now()
-            .isAfter(
-                Instant.ofEpochSecond(inferenceSession.timestamp())
-                    .plusSeconds(MAX_CONVERSATION_SECONDS))) {
-      log.warn("Attempt to continue non-existing or expired conversation {}", id);
-      httpSession.removeAttribute(CONVERSATION_SESSION_ATTRIBUTE);
+  /**
+   * Streaming variant of {@link #createKeskustelu}. Sends the response as "osa" events (a part of
+   * the response and the new suggestions) as it is generated, and the whole conversation as a
+   * "valmis" event at the end (or a "virhe" event if the inference fails).
+   */
+  @PostMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter createKeskusteluStream(
+      @RequestBody @NotNull @Valid UusiKeskustelu uusiKeskustelu) {
+
+    var inferenceRequest =
+        InferenceRequest.newConversation(uusiKeskustelu.viesti(), uusiKeskustelu.tila());
+    return stream(
+        inferenceRequest,
+        null,
+        (inferenceSession, vastaus) -> create(inferenceSession, inferenceRequest, vastaus));
+  }
+
+  /** Streaming variant of {@link #continueKeskustelu}, see {@link #createKeskusteluStream}. */
+  @PostMapping(path = "/{id}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public ResponseEntity<SseEmitter> continueKeskusteluStream(
+      @PathVariable UUID id,
+      @RequestHeader(name = AVAIN_HEADER, required = false) String avain,
+      @RequestBody @NotNull @Size(min = 2, max = 1000) LocalizedString viesti) {
+
+    var inferenceSession = find(id, avain);
+    if (inferenceSession == null) {
       return ResponseEntity.notFound().build();
     }
 
     log.info("Continuing conversation {}", id);
-    var inferenceResponse =
-        inferenceService.infer(
-            endpoint,
-            InferenceRequest.continueConversation(inferenceSession, viesti),
-            RESPONSE_TYPE);
+    var inferenceRequest = InferenceRequest.continueConversation(inferenceSession, viesti);
     return ResponseEntity.ok(
-        new Vastaus(inferenceResponse.response(), inferenceResponse.suggestions()));
+        stream(
+            inferenceRequest,
+            inferenceSession,
+            (ignored, vastaus) -> {
+              append(inferenceSession, inferenceRequest, vastaus);
+              return null;
+            }));
+  }
+
+  /** Stores a new conversation, returns the key of the client. */
+  private String create(
+      InferenceSession inferenceSession, InferenceRequest inferenceRequest, String vastaus) {
+    var avain = store.create(inferenceSession);
+    append(inferenceSession, inferenceRequest, vastaus);
+    log.info("Created a new conversation with id {}", inferenceSession.id());
+    return avain;
+  }
+
+  private void append(
+      InferenceSession inferenceSession, InferenceRequest inferenceRequest, String vastaus) {
+    store.append(
+        inferenceSession,
+        new Viesti(Rooli.KAYTTAJA, inferenceRequest.message()),
+        new Viesti(Rooli.OHJAAJA, vastaus));
+  }
+
+  private @Nullable InferenceSession find(UUID id, @Nullable String avain) {
+    var inferenceSession = store.find(id, avain);
+    if (inferenceSession == null) {
+      log.warn("Attempt to continue non-existing or expired conversation {}", id);
+    }
+    return inferenceSession;
+  }
+
+  /**
+   * Streams the response parts to the client. The suggestions are validated against the known
+   * osaamiset and ammatit as they arrive, and only the new ones are sent. The parts arrive on the
+   * event loop of the inference client, so they are sent in order on the task executor. The
+   * inference is cancelled if the stream ends first (the client disconnects or it times out).
+   *
+   * @param current session of the conversation, the parts must contain the session if not set
+   * @param completed stores the completed response, returns the key of a new conversation
+   */
+  private SseEmitter stream(
+      InferenceRequest inferenceRequest,
+      @Nullable InferenceSession current,
+      BiFunction<InferenceSession, String, @Nullable String> completed) {
+
+    final var emitter = new SseEmitter(STREAM_TIMEOUT.toMillis());
+    final var vastaus = new StringBuilder();
+    final var ehdotukset = new LinkedHashSet<URI>();
+    final var session = new AtomicReference<>(current);
+    // the sending of the parts received so far, a failed send skips the rest
+    final var sent =
+        new AtomicReference<CompletableFuture<Void>>(CompletableFuture.completedFuture(null));
+
+    final var inference =
+        inferenceService.inferStream(
+            endpoint,
+            inferenceRequest,
+            RESPONSE_TYPE,
+            part ->
+                sent.updateAndGet(
+                    previous ->
+                        previous.thenRunAsync(
+                            () -> sendPart(emitter, part, session, vastaus, ehdotukset),
+                            taskExecutor)));
+    emitter.onTimeout(() -> inference.cancel(true));
+    emitter.onError(_ -> inference.cancel(true));
+    emitter.onCompletion(() -> inference.cancel(true));
+
+    inference.whenComplete(
+        (_, error) ->
+            sent.get()
+                .whenCompleteAsync(
+                    (_, sendError) -> {
+                      if (inference.isCancelled()) {
+                        log.debug("Conversation stream ended before the response");
+                        return;
+                      }
+                      if (sendError != null) {
+                        log.debug("Conversation stream closed: {}", sendError.getMessage());
+                        return;
+                      }
+                      complete(emitter, session.get(), error, completed, vastaus, ehdotukset);
+                    },
+                    taskExecutor));
+    return emitter;
+  }
+
+  /** Sends the new part of the response and the new suggestions of the part. */
+  private void sendPart(
+      SseEmitter emitter,
+      InferenceResponse part,
+      AtomicReference<@Nullable InferenceSession> session,
+      StringBuilder vastaus,
+      Set<URI> ehdotukset) {
+    if (part.session() != null) {
+      session.set(part.session());
+    }
+    var osa = part.response() == null ? "" : part.response();
+    var uudet = new LinkedHashSet<URI>();
+    if (part.suggestions() != null) {
+      for (var uri : part.suggestions()) {
+        if (isKnown(uri) && ehdotukset.add(uri)) {
+          uudet.add(uri);
+        }
+      }
+    }
+    vastaus.append(osa);
+    if (!osa.isEmpty() || !uudet.isEmpty()) {
+      send(emitter, "osa", new VastausOsa(osa, uudet));
+    }
+  }
+
+  private void complete(
+      SseEmitter emitter,
+      @Nullable InferenceSession inferenceSession,
+      @Nullable Throwable error,
+      BiFunction<InferenceSession, String, @Nullable String> completed,
+      StringBuilder vastaus,
+      Set<URI> ehdotukset) {
+    if (error != null || inferenceSession == null) {
+      log.warn("Conversation stream failed: {}", error == null ? "no session" : error);
+      fail(emitter);
+      return;
+    }
+    final String avain;
+    try {
+      avain = completed.apply(inferenceSession, vastaus.toString());
+    } catch (RuntimeException e) {
+      log.warn("Storing the conversation failed: {}", e.getMessage());
+      fail(emitter);
+      return;
+    }
+    try {
+      send(
+          emitter,
+          "valmis",
+          new Keskustelu(inferenceSession.id(), avain, vastaus.toString(), ehdotukset));
+      emitter.complete();
+    } catch (UncheckedIOException | IllegalStateException e) {
+      log.debug("Conversation stream closed: {}", e.getMessage());
+    }
+  }
+
+  private void fail(SseEmitter emitter) {
+    try {
+      send(emitter, "virhe", errorInfo.of(ErrorCode.SERVICE_ERROR));
+      emitter.complete();
+    } catch (UncheckedIOException | IllegalStateException e) {
+      log.debug("Conversation stream closed: {}", e.getMessage());
+    }
+  }
+
+  private boolean isKnown(URI uri) {
+    return osaaminenService.getIds().contains(uri) || ammattiService.getIds().contains(uri);
+  }
+
+  /**
+   * Sends an event, fails (ending the stream) if the client has disconnected or the stream has
+   * completed (timed out).
+   *
+   * @throws UncheckedIOException if the client has disconnected
+   * @throws IllegalStateException if the stream has completed
+   */
+  private static void send(SseEmitter emitter, String name, Object data) {
+    try {
+      emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
   }
 
   public enum Mode {
@@ -162,12 +409,23 @@ public class KeskusteluController {
 
   public record Keskustelu(
       @Schema(accessMode = AccessMode.READ_ONLY) UUID id,
+      @Schema(accessMode = AccessMode.READ_ONLY, description = "Client key of a new conversation")
+          String avain,
       @NotNull String vastaus,
       Set<URI> ehdotukset) {}
 
   public record Vastaus(
       @Schema(accessMode = AccessMode.READ_ONLY) @NotNull String vastaus, Set<URI> ehdotukset) {}
 
+  public record VastausOsa(@NotNull String vastaus, Set<URI> ehdotukset) {}
+
+  public enum Rooli {
+    KAYTTAJA,
+    OHJAAJA
+  }
+
+  public record Viesti(@NotNull Rooli rooli, @NotNull String viesti) {}
+
   private static final ParameterizedTypeReference<InferenceResponse> RESPONSE_TYPE =
       new ParameterizedTypeReference<>() {};
 }
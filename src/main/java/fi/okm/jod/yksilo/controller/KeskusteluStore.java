@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.controller;
+
+import fi.okm.jod.yksilo.controller.KeskusteluController.InferenceSession;
+import fi.okm.jod.yksilo.controller.KeskusteluController.Viesti;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Stores the conversations in Redis instead of the HTTP session, so that anonymous conversations
+ * do not create sessions and can be continued on any instance.
+ *
+ * <p>A conversation is a hash (the inference session and the hash of the client key) and a list
+ * of the latest messages, both keyed by the conversation id. They expire {@link
+ * KeskusteluController#MAX_CONVERSATION_SECONDS} after the conversation was started. The client
+ * receives a random key when the conversation is created, and the conversation is only found with
+ * the key.
+ */
+@Component
+class KeskusteluStore {
+
+  static final String KEY_PREFIX = "jod:keskustelu:";
+  static final int MAX_HISTORY = 100;
+
+  private static final String SESSION = "session";
+  private static final String AVAIN = "avain";
+
+  // Stores the conversation (KEYS[1]) with the session (ARGV[1]) and the hash of the client key
+  // (ARGV[2]), expiring at ARGV[3] (epoch seconds).
+  private static final RedisScript<Long> CREATE =
+      RedisScript.of(
+          """
+          redis.call('HSET', KEYS[1], 'session', ARGV[1], 'avain', ARGV[2])
+          return redis.call('EXPIREAT', KEYS[1], ARGV[3])
+          """,
+          Long.class);
+
+  // Appends the messages (ARGV[3..]) to the history (KEYS[1]), keeps the latest ARGV[2] messages
+  // and expires the history at ARGV[1] (epoch seconds).
+  private static final RedisScript<Long> APPEND =
+      RedisScript.of(
+          """
+          redis.call('RPUSH', KEYS[1], unpack(ARGV, 3))
+          redis.call('LTRIM', KEYS[1], -tonumber(ARGV[2]), -1)
+          return redis.call('EXPIREAT', KEYS[1], ARGV[1])
+          """,
+          Long.class);
+
+  private final StringRedisTemplate redis;
+  private final ObjectMapper objectMapper;
+  private final SecureRandom random = new SecureRandom();
+
+  KeskusteluStore(StringRedisTemplate redis, ObjectMapper objectMapper) {
+    this.redis = redis;
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Stores a new conversation.
+   *
+   * @return the key of the client
+   */
+  String create(InferenceSession session) {
+    final var bytes = new byte[32];
+    random.nextBytes(bytes);
+    final var avain = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+    redis.execute(
+        CREATE,
+        List.of(key(session.id())),
+        objectMapper.writeValueAsString(session),
+        hash(avain),
+        String.valueOf(expiresAt(session).getEpochSecond()));
+    return avain;
+  }
+
+  /** Returns the session of the conversation, or null if it does not exist or the key is wrong. */
+  @Nullable InferenceSession find(UUID id, @Nullable String avain) {
+    if (avain == null || avain.isEmpty()) {
+      return null;
+    }
+    final var values =
+        redis.<String, String>opsForHash().multiGet(key(id), List.of(SESSION, AVAIN));
+    if (values.get(0) == null
+        || values.get(1) == null
+        || !MessageDigest.isEqual(
+            values.get(1).getBytes(StandardCharsets.US_ASCII),
+            hash(avain).getBytes(StandardCharsets.US_ASCII))) {
+      return null;
+    }
+    return objectMapper.readValue(values.get(0), InferenceSession.class);
+  }
+
+  /** Appends the messages to the history of the conversation (keeping the latest messages). */
+  void append(InferenceSession session, Viesti... viestit) {
+    if (viestit.length == 0) {
+      return;
+    }
+    final var args = new ArrayList<String>();
+    args.add(String.valueOf(expiresAt(session).getEpochSecond()));
+    args.add(String.valueOf(MAX_HISTORY));
+    for (var viesti : viestit) {
+      args.add(objectMapper.writeValueAsString(viesti));
+    }
+    redis.execute(APPEND, List.of(key(session.id()) + ":historia"), args.toArray());
+  }
+
+  /** Returns the history of the conversation, the oldest message first. */
+  List<Viesti> history(InferenceSession session) {
+    final var values = redis.opsForList().range(key(session.id()) + ":historia", 0, -1);
+    return values == null
+        ? List.of()
+        : values.stream().map(value -> objectMapper.readValue(value, Viesti.class)).toList();
+  }
+
+  private static Instant expiresAt(InferenceSession session) {
+    return Instant.ofEpochSecond(session.timestamp())
+        .plusSeconds(KeskusteluController.MAX_CONVERSATION_SECONDS);
+  }
+
+  private static String key(UUID id) {
+    return KEY_PREFIX + id;
+  }
+
+  private static String hash(String avain) {
+    try {
+      return Base64.getEncoder()
+          .encodeToString(
+              MessageDigest.getInstance("SHA-256")
+                  .digest(avain.getBytes(StandardCharsets.US_ASCII)));
+    } catch (NoSuchAlgorithmException e) {
+      // SHOULD NOT HAPPEN
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -9,11 +9,16 @@
 
 package fi.okm.jod.yksilo.controller;
 
+import static fi.okm.jod.yksilo.validation.Limits.SIVUN_MAKSIMI_KOKO;
+
 import fi.okm.jod.yksilo.dto.KoulutusmahdollisuusDto;
 import fi.okm.jod.yksilo.dto.KoulutusmahdollisuusFullDto;
+import fi.okm.jod.yksilo.dto.Kursori;
+import fi.okm.jod.yksilo.dto.KursoriSivuDto;
 import fi.okm.jod.yksilo.dto.SivuDto;
 import fi.okm.jod.yksilo.service.KoulutusmahdollisuusService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -54,6 +59,25 @@ public class KoulutusmahdollisuusController {
     return new SivuDto<>(new PageImpl<>(koulutusmahdollisuusService.findByIds(id)));
   }
 
+  @GetMapping("/kursori")
+  @Operation(
+      summary = "Get all koulutusmahdollisuudet using cursor pagination",
+      description = "Returns the next page of koulutusmahdollisuudet after the given kursori.")
+  public KursoriSivuDto<KoulutusmahdollisuusDto> findAllKursorilla(
+      @Parameter(description = "Continuation token (seuraava) of the previous page")
+          @RequestParam(required = false)
+          String kursori,
+      @RequestParam(required = false, defaultValue = "10")
+          @Min(1)
+          @Max(SIVUN_MAKSIMI_KOKO)
+          int koko,
+      @Parameter(description = "Whether to count the total number of items")
+          @RequestParam(required = false, defaultValue = "false")
+          boolean maara) {
+    return koulutusmahdollisuusService.findAll(
+        kursori == null ? null : Kursori.ofId(kursori), koko, maara);
+  }
+
   @GetMapping("/full")
   public SivuDto<KoulutusmahdollisuusFullDto> findAllFull(
       @RequestParam(required = false, defaultValue = "0") @Min(0) int sivu,
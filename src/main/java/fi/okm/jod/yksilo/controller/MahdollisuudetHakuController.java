@@ -15,6 +15,8 @@ import fi.okm.jod.yksilo.domain.Kieli;
 import fi.okm.jod.yksilo.dto.MahdollisuusDto;
 import fi.okm.jod.yksilo.service.MahdollisuudetSearchService;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Size;
 import java.util.SequencedCollection;
@@ -40,10 +42,12 @@ public class MahdollisuudetHakuController {
   @GetMapping
   public ResponseEntity<SequencedCollection<MahdollisuusDto>> search(
       @RequestParam(defaultValue = "fi") Kieli kieli,
-      @RequestParam @NotEmpty @Size(min = 3, max = 400) String teksti) {
+      @RequestParam @NotEmpty @Size(min = 3, max = 400) String teksti,
+      @RequestParam(defaultValue = "0") @Min(0) int sivu,
+      @RequestParam(required = false) @Min(1) @Max(1000) Integer koko) {
 
     return ResponseEntity.ok()
         .cacheControl(CacheControl.maxAge(300, TimeUnit.SECONDS))
-        .body(searchService.search(kieli, teksti));
+        .body(searchService.search(kieli, teksti, sivu, koko));
   }
 }
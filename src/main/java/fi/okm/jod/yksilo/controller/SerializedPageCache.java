@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.controller;
+
+import static fi.okm.jod.yksilo.controller.Etags.weakEtagOf;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Caches the serialized JSON (and its gzip compressed form) of the pages of versioned catalogs
+ * (osaamiset, ammatit), so that the pages of a catalog version are serialized and compressed only
+ * once. Entries of old versions are never requested again and are evicted eventually.
+ */
+@Component
+class SerializedPageCache {
+
+  static final long MAX_SIZE_BYTES = 64L * 1024 * 1024;
+
+  private final ObjectMapper objectMapper;
+  private final Cache<Key, Blob> cache;
+
+  SerializedPageCache(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumWeight(MAX_SIZE_BYTES)
+            .<Key, Blob>weigher((key, blob) -> blob.json().length + blob.gzip().length)
+            .build();
+  }
+
+  record Key(String catalog, long version, int sivu, int koko) {}
+
+  record Blob(byte[] json, byte[] gzip) {}
+
+  /**
+   * Writes the page (gzip compressed if the client accepts it) to the response. The page is
+   * serialized only if it is not cached yet.
+   *
+   * @param key Identifies the page, the version must be the catalog version of the page
+   */
+  void write(
+      HttpServletRequest request,
+      HttpServletResponse response,
+      CacheControl cacheControl,
+      Key key,
+      Object page)
+      throws IOException {
+    final var blob = cache.get(key, k -> serialize(page));
+    final var gzip = acceptsGzip(request);
+    final var body = gzip ? blob.gzip() : blob.json();
+
+    response.setStatus(HttpServletResponse.SC_OK);
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setHeader(HttpHeaders.ETAG, weakEtagOf(key.version()));
+    response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+    response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (gzip) {
+      response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+    response.setContentLength(body.length);
+    response.getOutputStream().write(body);
+  }
+
+  private Blob serialize(Object page) {
+    final var json = objectMapper.writeValueAsBytes(page);
+    final var compressed = new ByteArrayOutputStream(json.length / 4);
+    try (var out = new GZIPOutputStream(compressed)) {
+      out.write(json);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return new Blob(json, compressed.toByteArray());
+  }
+
+  /**
+   * Returns true if the Accept-Encoding header lists gzip (or "*" if gzip is not listed) with a
+   * non-zero q-value.
+   */
+  static boolean acceptsGzip(HttpServletRequest request) {
+    Boolean gzip = null;
+    Boolean any = null;
+    final var accept = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+    while (accept != null && accept.hasMoreElements()) {
+      for (var entry : accept.nextElement().split(",")) {
+        final var params = entry.split(";");
+        final var coding = params[0].trim().toLowerCase(Locale.ROOT);
+        if (coding.equals("gzip") || coding.equals("x-gzip")) {
+          gzip = qualityOf(params) > 0;
+        } else if (coding.equals("*")) {
+          any = qualityOf(params) > 0;
+        }
+      }
+    }
+    return gzip != null ? gzip : Boolean.TRUE.equals(any);
+  }
+
+  private static double qualityOf(String[] params) {
+    for (int i = 1; i < params.length; i++) {
+      final var param = params[i].trim();
+      if (param.length() > 2 && param.regionMatches(true, 0, "q=", 0, 2)) {
+        try {
+          return Double.parseDouble(param.substring(2).trim());
+        } catch (NumberFormatException e) {
+          return 0;
+        }
+      }
+    }
+    return 1;
+  }
+}
@@ -16,9 +16,7 @@ import fi.okm.jod.yksilo.domain.KoulutusmahdollisuusTyyppi;
 import fi.okm.jod.yksilo.domain.MahdollisuusTyyppi;
 import fi.okm.jod.yksilo.domain.OsaamisenLahdeTyyppi;
 import fi.okm.jod.yksilo.domain.TyomahdollisuusAineisto;
-import fi.okm.jod.yksilo.dto.AmmattiDto;
 import fi.okm.jod.yksilo.dto.MahdollisuusDto;
-import fi.okm.jod.yksilo.dto.OsaaminenDto;
 import fi.okm.jod.yksilo.dto.SuunnitelmaEhdotusDto;
 import fi.okm.jod.yksilo.dto.profiili.KoulutusDto;
 import fi.okm.jod.yksilo.dto.profiili.PatevyysDto;
@@ -26,37 +24,57 @@ import fi.okm.jod.yksilo.dto.profiili.ToimenkuvaDto;
 import fi.okm.jod.yksilo.dto.tyomahdollisuus.TyomahdollisuusDto;
 import fi.okm.jod.yksilo.service.AmmattiService;
 import fi.okm.jod.yksilo.service.OsaaminenService;
+import fi.okm.jod.yksilo.service.Ranking;
 import fi.okm.jod.yksilo.service.ehdotus.MahdollisuudetService;
+import fi.okm.jod.yksilo.service.inference.CachingInferenceService;
 import fi.okm.jod.yksilo.service.inference.InferenceService;
 import fi.okm.jod.yksilo.service.profiili.KoulutusService;
 import fi.okm.jod.yksilo.service.profiili.PatevyysService;
 import fi.okm.jod.yksilo.service.profiili.ToimenkuvaService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import java.io.IOException;
 import java.net.URI;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.SequencedMap;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -64,6 +82,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import tools.jackson.databind.ObjectMapper;
 
 @RestController
 @RequestMapping(path = "/api/ehdotus/mahdollisuudet")
@@ -79,9 +98,21 @@ class MahdollisuudetController {
   private final ToimenkuvaService toimenkuvaService;
   private final KoulutusService koulutusService;
   private final PatevyysService patevyysService;
+  private final ObjectMapper objectMapper;
+  private final TaskExecutor taskExecutor;
 
+  /**
+   * Inference endpoint configuration.
+   *
+   * @param endpoints Inference endpoint per language
+   * @param cache Result cache settings for the (deterministic) inference endpoint, caching is
+   *     disabled if not set. The maxWait limits how long an identical request waits for an
+   *     in-flight result.
+   */
   @ConfigurationProperties("jod.recommendation.mahdollisuus")
-  public record EndpointProperties(Map<Kieli, String> endpoints) {}
+  public record EndpointProperties(Map<Kieli, String> endpoints, @Nullable Cache cache) {
+    public record Cache(Duration ttl, long maximumSize, @DefaultValue("30s") Duration maxWait) {}
+  }
 
   MahdollisuudetController(
       InferenceService<Request, Response> inferenceService,
@@ -91,8 +122,18 @@ class MahdollisuudetController {
       AmmattiService ammattiService,
       ToimenkuvaService toimenkuvaService,
       KoulutusService koulutusService,
-      PatevyysService patevyysService) {
-    this.inferenceService = inferenceService;
+      PatevyysService patevyysService,
+      ObjectMapper objectMapper,
+      @Qualifier("taskExecutor") TaskExecutor taskExecutor) {
+    this.inferenceService =
+        properties.cache() == null
+            ? inferenceService
+            : new CachingInferenceService<>(
+                inferenceService,
+                objectMapper,
+                properties.cache().ttl(),
+                properties.cache().maximumSize(),
+                properties.cache().maxWait());
     this.endpoints = properties.endpoints();
     this.mahdollisuudetService = mahdollisuudetService;
     this.osaaminenService = osaaminenService;
@@ -100,68 +141,138 @@ class MahdollisuudetController {
     this.toimenkuvaService = toimenkuvaService;
     this.koulutusService = koulutusService;
     this.patevyysService = patevyysService;
+    this.objectMapper = objectMapper;
+    this.taskExecutor = taskExecutor;
 
-    log.info("Creating MahdollisuudetController, endpoint: {}", endpoints);
+    log.info(
+        "Creating MahdollisuudetController, endpoint: {}, cache: {}",
+        endpoints,
+        properties.cache());
   }
 
   @PostMapping
-  public List<EhdotusDto> createEhdotus(
+  @Operation(
+      summary = "Ranks all active opportunities (or the best maara of them) for the given profile",
+      responses =
+          @ApiResponse(
+              responseCode = "200",
+              content =
+                  @Content(
+                      mediaType = MediaType.APPLICATION_JSON_VALUE,
+                      array = @ArraySchema(schema = @Schema(implementation = EhdotusDto.class)))))
+  public void createEhdotus(
       @RequestHeader(value = HttpHeaders.CONTENT_LANGUAGE, defaultValue = "fi") Kieli lang,
       @RequestParam(defaultValue = "asc") Sort.Direction sort,
+      @RequestParam(required = false) @Min(1) Integer maara,
       @RequestBody @Valid LuoEhdotusDto ehdotus,
-      @AuthenticationPrincipal JodUser user) {
+      @AuthenticationPrincipal JodUser user,
+      HttpServletResponse response)
+      throws IOException {
     log.info("Creating the suggestions");
 
     if (endpoints.get(lang) == null) {
       throw new IllegalArgumentException("Unsupported language: " + lang);
     }
 
+    // The independent lookups run concurrently (on virtual threads, with the security context
+    // and MDC propagated by the task executor) and the inference request is sent as soon as its
+    // inputs are ready.
     final var mahdollisuusIds =
-        mahdollisuudetService.fetchTyoAndKoulutusMahdollisuusIdsWithTypes(sort, lang);
-
-    final var osaamiset =
-        ehdotus.osaamiset() == null
-            ? Set.<URI>of()
-            : Stream.concat(
-                    osaaminenService.findBy(ehdotus.osaamiset).stream().map(OsaaminenDto::uri),
-                    ammattiService.findBy(ehdotus.osaamiset).stream().map(AmmattiDto::uri))
-                .collect(Collectors.toSet());
-
-    final var osaamisetVapaateksti = ehdotus.osaamisetVapaateksti;
-
-    final var kiinnostukset =
-        ehdotus.kiinnostukset() == null
-            ? Set.<URI>of()
-            : Stream.concat(
-                    osaaminenService.findBy(ehdotus.kiinnostukset).stream().map(OsaaminenDto::uri),
-                    ammattiService.findBy(ehdotus.kiinnostukset).stream().map(AmmattiDto::uri))
-                .collect(Collectors.toSet());
-
-    final var kiinnostuksetVapaateksti = ehdotus.kiinnostuksetVapaateksti;
-
-    final var kuvaukset =
-        ehdotus.kuvaukset() == null ? Set.<LuoEhdotusKuvausDto>of() : ehdotus.kuvaukset();
-
-    if (osaamiset.isEmpty()
-        && (osaamisetVapaateksti == null || osaamisetVapaateksti.isBlank())
-        && kiinnostukset.isEmpty()
-        && (kiinnostuksetVapaateksti == null || kiinnostuksetVapaateksti.isBlank())
-        && kuvaukset.isEmpty()) {
-      return populateEmptyEhdotusDtos(mahdollisuusIds);
-    }
-
-    final Set<KuvausData> kuvauksetData =
+        fork(() -> mahdollisuudetService.fetchTyoAndKoulutusMahdollisuusIdsWithTypes(sort, lang));
+    final var osaamiset = fork(() -> findUris(ehdotus.osaamiset()));
+    final var kiinnostukset = fork(() -> findUris(ehdotus.kiinnostukset()));
+    final CompletableFuture<Set<KuvausData>> kuvauksetData =
         (user != null && ehdotus.kuvaukset != null)
             ? fetchKuvauksetData(user, lang, ehdotus.kuvaukset)
-            : Set.of();
+            : CompletableFuture.completedFuture(Set.of());
+
+    final var suggestions =
+        osaamiset
+            .thenCombine(kiinnostukset, Inputs::new)
+            .thenCombine(
+                kuvauksetData,
+                (inputs, kuvaukset) ->
+                    isEmpty(ehdotus, inputs)
+                        ? CompletableFuture.<@Nullable Map<UUID, Suggestion>>completedFuture(null)
+                        : performInferenceRequest(
+                            lang, ehdotus, inputs.osaamiset(), inputs.kiinnostukset(), kuvaukset))
+            .thenCompose(Function.identity());
+
+    final SequencedMap<UUID, MahdollisuusDto> ids;
+    final @Nullable Map<UUID, Suggestion> results;
+    try {
+      ids = join(mahdollisuusIds);
+      results = join(suggestions);
+    } finally {
+      Stream.of(mahdollisuusIds, osaamiset, kiinnostukset, kuvauksetData, suggestions)
+          .forEach(f -> f.cancel(false));
+    }
+
+    // populate ehdotus DTOs with the kohtaanto results from the inference endpoint, if any
+    writeEhdotukset(
+        response,
+        results == null
+            ? populateEmptyEhdotusDtos(ids, maara)
+            : populateEhdotusDtos(ids, results, maara));
+  }
+
+  private record Inputs(Set<URI> osaamiset, Set<URI> kiinnostukset) {}
+
+  private static boolean isEmpty(LuoEhdotusDto ehdotus, Inputs inputs) {
+    return inputs.osaamiset().isEmpty()
+        && (ehdotus.osaamisetVapaateksti == null || ehdotus.osaamisetVapaateksti.isBlank())
+        && inputs.kiinnostukset().isEmpty()
+        && (ehdotus.kiinnostuksetVapaateksti == null || ehdotus.kiinnostuksetVapaateksti.isBlank())
+        && (ehdotus.kuvaukset() == null || ehdotus.kuvaukset().isEmpty());
+  }
+
+  /**
+   * Returns the known osaamiset and ammatit of the URIs as the shared URI instances of the ESCO
+   * dictionaries. The dictionary ids are in sorted order, so the result (and the inference request)
+   * does not depend on the input order.
+   */
+  private Set<URI> findUris(@Nullable Set<URI> uris) {
+    if (uris == null) {
+      return Set.of();
+    }
+    final var known = new LinkedHashSet<URI>();
+    for (var ids : List.of(osaaminenService.getIds(), ammattiService.getIds())) {
+      ids.toBitSet(uris).stream().mapToObj(ids::uri).forEach(known::add);
+    }
+    return known;
+  }
+
+  private <T> CompletableFuture<T> fork(Supplier<T> task) {
+    return CompletableFuture.supplyAsync(task, taskExecutor);
+  }
 
-    // fetch kohtaanto results from inference endpoint and populate ehdotus DTOs
-    return populateEhdotusDtos(
-        mahdollisuusIds,
-        performInferenceRequest(lang, ehdotus, osaamiset, kiinnostukset, kuvauksetData));
+  /** Waits for the result, rethrowing the original exception of a failed task. */
+  private static <T> T join(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Writes the ehdotukset as a JSON array directly to the response, one element at a time, so that
+   * the full ranking is never materialized.
+   */
+  private void writeEhdotukset(HttpServletResponse response, Stream<EhdotusDto> ehdotukset)
+      throws IOException {
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    try (var generator = objectMapper.createGenerator(response.getOutputStream())) {
+      generator.writeStartArray();
+      ehdotukset.forEachOrdered(generator::writePOJO);
+      generator.writeEndArray();
+    }
   }
 
-  private Map<UUID, Suggestion> performInferenceRequest(
+  private CompletableFuture<@Nullable Map<UUID, Suggestion>> performInferenceRequest(
       Kieli lang,
       LuoEhdotusDto ehdotus,
       Set<URI> osaamiset,
@@ -182,14 +293,19 @@ class MahdollisuudetController {
                 kuvaukset));
 
     return inferenceService
-        .infer(endpoints.get(lang), request, new ParameterizedTypeReference<>() {})
-        .stream()
-        .collect(Collectors.toMap(Suggestion::id, r -> r, (exising, newValue) -> exising));
+        .inferAsync(endpoints.get(lang), request, new ParameterizedTypeReference<>() {})
+        .thenApply(
+            response ->
+                response.stream()
+                    .collect(
+                        Collectors.toMap(Suggestion::id, r -> r, (exising, newValue) -> exising)));
   }
 
-  private List<EhdotusDto> populateEmptyEhdotusDtos(Map<UUID, MahdollisuusDto> ids) {
+  private static Stream<EhdotusDto> populateEmptyEhdotusDtos(
+      SequencedMap<UUID, MahdollisuusDto> ids, Integer maara) {
     final var counter = new AtomicInteger(0);
     return ids.entrySet().stream()
+        .limit(maara == null ? Long.MAX_VALUE : maara)
         .map(
             entry ->
                 new EhdotusDto(
@@ -205,52 +321,52 @@ class MahdollisuudetController {
                         entry.getValue().kesto(),
                         entry.getValue().kestoMinimi(),
                         entry.getValue().kestoMaksimi(),
-                        counter.getAndIncrement())))
-        .toList();
+                        counter.getAndIncrement())));
   }
 
-  private List<EhdotusDto> populateEhdotusDtos(
-      SequencedMap<UUID, MahdollisuusDto> ids, Map<UUID, Suggestion> suggestions) {
-    // initialize lexicalIndex counters
-    final var counter = new AtomicInteger(0);
-    return ids.entrySet().stream()
-        .map(
-            entry -> {
-
-              // Retrieve the result or create a new Suggestion if not found
-              Suggestion suggestion =
-                  Optional.ofNullable(suggestions.get(entry.getKey()))
-                      .orElseGet(supplyEmptySuggestion(entry.getKey(), entry.getValue().tyyppi()));
+  private static Stream<EhdotusDto> populateEhdotusDtos(
+      SequencedMap<UUID, MahdollisuusDto> ids, Map<UUID, Suggestion> suggestions, Integer maara) {
+    final var mahdollisuudet = ids.values().toArray(MahdollisuusDto[]::new);
+    final var ranked = new Suggestion[mahdollisuudet.length];
+    final var pisteet = new double[mahdollisuudet.length];
+
+    for (int i = 0; i < mahdollisuudet.length; i++) {
+      final var mahdollisuus = mahdollisuudet[i];
+      // Retrieve the result or create a new Suggestion if not found
+      ranked[i] =
+          Optional.ofNullable(suggestions.get(mahdollisuus.id()))
+              .orElseGet(supplyEmptySuggestion(mahdollisuus.id(), mahdollisuus.tyyppi()));
+      pisteet[i] = Math.max(ranked[i].score(), 0);
+    }
 
-              // Create and return EhdotusDto
+    // equal scores keep their original (alphabetical) order
+    return Arrays.stream(Ranking.rank(pisteet, maara == null ? pisteet.length : maara))
+        .mapToObj(
+            i -> {
+              final var mahdollisuus = mahdollisuudet[i];
+              final var suggestion = ranked[i];
               return new EhdotusDto(
                   suggestion.id(),
                   new EhdotusMetadata(
                       MahdollisuusTyyppi.valueOf(suggestion.type()),
-                      entry.getValue().ammattiryhma(),
-                      entry.getValue().aineisto(),
-                      entry.getValue().koulutusTyyppi(),
-                      entry.getValue().maakunnat(),
-                      entry.getValue().toimialat(),
-                      entry.getValue().koulutusalat(),
-                      entry.getValue().kesto(),
-                      entry.getValue().kestoMinimi(),
-                      entry.getValue().kestoMaksimi(),
+                      mahdollisuus.ammattiryhma(),
+                      mahdollisuus.aineisto(),
+                      mahdollisuus.koulutusTyyppi(),
+                      mahdollisuus.maakunnat(),
+                      mahdollisuus.toimialat(),
+                      mahdollisuus.koulutusalat(),
+                      mahdollisuus.kesto(),
+                      mahdollisuus.kestoMinimi(),
+                      mahdollisuus.kestoMaksimi(),
                       suggestion.score() >= 0 ? suggestion.score() : null,
                       null,
                       null,
                       null,
-                      counter.getAndIncrement()));
-            })
-        .sorted(
-            Comparator.comparingDouble(
-                    (EhdotusDto e) ->
-                        e.ehdotusMetadata.pisteet != null ? e.ehdotusMetadata.pisteet : 0)
-                .reversed())
-        .toList();
+                      i));
+            });
   }
 
-  private Set<KuvausData> fetchKuvauksetData(
+  private CompletableFuture<Set<KuvausData>> fetchKuvauksetData(
       JodUser user, Kieli lang, Set<LuoEhdotusKuvausDto> kuvaukset) {
     var idsByType =
         kuvaukset.stream()
@@ -275,18 +391,30 @@ class MahdollisuudetController {
             OsaamisenLahdeTyyppi.PATEVYYS,
             ids -> patevyysService.findAllByIds(user, ids));
 
-    return kuvaukset.stream()
-        .map(k -> toKuvausData(k, lang, toimenkuvaMap, koulutusMap, patevyysMap))
-        .filter(Objects::nonNull)
-        .collect(Collectors.toSet());
+    return CompletableFuture.allOf(toimenkuvaMap, koulutusMap, patevyysMap)
+        .thenApply(
+            ignored ->
+                kuvaukset.stream()
+                    .map(
+                        k ->
+                            toKuvausData(
+                                k,
+                                lang,
+                                toimenkuvaMap.join(),
+                                koulutusMap.join(),
+                                patevyysMap.join()))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toCollection(() -> new TreeSet<>(KUVAUS_ORDER))));
   }
 
-  private static <T> Map<UUID, T> fetchByType(
+  private <T> CompletableFuture<Map<UUID, T>> fetchByType(
       Map<OsaamisenLahdeTyyppi, Set<UUID>> idsByType,
       OsaamisenLahdeTyyppi tyyppi,
-      java.util.function.Function<Set<UUID>, Map<UUID, T>> fetcher) {
+      Function<Set<UUID>, Map<UUID, T>> fetcher) {
     var ids = idsByType.get(tyyppi);
-    return (ids == null || ids.isEmpty()) ? Map.of() : fetcher.apply(ids);
+    return (ids == null || ids.isEmpty())
+        ? CompletableFuture.completedFuture(Map.of())
+        : fork(() -> fetcher.apply(ids));
   }
 
   private static KuvausData toKuvausData(
@@ -370,6 +498,13 @@ class MahdollisuudetController {
 
   public record KuvausData(String otsikko, String kuvaus, LocalDate alkuPvm, LocalDate loppuPvm) {}
 
+  // sorted so that the inference request (and its cache key) does not depend on the input order
+  private static final Comparator<KuvausData> KUVAUS_ORDER =
+      Comparator.comparing(KuvausData::otsikko, Comparator.nullsFirst(Comparator.naturalOrder()))
+          .thenComparing(KuvausData::kuvaus, Comparator.nullsFirst(Comparator.naturalOrder()))
+          .thenComparing(KuvausData::alkuPvm, Comparator.nullsFirst(Comparator.naturalOrder()))
+          .thenComparing(KuvausData::loppuPvm, Comparator.nullsFirst(Comparator.naturalOrder()));
+
   /**
    * This record describes metadata related to the proposal, based on which the proposals can be
    * sorted or filtered.
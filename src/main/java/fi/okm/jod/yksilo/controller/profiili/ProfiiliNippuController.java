@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.controller.profiili;
+
+import fi.okm.jod.yksilo.domain.JodUser;
+import fi.okm.jod.yksilo.dto.profiili.ProfiiliNippuDto;
+import fi.okm.jod.yksilo.service.profiili.ProfiiliNippuService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/profiili/nippu")
+@RequiredArgsConstructor
+@Tag(name = "profiili/nippu")
+class ProfiiliNippuController {
+  private final ProfiiliNippuService service;
+
+  @GetMapping
+  @Operation(
+      summary = "Gets all the items of the profile at once",
+      description =
+          "Returns the osaamiset, tyopaikat, koulutuskokonaisuudet, toiminnot, tavoitteet and "
+              + "suosikit of the profile, the same as the endpoints of each item type.")
+  ProfiiliNippuDto get(@AuthenticationPrincipal JodUser user) {
+    return service.get(user);
+  }
+}
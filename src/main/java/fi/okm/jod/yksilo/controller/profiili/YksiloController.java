@@ -14,16 +14,25 @@ import fi.okm.jod.yksilo.domain.JodUser;
 import fi.okm.jod.yksilo.dto.profiili.YksiloDto;
 import fi.okm.jod.yksilo.dto.profiili.export.YksiloExportDto;
 import fi.okm.jod.yksilo.service.profiili.YksiloService;
+import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.EnumSet;
 import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.MediaType;
 import org.springframework.security.authentication.InsufficientAuthenticationException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -33,6 +42,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import tools.jackson.databind.ObjectMapper;
 
 @RestController
 @RequestMapping("/api/profiili/yksilo")
@@ -41,6 +51,7 @@ import org.springframework.web.bind.annotation.RestController;
 @Slf4j
 public class YksiloController {
   private final YksiloService yksiloService;
+  private final ObjectMapper objectMapper;
 
   @GetMapping
   public YksiloCsrfDto get(
@@ -77,11 +88,34 @@ public class YksiloController {
   }
 
   @GetMapping("/vienti")
-  public ResponseEntity<YksiloExportDto> export(@AuthenticationPrincipal JodUser user) {
-    return ResponseEntity.ok()
-        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=profiili.json")
-        .header(HttpHeaders.CONTENT_TYPE, "application/json")
-        .body(yksiloService.export(user));
+  @Operation(
+      summary = "Exports the whole profile as JSON",
+      responses =
+          @ApiResponse(
+              responseCode = "200",
+              content =
+                  @Content(
+                      mediaType = MediaType.APPLICATION_JSON_VALUE,
+                      schema = @Schema(implementation = YksiloExportDto.class))))
+  public void export(@AuthenticationPrincipal JodUser user, HttpServletResponse response)
+      throws IOException {
+    // The export is spooled to a compressed temporary file first, so that the database connection
+    // is released as soon as the profile has been read, regardless of the speed of the client.
+    final var file = Files.createTempFile("profiili-", ".json.gz");
+    try {
+      try (var out = new GZIPOutputStream(Files.newOutputStream(file));
+          var generator = objectMapper.createGenerator(out)) {
+        yksiloService.export(user, generator);
+      }
+      response.setStatus(HttpServletResponse.SC_OK);
+      response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+      response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=profiili.json");
+      try (var in = new GZIPInputStream(Files.newInputStream(file))) {
+        in.transferTo(response.getOutputStream());
+      }
+    } finally {
+      Files.deleteIfExists(file);
+    }
   }
 
   public record YksiloCsrfDto(
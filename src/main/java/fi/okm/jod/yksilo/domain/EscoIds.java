@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.domain;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * Immutable dictionary of ESCO URIs with dense int ids (0..size-1).
+ *
+ * <p>The URIs are stored in sorted order and the id of an URI is its position, so a lookup is a
+ * binary search over the URI strings without parsing or hashing {@link URI} objects. The ids can be
+ * used with primitive collections, e.g. {@link BitSet}. The ids are only valid within the same
+ * dictionary instance.
+ */
+public final class EscoIds {
+
+  public static final EscoIds EMPTY = new EscoIds(new String[0], new URI[0]);
+
+  private final String[] keys;
+  private final URI[] uris;
+
+  private EscoIds(String[] keys, URI[] uris) {
+    this.keys = keys;
+    this.uris = uris;
+  }
+
+  public static EscoIds of(Collection<URI> uris) {
+    final var sorted =
+        uris.stream().distinct().sorted((a, b) -> a.toString().compareTo(b.toString()));
+    final var array = sorted.toArray(URI[]::new);
+    return new EscoIds(Arrays.stream(array).map(URI::toString).toArray(String[]::new), array);
+  }
+
+  public int size() {
+    return keys.length;
+  }
+
+  /** Returns the id of the URI, or -1 if the URI is unknown. */
+  public int idOf(String uri) {
+    final int id = Arrays.binarySearch(keys, uri);
+    return id < 0 ? -1 : id;
+  }
+
+  /** Returns the id of the URI, or -1 if the URI is unknown. */
+  public int idOf(URI uri) {
+    return idOf(uri.toString());
+  }
+
+  public boolean contains(String uri) {
+    return idOf(uri) >= 0;
+  }
+
+  public boolean contains(URI uri) {
+    return idOf(uri) >= 0;
+  }
+
+  /** Returns the (shared) URI instance of the id. */
+  public URI uri(int id) {
+    return uris[id];
+  }
+
+  /** Returns the ids of the known URIs as a bit set. Unknown URIs are ignored. */
+  public BitSet toBitSet(Collection<URI> values) {
+    final var ids = new BitSet(keys.length);
+    for (var value : values) {
+      final int id = idOf(value);
+      if (id >= 0) {
+        ids.set(id);
+      }
+    }
+    return ids;
+  }
+}
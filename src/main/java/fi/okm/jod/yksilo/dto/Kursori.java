@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Position of keyset pagination: the sort key, (muokattu, id) or id, of the last item of the
+ * previous page. Clients get it as an opaque continuation token.
+ */
+public record Kursori(@Nullable Instant muokattu, UUID id) {
+
+  /** Smallest uuid in the database order, the position before the first item in id order. */
+  public static final UUID MIN_ID = new UUID(0, 0);
+
+  /** Largest uuid in the database order. */
+  public static final UUID MAX_ID = new UUID(-1, -1);
+
+  private static final char SEPARATOR = '~';
+
+  public Kursori(UUID id) {
+    this(null, id);
+  }
+
+  /**
+   * Parses the continuation token of a listing in id order.
+   *
+   * @throws IllegalArgumentException if the token is not valid or belongs to a listing in
+   *     (muokattu, id) order
+   */
+  public static Kursori ofId(String token) {
+    final var kursori = of(token);
+    if (kursori.muokattu() != null) {
+      throw new IllegalArgumentException("Invalid kursori");
+    }
+    return kursori;
+  }
+
+  /**
+   * Parses the continuation token of a listing in (muokattu, id) order.
+   *
+   * @throws IllegalArgumentException if the token is not valid or belongs to a listing in id order
+   */
+  public static Kursori ofMuokattu(String token) {
+    final var kursori = of(token);
+    if (kursori.muokattu() == null) {
+      throw new IllegalArgumentException("Invalid kursori");
+    }
+    return kursori;
+  }
+
+  /**
+   * Parses the continuation token.
+   *
+   * @throws IllegalArgumentException if the token is not valid
+   */
+  public static Kursori of(String token) {
+    try {
+      final var value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      final int separator = value.indexOf(SEPARATOR);
+      if (separator < 0) {
+        return new Kursori(UUID.fromString(value));
+      }
+      return new Kursori(
+          Instant.parse(value.substring(0, separator)),
+          UUID.fromString(value.substring(separator + 1)));
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid kursori", e);
+    }
+  }
+
+  /** Returns the continuation token. */
+  public String token() {
+    final var value = muokattu == null ? id.toString() : muokattu.toString() + SEPARATOR + id;
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import org.jspecify.annotations.Nullable;
+
+/** Page of keyset (cursor) pagination, see {@link Kursori}. */
+public record KursoriSivuDto<T>(
+    @NotNull List<T> sisalto,
+    @Schema(description = "Continuation token of the next page, missing on the last page")
+        @Nullable String seuraava,
+    @Schema(description = "Total number of items, only if requested", example = "30")
+        @Nullable Long maara) {
+
+  /**
+   * Creates the page of the rows read after the previous position. The rows must be read with the
+   * limit {@code koko + 1}, the extra row only tells that there is a next page.
+   *
+   * @param kursori returns the position (sort key) of a row
+   * @param maara counts the total number of items, or null if it was not requested
+   */
+  public static <E, T> KursoriSivuDto<T> of(
+      List<E> rows,
+      int koko,
+      Function<E, Kursori> kursori,
+      Function<E, T> mapper,
+      @Nullable LongSupplier maara) {
+    final var page = rows.size() > koko ? rows.subList(0, koko) : rows;
+    return new KursoriSivuDto<>(
+        page.stream().map(mapper).toList(),
+        rows.size() > koko ? kursori.apply(page.getLast()).token() : null,
+        maara == null ? null : maara.getAsLong());
+  }
+}
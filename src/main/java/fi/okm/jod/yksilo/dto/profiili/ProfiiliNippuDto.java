@@ -0,0 +1,22 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.dto.profiili;
+
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+
+/** All the items of the profile shown on the profile pages, fetched at once. */
+public record ProfiiliNippuDto(
+    @NotNull List<YksilonOsaaminenDto> osaamiset,
+    @NotNull List<TyopaikkaDto> tyopaikat,
+    @NotNull List<KoulutusKokonaisuusDto> koulutusKokonaisuudet,
+    @NotNull List<ToimintoDto> toiminnot,
+    @NotNull List<TavoiteDto> tavoitteet,
+    @NotNull List<SuosikkiDto> suosikit) {}
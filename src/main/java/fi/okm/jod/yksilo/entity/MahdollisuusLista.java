@@ -24,11 +24,16 @@ import java.util.List;
 import java.util.UUID;
 import lombok.Getter;
 
+/**
+ * Active opportunities of one language, materialized from mahdollisuus_view when the catalog
+ * version changes. {@code jarjestys} is the position of the opportunity in the collated title order
+ * of the language.
+ */
 @Entity
-@Table(name = "mahdollisuus_view")
+@Table(name = "mahdollisuus_lista")
 @Immutable
-@Getter // Read-only view
-public class MahdollisuusView {
+@Getter // Read-only, maintained by the database
+public class MahdollisuusLista {
 
   @Id private UUID id;
 
@@ -69,4 +74,7 @@ public class MahdollisuusView {
   @Column(name = "kieli")
   @Enumerated(EnumType.STRING)
   private Kieli kieli;
+
+  @Column(name = "jarjestys")
+  private int jarjestys;
 }
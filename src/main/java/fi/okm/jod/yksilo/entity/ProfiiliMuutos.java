@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.entity;
+
+import fi.okm.jod.yksilo.domain.ProfiiliMuutosTyyppi;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.Getter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Entry of the change log of the profiles. The id of the writing transaction (transaktio column)
+ * is set by the database and only used by the native queries of the feed.
+ */
+@Entity
+@Getter
+@Immutable
+public class ProfiiliMuutos {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(updatable = false, nullable = false)
+  private UUID yksiloId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(updatable = false, nullable = false)
+  private ProfiiliMuutosTyyppi tyyppi;
+
+  @Column(updatable = false, nullable = false)
+  @CreationTimestamp
+  private Instant luotu;
+
+  protected ProfiiliMuutos() {}
+
+  public ProfiiliMuutos(UUID yksiloId, ProfiiliMuutosTyyppi tyyppi) {
+    this.yksiloId = yksiloId;
+    this.tyyppi = tyyppi;
+  }
+}
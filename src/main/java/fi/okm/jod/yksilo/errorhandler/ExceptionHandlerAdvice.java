@@ -13,6 +13,7 @@ import fi.okm.jod.yksilo.errorhandler.ErrorInfo.ErrorCode;
 import fi.okm.jod.yksilo.service.NotFoundException;
 import fi.okm.jod.yksilo.service.ServiceConflictException;
 import fi.okm.jod.yksilo.service.ServiceException;
+import fi.okm.jod.yksilo.service.ServiceOverloadedException;
 import fi.okm.jod.yksilo.service.ServiceValidationException;
 import fi.okm.jod.yksilo.service.koski.NoDataException;
 import fi.okm.jod.yksilo.service.koski.PermissionRequiredException;
@@ -131,6 +132,15 @@ class ExceptionHandlerAdvice extends ResponseEntityExceptionHandler {
     return handleExceptionInternal(ex, info, new HttpHeaders(), HttpStatus.CONFLICT, request);
   }
 
+  @ExceptionHandler(ServiceOverloadedException.class)
+  protected ResponseEntity<Object> handleServiceException(
+      ServiceOverloadedException ex, WebRequest request) {
+    var info = errorInfo.of(ErrorCode.SERVICE_ERROR, List.of(ex.getMessage()));
+    var headers = new HttpHeaders();
+    headers.set(HttpHeaders.RETRY_AFTER, "1");
+    return handleExceptionInternal(ex, info, headers, HttpStatus.TOO_MANY_REQUESTS, request);
+  }
+
   @ExceptionHandler(ServiceException.class)
   protected ResponseEntity<Object> handleServiceException(ServiceException ex, WebRequest request) {
     var info = errorInfo.of(ErrorCode.SERVICE_ERROR, List.of(ex.getMessage()));
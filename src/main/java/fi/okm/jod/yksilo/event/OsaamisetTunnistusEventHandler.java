@@ -18,6 +18,8 @@ import java.net.URI;
 import java.util.ArrayDeque;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Semaphore;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
@@ -68,10 +70,11 @@ public class OsaamisetTunnistusEventHandler {
 
     var interrupted = false;
     var koulutukset = new ArrayDeque<>(event.koulutukset());
+    var pending = new ArrayDeque<Pending>();
 
+    // The inference requests are sent concurrently, limited by the semaphore (released when a
+    // request completes), and the results are stored in order on this thread.
     while (!koulutukset.isEmpty() && !interrupted) {
-      // Limit concurrent processing to avoid overwhelming the AI service
-      // Using a semaphore is OK given we are using virtual threads
       try {
         semaphore.acquire();
       } catch (InterruptedException e) {
@@ -79,21 +82,32 @@ public class OsaamisetTunnistusEventHandler {
         break;
       }
       var koulutus = koulutukset.pop();
+      pending.add(new Pending(koulutus, inferOsaamiset(koulutus)));
+    }
+
+    while (!pending.isEmpty() && !interrupted) {
+      var next = pending.peek();
       try {
-        var osaamiset = inferOsaamiset(koulutus);
+        var osaamiset = next.osaamiset().get();
+        pending.pop();
         koulutusService.completeOsaamisetTunnistus(
-            koulutus, OsaamisenTunnistusStatus.DONE, osaamiset);
+            next.koulutus(), OsaamisenTunnistusStatus.DONE, osaamiset);
+      } catch (InterruptedException e) {
+        interrupted = true;
       } catch (Exception e) {
-        log.error("Failed to process OsaamisetTunnistusEvent", e);
-        if (Thread.interrupted()) {
-          interrupted = true;
-        }
-        koulutusService.completeOsaamisetTunnistus(koulutus, OsaamisenTunnistusStatus.FAIL, null);
-      } finally {
-        semaphore.release();
+        pending.pop();
+        log.error(
+            "Failed to process OsaamisetTunnistusEvent",
+            e instanceof ExecutionException ? e.getCause() : e);
+        koulutusService.completeOsaamisetTunnistus(
+            next.koulutus(), OsaamisenTunnistusStatus.FAIL, null);
       }
     }
     try {
+      for (var unfinished : pending) {
+        unfinished.osaamiset().cancel(false);
+        koulutukset.add(unfinished.koulutus());
+      }
       for (Koulutus koulutus : koulutukset) {
         log.warn("Failed to process OsaamisetTunnistusEvent for koulutus {} ", koulutus.getId());
         koulutusService.completeOsaamisetTunnistus(koulutus, OsaamisenTunnistusStatus.FAIL, null);
@@ -106,14 +120,25 @@ public class OsaamisetTunnistusEventHandler {
     }
   }
 
-  private Set<URI> inferOsaamiset(Koulutus koulutus) {
+  private record Pending(Koulutus koulutus, CompletableFuture<Set<URI>> osaamiset) {}
+
+  /** Sends the inference request, the caller must have acquired a permit. */
+  private CompletableFuture<Set<URI>> inferOsaamiset(Koulutus koulutus) {
     var request =
         new SageMakerRequest(
             koulutus.getId(), koulutus.getNimi().get(Kieli.FI), koulutus.getOsasuoritukset());
 
-    return inferenceService
-        .infer(aiTunnistusOsaamisetEndpoint, request, new ParameterizedTypeReference<>() {})
-        .osaamiset();
+    CompletableFuture<SageMakerResponse> response;
+    try {
+      response =
+          inferenceService.inferAsync(
+              aiTunnistusOsaamisetEndpoint, request, new ParameterizedTypeReference<>() {});
+    } catch (RuntimeException e) {
+      response = CompletableFuture.failedFuture(e);
+    }
+    return response
+        .whenComplete((ignored, error) -> semaphore.release())
+        .thenApply(SageMakerResponse::osaamiset);
   }
 
   public record SageMakerRequest(UUID id, String nimi, Set<String> osasuoritukset) {}
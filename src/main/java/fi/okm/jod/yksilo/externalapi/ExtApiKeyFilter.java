@@ -51,4 +51,10 @@ public class ExtApiKeyFilter extends OncePerRequestFilter {
     }
     chain.doFilter(request, response);
   }
+
+  @Override
+  protected boolean shouldNotFilterAsyncDispatch() {
+    // the authentication is not stored, the async dispatch of long polling must be authenticated
+    return false;
+  }
 }
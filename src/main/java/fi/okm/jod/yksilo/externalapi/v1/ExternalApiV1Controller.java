@@ -11,24 +11,35 @@ package fi.okm.jod.yksilo.externalapi.v1;
 
 import static fi.okm.jod.yksilo.validation.Limits.SIVUN_MAKSIMI_KOKO;
 
+import fi.okm.jod.yksilo.dto.Kursori;
+import fi.okm.jod.yksilo.dto.KursoriSivuDto;
 import fi.okm.jod.yksilo.dto.SivuDto;
 import fi.okm.jod.yksilo.externalapi.v1.dto.ExtKoulutusMahdollisuusDto;
 import fi.okm.jod.yksilo.externalapi.v1.dto.ExtProfiiliDto;
+import fi.okm.jod.yksilo.externalapi.v1.dto.ExtProfiiliMuutoksetDto;
 import fi.okm.jod.yksilo.externalapi.v1.dto.ExtTyoMahdollisuusDto;
+import fi.okm.jod.yksilo.externalapi.v1.dto.Sekvenssi;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.io.IOException;
+import java.time.Duration;
 import java.time.Instant;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import tools.jackson.databind.ObjectMapper;
 
 /** Yksilö-backendin ulkoiset rajapinnat. */
 @RestController
@@ -40,6 +51,8 @@ public class ExternalApiV1Controller {
   public static final String EXT_API_V1_PATH = "/external-api/v1";
 
   private final ExternalApiV1Service service;
+  private final ProfiiliMuutosLongPolling longPolling;
+  private final ObjectMapper objectMapper;
 
   @GetMapping("/tyomahdollisuudet")
   @Operation(
@@ -55,6 +68,25 @@ public class ExternalApiV1Controller {
     return tyomahdollisuudet;
   }
 
+  @GetMapping("/tyomahdollisuudet/kursori")
+  @Operation(
+      summary = "Get all työmahdollisuudet using cursor pagination",
+      description = "Returns the next page of työmahdollisuudet after the given kursori.")
+  public KursoriSivuDto<ExtTyoMahdollisuusDto> findTyoMahdollisuudetKursorilla(
+      @Parameter(description = "Continuation token (seuraava) of the previous page")
+          @RequestParam(required = false)
+          String kursori,
+      @RequestParam(required = false, defaultValue = "10")
+          @Min(1)
+          @Max(value = SIVUN_MAKSIMI_KOKO, message = "Sivun maksimikoko on 1000")
+          int koko,
+      @Parameter(description = "Whether to count the total number of items")
+          @RequestParam(required = false, defaultValue = "false")
+          boolean maara) {
+    return service.findTyomahdollisuudet(
+        kursori == null ? null : Kursori.ofId(kursori), koko, maara);
+  }
+
   @GetMapping("/koulutusmahdollisuudet")
   @Operation(
       summary = "Get all koulutusmahdollisuudet paged of by page and size",
@@ -70,6 +102,25 @@ public class ExternalApiV1Controller {
     return koulutusmahdollisuudet;
   }
 
+  @GetMapping("/koulutusmahdollisuudet/kursori")
+  @Operation(
+      summary = "Get all koulutusmahdollisuudet using cursor pagination",
+      description = "Returns the next page of koulutusmahdollisuudet after the given kursori.")
+  public KursoriSivuDto<ExtKoulutusMahdollisuusDto> findKoulutusMahdollisuudetKursorilla(
+      @Parameter(description = "Continuation token (seuraava) of the previous page")
+          @RequestParam(required = false)
+          String kursori,
+      @RequestParam(required = false, defaultValue = "10")
+          @Min(1)
+          @Max(value = SIVUN_MAKSIMI_KOKO, message = "Sivun maksimikoko on 1000")
+          int koko,
+      @Parameter(description = "Whether to count the total number of items")
+          @RequestParam(required = false, defaultValue = "false")
+          boolean maara) {
+    return service.findKoulutusmahdollisuudet(
+        kursori == null ? null : Kursori.ofId(kursori), koko, maara);
+  }
+
   @GetMapping("/profiilit")
   @Operation(
       summary = "Get all profiilit paged of by page and size",
@@ -90,4 +141,85 @@ public class ExternalApiV1Controller {
     log.info("Successfully fetched {} profiili objects", yksilot.maara());
     return yksilot;
   }
+
+  @GetMapping("/profiilit/kursori")
+  @Operation(
+      summary = "Get all profiilit using cursor pagination",
+      description =
+          "Returns the next page of profiilit in modification order after the given kursori. "
+              + "Without the kursori returns the first page of the profiilit modified after "
+              + "muokattuJalkeen.")
+  public KursoriSivuDto<ExtProfiiliDto> findProfiilitKursorilla(
+      @Parameter(
+              description = "Only get profiles modified after this timestamp",
+              example = "2025-07-03T09:00:00Z")
+          @RequestParam(name = "muokattuJalkeen", required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.TIME)
+          Instant modifiedAfter,
+      @Parameter(description = "Continuation token (seuraava) of the previous page")
+          @RequestParam(required = false)
+          String kursori,
+      @RequestParam(required = false, defaultValue = "10")
+          @Min(1)
+          @Max(value = SIVUN_MAKSIMI_KOKO, message = "Sivun maksimikoko on 1000")
+          int koko,
+      @Parameter(description = "Whether to count the total number of items")
+          @RequestParam(required = false, defaultValue = "false")
+          boolean maara) {
+    final KursoriSivuDto<ExtProfiiliDto> yksilot =
+        service.findYksilot(
+            modifiedAfter, kursori == null ? null : Kursori.ofMuokattu(kursori), koko, maara);
+    log.info("Successfully fetched {} profiili objects", yksilot.sisalto().size());
+    return yksilot;
+  }
+
+  @GetMapping(value = "/profiilit/ndjson", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  @Operation(
+      summary = "Stream all profiilit as newline delimited JSON",
+      description =
+          "Returns all profiilit in modification order, one JSON object per line. "
+              + "Intended for bulk consumers instead of fetching the profiilit page by page.")
+  public void streamProfiilit(
+      @Parameter(
+              description = "Only get profiles modified after this timestamp",
+              example = "2025-07-03T09:00:00Z")
+          @RequestParam(name = "muokattuJalkeen", required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.TIME)
+          Instant modifiedAfter,
+      HttpServletResponse response)
+      throws IOException {
+    response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+    final var out = response.getOutputStream();
+    long count = 0;
+    try (var profiilit = service.streamYksilot(modifiedAfter)) {
+      for (var profiili : (Iterable<ExtProfiiliDto>) profiilit::iterator) {
+        out.write(objectMapper.writeValueAsBytes(profiili));
+        out.write('\n');
+        count++;
+      }
+    }
+    log.info("Successfully streamed {} profiili objects", count);
+  }
+
+  @GetMapping("/profiilit/muutokset")
+  @Operation(
+      summary = "Get the changes of profiilit after the given position",
+      description =
+          "Returns the modifications and deletions of profiilit in the order they were committed. "
+              + "Continue from the seuraava of the previous response to get only the new changes. "
+              + "With odota the request waits for new changes (long polling). The changes are "
+              + "retained for 30 days.")
+  public DeferredResult<ExtProfiiliMuutoksetDto> findProfiiliMuutokset(
+      @Parameter(description = "Position (sekvenssi) of the last processed change")
+          @RequestParam(required = false)
+          String jalkeen,
+      @RequestParam(required = false, defaultValue = "100") @Min(1) @Max(1000) int koko,
+      @Parameter(description = "Seconds to wait for new changes if there are none")
+          @RequestParam(required = false, defaultValue = "0")
+          @Min(0)
+          @Max(30)
+          int odota) {
+    return longPolling.findMuutokset(
+        jalkeen == null ? Sekvenssi.ALKU : Sekvenssi.of(jalkeen), koko, Duration.ofSeconds(odota));
+  }
 }
@@ -9,33 +9,49 @@
 
 package fi.okm.jod.yksilo.externalapi.v1;
 
+import fi.okm.jod.yksilo.dto.Kursori;
+import fi.okm.jod.yksilo.dto.KursoriSivuDto;
 import fi.okm.jod.yksilo.dto.SivuDto;
-import fi.okm.jod.yksilo.entity.Yksilo;
 import fi.okm.jod.yksilo.entity.koulutusmahdollisuus.Koulutusmahdollisuus;
 import fi.okm.jod.yksilo.entity.tyomahdollisuus.Tyomahdollisuus;
 import fi.okm.jod.yksilo.externalapi.v1.dto.ExtApiV1Mapper;
 import fi.okm.jod.yksilo.externalapi.v1.dto.ExtKoulutusMahdollisuusDto;
 import fi.okm.jod.yksilo.externalapi.v1.dto.ExtProfiiliDto;
+import fi.okm.jod.yksilo.externalapi.v1.dto.ExtProfiiliMuutoksetDto;
+import fi.okm.jod.yksilo.externalapi.v1.dto.ExtProfiiliMuutosDto;
 import fi.okm.jod.yksilo.externalapi.v1.dto.ExtTyoMahdollisuusDto;
+import fi.okm.jod.yksilo.externalapi.v1.dto.Sekvenssi;
 import fi.okm.jod.yksilo.repository.KoulutusmahdollisuusRepository;
+import fi.okm.jod.yksilo.repository.ProfiiliMuutosRepository;
 import fi.okm.jod.yksilo.repository.TyomahdollisuusRepository;
 import fi.okm.jod.yksilo.repository.YksiloRepository;
+import fi.okm.jod.yksilo.repository.projection.YksiloProfiili;
 import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
 
 /** Bisneslogiikka External API V1. */
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ExternalApiV1Service {
+  static final int EXPORT_CHUNK_SIZE = 500;
+
   private final TyomahdollisuusRepository tyomahdollisuusRepository;
   private final KoulutusmahdollisuusRepository koulutusmahdollisuusRepository;
   private final YksiloRepository yksiloRepository;
+  private final ProfiiliMuutosRepository profiiliMuutosRepository;
+  private final ObjectMapper objectMapper;
 
   public SivuDto<ExtTyoMahdollisuusDto> findTyomahdollisuudet(final Pageable pageable) {
     final Page<Tyomahdollisuus> tyomahdollisuusPage =
@@ -49,6 +65,17 @@ public class ExternalApiV1Service {
         tyomahdollisuusPage.getTotalPages());
   }
 
+  public KursoriSivuDto<ExtTyoMahdollisuusDto> findTyomahdollisuudet(
+      @Nullable final Kursori kursori, final int koko, final boolean laskeMaara) {
+    return KursoriSivuDto.of(
+        this.tyomahdollisuusRepository.findByIdGreaterThanOrderById(
+            kursori == null ? Kursori.MIN_ID : kursori.id(), Limit.of(koko + 1)),
+        koko,
+        tyomahdollisuus -> new Kursori(tyomahdollisuus.getId()),
+        ExtApiV1Mapper::toTyoMahdollisuusDto,
+        laskeMaara ? this.tyomahdollisuusRepository::count : null);
+  }
+
   public SivuDto<ExtKoulutusMahdollisuusDto> findKoulutusmahdollisuudet(final Pageable pageable) {
     final Page<Koulutusmahdollisuus> koulutusmahdollisuusPage =
         this.koulutusmahdollisuusRepository.findAll(pageable);
@@ -61,14 +88,95 @@ public class ExternalApiV1Service {
         koulutusmahdollisuusPage.getTotalPages());
   }
 
-  public SivuDto<ExtProfiiliDto> findYksilot(final Instant modifiedAfter, final Pageable pageable) {
-    return new SivuDto<>(getYksiloPage(modifiedAfter, pageable).map(ExtApiV1Mapper::toProfiiliDto));
+  public KursoriSivuDto<ExtKoulutusMahdollisuusDto> findKoulutusmahdollisuudet(
+      @Nullable final Kursori kursori, final int koko, final boolean laskeMaara) {
+    return KursoriSivuDto.of(
+        this.koulutusmahdollisuusRepository.findByIdGreaterThanOrderById(
+            kursori == null ? Kursori.MIN_ID : kursori.id(), Limit.of(koko + 1)),
+        koko,
+        koulutusmahdollisuus -> new Kursori(koulutusmahdollisuus.getId()),
+        ExtApiV1Mapper::toKoulutusMahdollisuusDto,
+        laskeMaara ? this.koulutusmahdollisuusRepository::count : null);
+  }
+
+  public SivuDto<ExtProfiiliDto> findYksilot(
+      @Nullable final Instant modifiedAfter, final Pageable pageable) {
+    final Instant muokattuJalkeen = modifiedAfter == null ? Instant.EPOCH : modifiedAfter;
+    final List<ExtProfiiliDto> profiilit =
+        this.yksiloRepository
+            .findProfiilit(muokattuJalkeen, pageable.getOffset(), pageable.getPageSize())
+            .stream()
+            .map(this::toProfiiliDto)
+            .toList();
+
+    return new SivuDto<>(
+        PageableExecutionUtils.getPage(
+            profiilit,
+            pageable,
+            () -> this.yksiloRepository.countByMuokattuAfter(muokattuJalkeen)));
+  }
+
+  /**
+   * Returns the page of profiles after the given position in (muokattu, id) order, or the first
+   * page of the profiles modified after the given time.
+   */
+  public KursoriSivuDto<ExtProfiiliDto> findYksilot(
+      @Nullable final Instant modifiedAfter,
+      @Nullable final Kursori kursori,
+      final int koko,
+      final boolean laskeMaara) {
+    final Instant muokattuJalkeen = modifiedAfter == null ? Instant.EPOCH : modifiedAfter;
+    final Kursori position =
+        kursori == null || kursori.muokattu() == null
+            ? new Kursori(muokattuJalkeen, Kursori.MAX_ID)
+            : kursori;
+    return KursoriSivuDto.of(
+        this.yksiloRepository.findProfiilitAfter(position.muokattu(), position.id(), koko + 1),
+        koko,
+        profiili -> new Kursori(profiili.getMuokattu(), profiili.getId()),
+        this::toProfiiliDto,
+        laskeMaara ? () -> this.yksiloRepository.countByMuokattuAfter(muokattuJalkeen) : null);
+  }
+
+  /**
+   * Returns all the profiles modified after the given time, in modification order. The profiles are
+   * read lazily in chunks using keyset pagination, each chunk in its own short transaction, so
+   * consuming the stream is not limited by the transaction timeout.
+   */
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public Stream<ExtProfiiliDto> streamYksilot(@Nullable final Instant modifiedAfter) {
+    final Instant muokattuJalkeen = modifiedAfter == null ? Instant.EPOCH : modifiedAfter;
+    final List<YksiloProfiili> first =
+        this.yksiloRepository.findProfiilitAfter(
+            muokattuJalkeen, Kursori.MAX_ID, EXPORT_CHUNK_SIZE);
+
+    return Stream.iterate(first, chunk -> !chunk.isEmpty(), this::nextChunk)
+        .flatMap(List::stream)
+        .map(this::toProfiiliDto);
+  }
+
+  /** Returns the profile changes (modifications and deletions) after the given position. */
+  public ExtProfiiliMuutoksetDto findMuutokset(final Sekvenssi jalkeen, final int koko) {
+    final List<ExtProfiiliMuutosDto> muutokset =
+        this.profiiliMuutosRepository
+            .findMuutoksetAfter(jalkeen.transaktio(), jalkeen.id(), koko)
+            .stream()
+            .map(ExtApiV1Mapper::toProfiiliMuutosDto)
+            .toList();
+    return new ExtProfiiliMuutoksetDto(
+        muutokset, muutokset.isEmpty() ? jalkeen.toString() : muutokset.getLast().sekvenssi());
   }
 
-  private Page<Yksilo> getYksiloPage(final Instant modifiedAfter, final Pageable pageable) {
-    if (modifiedAfter == null) {
-      return this.yksiloRepository.findAll(pageable);
+  private List<YksiloProfiili> nextChunk(final List<YksiloProfiili> chunk) {
+    if (chunk.size() < EXPORT_CHUNK_SIZE) {
+      return List.of();
     }
-    return this.yksiloRepository.findAllModifiedAfter(modifiedAfter, pageable);
+    final YksiloProfiili last = chunk.getLast();
+    return this.yksiloRepository.findProfiilitAfter(
+        last.getMuokattu(), last.getId(), EXPORT_CHUNK_SIZE);
+  }
+
+  private ExtProfiiliDto toProfiiliDto(final YksiloProfiili profiili) {
+    return ExtApiV1Mapper.toProfiiliDto(profiili, this.objectMapper);
   }
 }
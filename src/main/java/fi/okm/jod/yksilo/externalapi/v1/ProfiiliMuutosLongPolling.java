@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.externalapi.v1;
+
+import fi.okm.jod.yksilo.externalapi.v1.dto.ExtProfiiliMuutoksetDto;
+import fi.okm.jod.yksilo.externalapi.v1.dto.Sekvenssi;
+import fi.okm.jod.yksilo.service.profiili.ProfileChangesCommittedEvent;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+/**
+ * Long polling of the profile change feed. A request without new changes is parked as a {@link
+ * DeferredResult}, so it does not hold a servlet thread (or a connection) while it waits. The
+ * waiting requests are checked when a profile change commits on this instance, and once a second
+ * for the changes committed by the other instances or hidden by a transaction still running.
+ */
+@Component
+@Slf4j
+class ProfiiliMuutosLongPolling {
+
+  private final ExternalApiV1Service service;
+  private final TaskExecutor taskExecutor;
+  private final Set<Odottaja> odottajat = ConcurrentHashMap.newKeySet();
+
+  ProfiiliMuutosLongPolling(
+      ExternalApiV1Service service, @Qualifier("taskExecutor") TaskExecutor taskExecutor) {
+    this.service = service;
+    this.taskExecutor = taskExecutor;
+  }
+
+  /**
+   * Returns the changes after the given position. If there are none, the result is set when new
+   * changes are committed, or empty after the given time.
+   */
+  DeferredResult<ExtProfiiliMuutoksetDto> findMuutokset(
+      Sekvenssi jalkeen, int koko, Duration odota) {
+    final var muutokset = service.findMuutokset(jalkeen, koko);
+    if (!muutokset.muutokset().isEmpty() || !odota.isPositive()) {
+      final var result = new DeferredResult<ExtProfiiliMuutoksetDto>();
+      complete(result, muutokset);
+      return result;
+    }
+
+    final var result =
+        new DeferredResult<ExtProfiiliMuutoksetDto>(
+            odota.toMillis(), () -> new ExtProfiiliMuutoksetDto(List.of(), jalkeen.toString()));
+    final var odottaja = new Odottaja(jalkeen, koko, result);
+    result.onCompletion(() -> odottajat.remove(odottaja));
+    odottajat.add(odottaja);
+    return result;
+  }
+
+  @EventListener(ProfileChangesCommittedEvent.class)
+  void profilesChanged() {
+    if (!odottajat.isEmpty()) {
+      taskExecutor.execute(this::check);
+    }
+  }
+
+  @Scheduled(fixedDelay = 1, initialDelay = 1, timeUnit = TimeUnit.SECONDS)
+  void check() {
+    if (odottajat.isEmpty()) {
+      return;
+    }
+    // the clients following the feed are usually at the same position
+    final var found = new HashMap<Sijainti, ExtProfiiliMuutoksetDto>();
+    for (var odottaja : odottajat) {
+      if (odottaja.result().isSetOrExpired()) {
+        continue;
+      }
+      try {
+        final var muutokset =
+            found.computeIfAbsent(
+                new Sijainti(odottaja.jalkeen(), odottaja.koko()),
+                key -> service.findMuutokset(key.jalkeen(), key.koko()));
+        if (!muutokset.muutokset().isEmpty()) {
+          complete(odottaja.result(), muutokset);
+        }
+      } catch (RuntimeException e) {
+        odottaja.result().setErrorResult(e);
+      }
+    }
+  }
+
+  private static void complete(
+      DeferredResult<ExtProfiiliMuutoksetDto> result, ExtProfiiliMuutoksetDto muutokset) {
+    if (result.setResult(muutokset)) {
+      log.info("Successfully fetched {} profiili changes", muutokset.muutokset().size());
+    }
+  }
+
+  private record Sijainti(Sekvenssi jalkeen, int koko) {}
+
+  private record Odottaja(
+      Sekvenssi jalkeen, int koko, DeferredResult<ExtProfiiliMuutoksetDto> result) {}
+}
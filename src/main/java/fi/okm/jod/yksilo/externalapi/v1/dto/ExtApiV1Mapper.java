@@ -9,15 +9,14 @@
 
 package fi.okm.jod.yksilo.externalapi.v1.dto;
 
-import fi.okm.jod.yksilo.entity.Ammatti;
-import fi.okm.jod.yksilo.entity.Osaaminen;
-import fi.okm.jod.yksilo.entity.Tavoite;
-import fi.okm.jod.yksilo.entity.Yksilo;
-import fi.okm.jod.yksilo.entity.YksilonOsaaminen;
-import fi.okm.jod.yksilo.entity.YksilonSuosikki;
+import fi.okm.jod.yksilo.domain.ProfiiliMuutosTyyppi;
 import fi.okm.jod.yksilo.entity.koulutusmahdollisuus.Koulutusmahdollisuus;
 import fi.okm.jod.yksilo.entity.tyomahdollisuus.Tyomahdollisuus;
-import java.util.stream.Collectors;
+import fi.okm.jod.yksilo.repository.projection.ProfiiliMuutosRivi;
+import fi.okm.jod.yksilo.repository.projection.YksiloProfiili;
+import java.util.Set;
+import org.jspecify.annotations.Nullable;
+import tools.jackson.databind.ObjectMapper;
 
 public class ExtApiV1Mapper {
   private ExtApiV1Mapper() {}
@@ -43,69 +42,36 @@ public class ExtApiV1Mapper {
         koulutusmahdollisuus.isAktiivinen());
   }
 
-  public static ExtProfiiliDto toProfiiliDto(Yksilo yksilo) {
-    var yksilonOsaamiset =
-        yksilo.getOsaamiset().stream()
-            .map(ExtApiV1Mapper::toYksilonOsaaminenDto)
-            .collect(Collectors.toSet());
-    var osaamisKiinnostukset =
-        yksilo.getOsaamisKiinnostukset().stream()
-            .map(ExtApiV1Mapper::toOsaamisKiinnostusDto)
-            .collect(Collectors.toSet());
-    var ammattiKiinnostukset =
-        yksilo.getAmmattiKiinnostukset().stream()
-            .map(ExtApiV1Mapper::toAmmattiKiinnostusDto)
-            .collect(Collectors.toSet());
-    var suosikit =
-        yksilo.getSuosikit().stream()
-            .map(ExtApiV1Mapper::toSuosikkiDto)
-            .collect(Collectors.toSet());
-    var tavoitteet =
-        yksilo.getTavoitteet().stream()
-            .map(ExtApiV1Mapper::toTavoiteDto)
-            .collect(Collectors.toSet());
+  /** Maps the profile, whose collections the query has aggregated to JSON arrays. */
+  public static ExtProfiiliDto toProfiiliDto(YksiloProfiili profiili, ObjectMapper objectMapper) {
     return new ExtProfiiliDto(
-        yksilo.getId(),
-        yksilo.getSyntymavuosi(),
-        yksilo.getSukupuoli(),
-        yksilo.getKotikunta(),
-        yksilo.getAidinkieli(),
-        yksilo.getValittuKieli(),
-        yksilonOsaamiset,
-        osaamisKiinnostukset,
-        ammattiKiinnostukset,
-        suosikit,
-        tavoitteet);
+        profiili.getId(),
+        profiili.getSyntymavuosi(),
+        profiili.getSukupuoli(),
+        profiili.getKotikunta(),
+        profiili.getAidinkieli(),
+        profiili.getValittuKieli(),
+        readSet(objectMapper, profiili.getOsaamiset(), ExtYksilonOsaaminenDto.class),
+        readSet(objectMapper, profiili.getOsaamisKiinnostukset(), ExtOsaamisKiinnostusDto.class),
+        readSet(objectMapper, profiili.getAmmattiKiinnostukset(), ExtAmmattiKiinnostusDto.class),
+        readSet(objectMapper, profiili.getSuosikit(), ExtSuosikkiDto.class),
+        readSet(objectMapper, profiili.getTavoitteet(), ExtTavoiteDto.class));
   }
 
-  private static ExtTavoiteDto toTavoiteDto(Tavoite tavoite) {
-    var tyomahdollisuusId =
-        tavoite.getTyomahdollisuus() != null ? tavoite.getTyomahdollisuus().getId() : null;
-    return new ExtTavoiteDto(null, tyomahdollisuusId, null);
+  public static ExtProfiiliMuutosDto toProfiiliMuutosDto(ProfiiliMuutosRivi muutos) {
+    return new ExtProfiiliMuutosDto(
+        new Sekvenssi(muutos.getTransaktio(), muutos.getId()).toString(),
+        muutos.getYksiloId(),
+        ProfiiliMuutosTyyppi.valueOf(muutos.getTyyppi()),
+        muutos.getLuotu());
   }
 
-  private static ExtSuosikkiDto toSuosikkiDto(YksilonSuosikki yksilonSuosikki) {
-    var tyomahdollisuusId =
-        yksilonSuosikki.getTyomahdollisuus() != null
-            ? yksilonSuosikki.getTyomahdollisuus().getId()
-            : null;
-    var koulutusMahdollisuusId =
-        yksilonSuosikki.getKoulutusmahdollisuus() != null
-            ? yksilonSuosikki.getKoulutusmahdollisuus().getId()
-            : null;
-    return new ExtSuosikkiDto(tyomahdollisuusId, koulutusMahdollisuusId);
-  }
-
-  private static ExtAmmattiKiinnostusDto toAmmattiKiinnostusDto(Ammatti ammatti) {
-    return new ExtAmmattiKiinnostusDto(ammatti.getUri(), ammatti.getKoodi());
-  }
-
-  private static ExtOsaamisKiinnostusDto toOsaamisKiinnostusDto(Osaaminen osaaminen) {
-    return new ExtOsaamisKiinnostusDto(osaaminen.getUri());
-  }
-
-  private static ExtYksilonOsaaminenDto toYksilonOsaaminenDto(YksilonOsaaminen yksilonOsaaminen) {
-    return new ExtYksilonOsaaminenDto(
-        yksilonOsaaminen.getLahdeTyyppi(), yksilonOsaaminen.getOsaaminen().getUri());
+  private static <T> Set<T> readSet(
+      ObjectMapper objectMapper, @Nullable String json, Class<T> elementType) {
+    if (json == null) {
+      return Set.of();
+    }
+    return objectMapper.readValue(
+        json, objectMapper.getTypeFactory().constructCollectionType(Set.class, elementType));
   }
 }
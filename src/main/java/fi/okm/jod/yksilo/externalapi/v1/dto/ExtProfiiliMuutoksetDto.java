@@ -0,0 +1,22 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.externalapi.v1.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+public record ExtProfiiliMuutoksetDto(
+    List<ExtProfiiliMuutosDto> muutokset,
+    @Schema(
+            description =
+                "Position to continue the feed from, the sekvenssi of the last change or the "
+                    + "requested position if there were no new changes",
+            example = "1234567.89")
+        String seuraava) {}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.externalapi.v1.dto;
+
+/**
+ * Position in the profile change feed: the id of the writing transaction and the id of a change.
+ * Clients see it as "transaktio.id" and can resume the feed after any position.
+ */
+public record Sekvenssi(long transaktio, long id) {
+
+  /** The position before the first change. */
+  public static final Sekvenssi ALKU = new Sekvenssi(0, 0);
+
+  /**
+   * Parses the position.
+   *
+   * @throws IllegalArgumentException if the value is not valid
+   */
+  public static Sekvenssi of(String value) {
+    final int separator = value.indexOf('.');
+    if (separator < 0) {
+      throw new IllegalArgumentException("Invalid sekvenssi");
+    }
+    final long transaktio = Long.parseLong(value, 0, separator, 10);
+    final long id = Long.parseLong(value, separator + 1, value.length(), 10);
+    if (transaktio < 0 || id < 0) {
+      throw new IllegalArgumentException("Invalid sekvenssi");
+    }
+    return new Sekvenssi(transaktio, id);
+  }
+
+  @Override
+  public String toString() {
+    return transaktio + "." + id;
+  }
+}
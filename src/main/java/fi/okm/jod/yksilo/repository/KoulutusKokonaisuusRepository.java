@@ -30,4 +30,7 @@ public interface KoulutusKokonaisuusRepository extends JpaRepository<KoulutusKok
   @Query(
       "DELETE FROM KoulutusKokonaisuus k WHERE k.id = :id AND k.yksilo.id = :yksiloId AND k.koulutukset IS EMPTY")
   void deleteEmpty(UUID yksiloId, UUID id);
+
+  @Query("SELECT k.id FROM KoulutusKokonaisuus k WHERE k.yksilo.id = :yksiloId")
+  List<UUID> findIdsByYksiloId(UUID yksiloId);
 }
@@ -10,12 +10,16 @@
 package fi.okm.jod.yksilo.repository;
 
 import fi.okm.jod.yksilo.entity.koulutusmahdollisuus.Koulutusmahdollisuus;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface KoulutusmahdollisuusRepository extends JpaRepository<Koulutusmahdollisuus, UUID> {
   Page<Koulutusmahdollisuus> findByIdIn(Set<UUID> ids, Pageable pageable);
+
+  List<Koulutusmahdollisuus> findByIdGreaterThanOrderById(UUID id, Limit limit);
 }
@@ -9,53 +9,111 @@
 
 package fi.okm.jod.yksilo.repository;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import fi.okm.jod.yksilo.domain.Kieli;
+import fi.okm.jod.yksilo.domain.Versioned;
 import fi.okm.jod.yksilo.dto.MahdollisuusDto;
-import fi.okm.jod.yksilo.dto.SuunnitelmaEhdotusDto;
-import fi.okm.jod.yksilo.entity.MahdollisuusView;
-import fi.okm.jod.yksilo.entity.MahdollisuusView_;
-import java.util.Collection;
+import fi.okm.jod.yksilo.entity.MahdollisuusLista;
+import fi.okm.jod.yksilo.entity.MahdollisuusLista_;
+import fi.okm.jod.yksilo.repository.projection.KoulutusmahdollisuusOsaaminen;
+import fi.okm.jod.yksilo.repository.projection.MahdollisuusTeksti;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.SequencedMap;
 import java.util.UUID;
+import javax.annotation.Nullable;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.domain.Sort.Direction;
-import org.springframework.data.jpa.domain.JpaSort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.NativeQuery;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.transaction.annotation.Transactional;
 
-public interface MahdollisuusRepository extends JpaRepository<MahdollisuusView, UUID> {
+public interface MahdollisuusRepository extends JpaRepository<MahdollisuusLista, UUID> {
 
+  /** Returns the osaamiset of the active koulutusmahdollisuudet, one row per osaaminen. */
   @Query(
-      //  HQL
-      //  COUNT counts the number of matching osaamiset (normal SQL aggregation function),
-      //  while SIZE returns the total number of osaamiset in the Mahdollisuus.
-      //  The j.id in GROUP BY is needed because SIZE() becomes a correlated
-      //  subquery that refers to the j.id.
       """
-          SELECT NEW fi.okm.jod.yksilo.dto.SuunnitelmaEhdotusDto(
-            k.id,
-            k.tyyppi as koulutusmahdollisuusTyyppi,
-            CAST(k.kesto.mediaani AS double) as kestoMediaani,
-            CAST(k.kesto.maksimi AS double) as kestoMaksimi,
-            CAST(k.kesto.minimi AS double) as kestoMinimi,
-            CAST(COUNT(osaamiset) AS double) / SIZE(osaamiset) as matchRatio,
-            COUNT(osaamiset) as hits
-          )
+          SELECT k.id AS id,
+            k.tyyppi AS tyyppi,
+            CAST(k.kesto.mediaani AS double) AS kestoMediaani,
+            CAST(k.kesto.minimi AS double) AS kestoMinimi,
+            CAST(k.kesto.maksimi AS double) AS kestoMaksimi,
+            osaamiset.arvo AS osaaminen
           FROM Koulutusmahdollisuus k
           JOIN k.jakaumat j
           JOIN j.arvot osaamiset
           WHERE k.aktiivinen = true AND j.tyyppi = 'OSAAMINEN'
-          AND osaamiset.arvo IN :missingOsaamiset
-          GROUP BY k.id, j.id
-          ORDER BY matchRatio DESC
+          ORDER BY k.id
           """)
-  List<SuunnitelmaEhdotusDto> getPolunVaiheSuggestions(Collection<String> missingOsaamiset);
+  List<KoulutusmahdollisuusOsaaminen> findKoulutusmahdollisuusOsaamiset();
+
+  @Query("SELECT v.versio FROM MahdollisuusVersio v WHERE v.id = 1")
+  long currentVersion();
+
+  /**
+   * Loads the active opportunities of all languages in ascending (collated) order, unless the
+   * catalog version is unchanged.
+   *
+   * <p>The opportunity metadata does not depend on the language, so each {@link MahdollisuusDto}
+   * is shared between the languages and only the ordering is stored per language. Repeating
+   * strings and lists (e.g. maakunnat) are interned.
+   */
+  @Transactional(readOnly = true)
+  default Versioned<Map<Kieli, SequencedMap<UUID, MahdollisuusDto>>> refreshAll(
+      @Nullable Versioned<Map<Kieli, SequencedMap<UUID, MahdollisuusDto>>> previous) {
+    long version = currentVersion();
+    if (previous != null && previous.version() == version) {
+      return previous;
+    }
+    final Interner<String> strings = Interners.newStrongInterner();
+    final Interner<List<String>> lists = Interners.newStrongInterner();
+    final var shared = new HashMap<UUID, MahdollisuusDto>();
+    final var catalog = new EnumMap<Kieli, SequencedMap<UUID, MahdollisuusDto>>(Kieli.class);
+
+    for (var lang : Kieli.values()) {
+      final var ordered = new LinkedHashMap<UUID, MahdollisuusDto>();
+      for (var dto : findMahdollisuusIds(lang, Sort.Direction.ASC)) {
+        ordered.putIfAbsent(
+            dto.id(), shared.computeIfAbsent(dto.id(), id -> intern(dto, strings, lists)));
+      }
+      catalog.put(lang, Collections.unmodifiableSequencedMap(ordered));
+    }
+    return new Versioned<>(version, Collections.unmodifiableMap(catalog));
+  }
+
+  private static MahdollisuusDto intern(
+      MahdollisuusDto dto, Interner<String> strings, Interner<List<String>> lists) {
+    return new MahdollisuusDto(
+        dto.id(),
+        dto.tyyppi(),
+        dto.ammattiryhma() == null ? null : strings.intern(dto.ammattiryhma()),
+        dto.aineisto(),
+        dto.koulutusTyyppi(),
+        intern(dto.maakunnat(), strings, lists),
+        intern(dto.toimialat(), strings, lists),
+        intern(dto.koulutusalat(), strings, lists),
+        dto.kesto(),
+        dto.kestoMinimi(),
+        dto.kestoMaksimi());
+  }
 
+  private static List<String> intern(
+      @Nullable List<String> values, Interner<String> strings, Interner<List<String>> lists) {
+    return values == null
+        ? null
+        : lists.intern(
+            values.stream().map(it -> it == null ? null : strings.intern(it)).toList());
+  }
+
+  /** Returns the active opportunities ordered by their (collated) titles. */
   @Transactional(readOnly = true)
   default List<MahdollisuusDto> findMahdollisuusIds(Kieli lang, Sort.Direction direction) {
-    return findByKieli(lang, collate(direction, lang));
+    return findByKieli(lang, Sort.by(direction, MahdollisuusLista_.JARJESTYS));
   }
 
   @Transactional(readOnly = true)
@@ -68,19 +126,6 @@ public interface MahdollisuusRepository extends JpaRepository<MahdollisuusView,
     return query.replaceAll("([%_\\\\])", "\\\\$1");
   }
 
-  private JpaSort collate(Direction direction, Kieli lang) {
-    var collation =
-        switch (lang) {
-          case FI -> "fi-x-icu";
-          case SV -> "sv-x-icu";
-          case EN -> "en-x-icu";
-        };
-    // Note. collate is HQL extension
-    return JpaSort.unsafe(
-            direction, "collate(trim(" + MahdollisuusView_.OTSIKKO + ") as `" + collation + "`)")
-        .and(direction, MahdollisuusView_.id);
-  }
-
   @Query(
       """
           SELECT NEW fi.okm.jod.yksilo.dto.MahdollisuusDto(
@@ -96,9 +141,9 @@ public interface MahdollisuusRepository extends JpaRepository<MahdollisuusView,
                 mv.kestoMinimi,
                 mv.kestoMaksimi
           )
-          FROM MahdollisuusView mv WHERE mv.kieli = :kieli
+          FROM MahdollisuusLista mv WHERE mv.kieli = :kieli
           """)
-  List<MahdollisuusDto> findByKieli(Kieli kieli, JpaSort sort);
+  List<MahdollisuusDto> findByKieli(Kieli kieli, Sort sort);
 
   @NativeQuery(
       """
@@ -127,4 +172,26 @@ public interface MahdollisuusRepository extends JpaRepository<MahdollisuusView,
           ORDER BY similarity DESC;
           """)
   List<UUID> searchByImpl(String text, String lang);
+
+  @NativeQuery(
+      """
+          SELECT kk.koulutusmahdollisuus_id AS id,
+                 kk.kaannos_key AS kieli,
+                 kk.otsikko AS otsikko,
+                 kk.tiivistelma AS tiivistelma,
+                 kk.kuvaus AS kuvaus
+          FROM koulutusmahdollisuus_kaannos kk
+                 JOIN yksilo.koulutusmahdollisuus k ON kk.koulutusmahdollisuus_id = k.id
+          WHERE k.aktiivinen = TRUE
+          UNION ALL
+          SELECT tk.tyomahdollisuus_id AS id,
+                 tk.kaannos_key AS kieli,
+                 tk.otsikko AS otsikko,
+                 tk.tiivistelma AS tiivistelma,
+                 tk.kuvaus AS kuvaus
+          FROM tyomahdollisuus_kaannos tk
+                 JOIN yksilo.tyomahdollisuus t ON tk.tyomahdollisuus_id = t.id
+          WHERE t.aktiivinen = TRUE
+          """)
+  List<MahdollisuusTeksti> findAllTekstit();
 }
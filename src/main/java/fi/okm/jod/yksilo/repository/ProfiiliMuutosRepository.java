@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.repository;
+
+import fi.okm.jod.yksilo.entity.ProfiiliMuutos;
+import fi.okm.jod.yksilo.repository.projection.ProfiiliMuutosRivi;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.NativeQuery;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface ProfiiliMuutosRepository extends JpaRepository<ProfiiliMuutos, Long> {
+
+  /**
+   * Returns the changes after the given position in (transaktio, id) order. Only the changes of
+   * the transactions older than the oldest running transaction are returned, so that a change
+   * committed later can never appear before an already returned position.
+   */
+  @NativeQuery(
+      """
+      SELECT CAST(CAST(m.transaktio AS TEXT) AS BIGINT) AS transaktio,
+             m.id AS id, m.yksilo_id AS "yksiloId", m.tyyppi AS tyyppi, m.luotu AS luotu
+      FROM profiili_muutos m
+      WHERE (m.transaktio, m.id) > (CAST(CAST(:transaktio AS TEXT) AS XID8), :id)
+        AND m.transaktio < pg_snapshot_xmin(pg_current_snapshot())
+      ORDER BY m.transaktio, m.id
+      LIMIT :limit
+      """)
+  List<ProfiiliMuutosRivi> findMuutoksetAfter(long transaktio, long id, int limit);
+
+  @Transactional
+  @Modifying
+  @Query("DELETE FROM ProfiiliMuutos m WHERE m.luotu < :cutoff")
+  int deleteExpired(@Param("cutoff") Instant cutoff);
+}
@@ -15,6 +15,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface TavoiteRepository extends JpaRepository<Tavoite, UUID> {
 
@@ -27,4 +28,7 @@ public interface TavoiteRepository extends JpaRepository<Tavoite, UUID> {
   Optional<Tavoite> findByYksiloIdAndId(UUID yksiloId, UUID id);
 
   int countByYksilo(Yksilo yksilo);
+
+  @Query("SELECT t.id FROM Tavoite t WHERE t.yksilo.id = :yksiloId")
+  List<UUID> findIdsByYksiloId(UUID yksiloId);
 }
@@ -29,4 +29,7 @@ public interface ToimintoRepository extends JpaRepository<Toiminto, UUID> {
   @Query(
       "DELETE FROM Toiminto t WHERE t.id = :id AND t.yksilo.id = :yksiloId AND t.patevyydet IS EMPTY")
   void deleteEmpty(UUID yksiloId, UUID id);
+
+  @Query("SELECT t.id FROM Toiminto t WHERE t.yksilo.id = :yksiloId")
+  List<UUID> findIdsByYksiloId(UUID yksiloId);
 }
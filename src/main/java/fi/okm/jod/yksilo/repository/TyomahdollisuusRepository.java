@@ -10,7 +10,11 @@
 package fi.okm.jod.yksilo.repository;
 
 import fi.okm.jod.yksilo.entity.tyomahdollisuus.Tyomahdollisuus;
+import java.util.List;
 import java.util.UUID;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface TyomahdollisuusRepository extends JpaRepository<Tyomahdollisuus, UUID> {}
+public interface TyomahdollisuusRepository extends JpaRepository<Tyomahdollisuus, UUID> {
+  List<Tyomahdollisuus> findByIdGreaterThanOrderById(UUID id, Limit limit);
+}
@@ -30,4 +30,7 @@ public interface TyopaikkaRepository extends JpaRepository<Tyopaikka, UUID> {
   @Query(
       "DELETE FROM Tyopaikka t WHERE t.id = :id AND t.yksilo.id = :yksiloId AND t.toimenkuvat IS EMPTY")
   void deleteEmpty(UUID yksiloId, UUID id);
+
+  @Query("SELECT t.id FROM Tyopaikka t WHERE t.yksilo.id = :yksiloId")
+  List<UUID> findIdsByYksiloId(UUID yksiloId);
 }
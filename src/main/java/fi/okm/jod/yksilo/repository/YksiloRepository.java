@@ -10,13 +10,13 @@
 package fi.okm.jod.yksilo.repository;
 
 import fi.okm.jod.yksilo.entity.Yksilo;
+import fi.okm.jod.yksilo.repository.projection.YksiloProfiili;
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import org.jspecify.annotations.Nullable;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.NativeQuery;
 import org.springframework.data.jpa.repository.Query;
@@ -66,10 +66,65 @@ public interface YksiloRepository extends JpaRepository<Yksilo, UUID> {
   @Query(value = "SELECT k.uri FROM Yksilo y JOIN y.ammattiKiinnostukset k WHERE y = :yksilo")
   Set<String> findAmmattiKiinnostukset(Yksilo yksilo);
 
-  @Query(
-      value =
-          "SELECT y FROM Yksilo y WHERE y.muokattu > :muokattuJalkeen ORDER BY y.muokattu ASC, y.id")
-  Page<Yksilo> findAllModifiedAfter(Instant muokattuJalkeen, Pageable pageable);
+  String PROFIILI_SELECT =
+      """
+          SELECT y.id AS id,
+                 y.muokattu AS muokattu,
+                 y.syntymavuosi AS syntymavuosi,
+                 y.sukupuoli AS sukupuoli,
+                 y.kotikunta AS kotikunta,
+                 y.aidinkieli AS aidinkieli,
+                 y.valittu_kieli AS "valittuKieli",
+                 CAST((SELECT jsonb_agg(DISTINCT jsonb_build_object('lahde', yo.lahde, 'uri', o.uri))
+                       FROM yksilon_osaaminen yo
+                              JOIN osaaminen o ON o.id = yo.osaaminen_id
+                       WHERE yo.yksilo_id = y.id) AS TEXT) AS osaamiset,
+                 CAST((SELECT jsonb_agg(DISTINCT jsonb_build_object('uri', o.uri))
+                       FROM yksilo_osaamis_kiinnostukset k
+                              JOIN osaaminen o ON o.id = k.osaamis_kiinnostukset_id
+                       WHERE k.yksilo_id = y.id) AS TEXT) AS "osaamisKiinnostukset",
+                 CAST((SELECT jsonb_agg(DISTINCT jsonb_build_object('uri', a.uri, 'koodi', a.koodi))
+                       FROM yksilo_ammatti_kiinnostukset k
+                              JOIN ammatti a ON a.id = k.ammatti_kiinnostukset_id
+                       WHERE k.yksilo_id = y.id) AS TEXT) AS "ammattiKiinnostukset",
+                 CAST((SELECT jsonb_agg(DISTINCT jsonb_build_object(
+                   'tyomahdollisuusId', s.tyomahdollisuus_id,
+                   'koulutusmahdollisuusId', s.koulutusmahdollisuus_id))
+                       FROM yksilon_suosikki s
+                       WHERE s.yksilo_id = y.id) AS TEXT) AS suosikit,
+                 CAST((SELECT jsonb_agg(DISTINCT jsonb_build_object('tyomahdollisuusId', t.tyomahdollisuus_id))
+                       FROM tavoite t
+                       WHERE t.yksilo_id = y.id) AS TEXT) AS tavoitteet
+          FROM yksilo y
+          """;
+
+  /**
+   * Returns a page of the profiles modified after the given time (in modification order) with
+   * their collections, using one statement.
+   */
+  @NativeQuery(
+      PROFIILI_SELECT
+          + """
+          WHERE y.muokattu > :muokattuJalkeen
+          ORDER BY y.muokattu, y.id
+          OFFSET :offset LIMIT :limit
+          """)
+  List<YksiloProfiili> findProfiilit(Instant muokattuJalkeen, long offset, int limit);
+
+  /** Returns the next profiles after the given (muokattu, id) position (keyset pagination). */
+  @NativeQuery(
+      PROFIILI_SELECT
+          + """
+          WHERE (y.muokattu, y.id) > (:muokattu, :id)
+          ORDER BY y.muokattu, y.id
+          LIMIT :limit
+          """)
+  List<YksiloProfiili> findProfiilitAfter(Instant muokattu, UUID id, int limit);
+
+  long countByMuokattuAfter(Instant muokattuJalkeen);
+
+  @Query("SELECT y.muokattu FROM Yksilo y WHERE y.id = :id")
+  Optional<Instant> findMuokattuById(UUID id);
 
   record TunnistusData(
       UUID yksiloId,
@@ -34,4 +34,7 @@ public interface YksilonSuosikkiRepository extends JpaRepository<YksilonSuosikki
       OR (ys.tyyppi = 'KOULUTUSMAHDOLLISUUS' AND  ys.koulutusmahdollisuus.id = :kohdeId))
       """)
   Optional<YksilonSuosikki> findBy(Yksilo yksilo, SuosikkiTyyppi tyyppi, UUID kohdeId);
+
+  @Query("SELECT ys.id FROM YksilonSuosikki ys WHERE ys.yksilo.id = :yksiloId")
+  List<UUID> findIdsByYksiloId(UUID yksiloId);
 }
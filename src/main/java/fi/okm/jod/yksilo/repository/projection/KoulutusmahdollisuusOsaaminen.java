@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.repository.projection;
+
+import fi.okm.jod.yksilo.domain.KoulutusmahdollisuusTyyppi;
+import java.util.UUID;
+
+/** An osaaminen of an active koulutusmahdollisuus (one row per osaaminen). */
+public interface KoulutusmahdollisuusOsaaminen {
+  UUID getId();
+
+  KoulutusmahdollisuusTyyppi getTyyppi();
+
+  Double getKestoMediaani();
+
+  Double getKestoMinimi();
+
+  Double getKestoMaksimi();
+
+  String getOsaaminen();
+}
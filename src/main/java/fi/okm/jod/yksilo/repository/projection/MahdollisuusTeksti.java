@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.repository.projection;
+
+import java.util.UUID;
+
+/** Translated texts of an active tyomahdollisuus or koulutusmahdollisuus. */
+public interface MahdollisuusTeksti {
+  UUID getId();
+
+  String getKieli();
+
+  String getOtsikko();
+
+  String getTiivistelma();
+
+  String getKuvaus();
+}
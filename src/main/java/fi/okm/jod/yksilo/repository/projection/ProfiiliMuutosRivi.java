@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.repository.projection;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface ProfiiliMuutosRivi {
+  long getTransaktio();
+
+  long getId();
+
+  UUID getYksiloId();
+
+  String getTyyppi();
+
+  Instant getLuotu();
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.repository.projection;
+
+import fi.okm.jod.yksilo.domain.Kieli;
+import fi.okm.jod.yksilo.domain.Sukupuoli;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Profile of a yksilö for the external API. The collections are aggregated to JSON arrays (null if
+ * empty) by the query.
+ */
+public interface YksiloProfiili {
+  UUID getId();
+
+  Instant getMuokattu();
+
+  Integer getSyntymavuosi();
+
+  Sukupuoli getSukupuoli();
+
+  String getKotikunta();
+
+  String getAidinkieli();
+
+  Kieli getValittuKieli();
+
+  String getOsaamiset();
+
+  String getOsaamisKiinnostukset();
+
+  String getAmmattiKiinnostukset();
+
+  String getSuosikit();
+
+  String getTavoitteet();
+}
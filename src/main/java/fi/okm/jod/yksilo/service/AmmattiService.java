@@ -13,6 +13,7 @@ import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.github.benmanes.caffeine.cache.Ticker;
+import fi.okm.jod.yksilo.domain.EscoIds;
 import fi.okm.jod.yksilo.domain.Versioned;
 import fi.okm.jod.yksilo.dto.AmmattiDto;
 import fi.okm.jod.yksilo.dto.SivuDto;
@@ -21,7 +22,6 @@ import java.net.URI;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ForkJoinPool;
@@ -37,11 +37,11 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class AmmattiService {
   private static final Object SINGLETON_KEY = new Object();
-  private final LoadingCache<Object, Versioned<Map<URI, AmmattiDto>>> cache;
+  private final LoadingCache<Object, EscoSnapshot<AmmattiDto>> cache;
 
   private final AmmattiRepository ammatit;
 
-  static final Duration CACHE_DURATION = Duration.ofMinutes(1);
+  static final Duration CACHE_DURATION = Duration.ofMinutes(10);
 
   @Autowired
   AmmattiService(AmmattiRepository ammatit) {
@@ -61,54 +61,51 @@ public class AmmattiService {
             .build(new Loader(this.ammatit));
   }
 
+  /** Reloads the snapshot in the background if its version has changed. */
+  public void refresh() {
+    cache.refresh(SINGLETON_KEY);
+  }
+
   public long currentVersion() {
     return cache.get(SINGLETON_KEY).version();
   }
 
   public Versioned<SivuDto<AmmattiDto>> findAll(int sivu, int koko) {
     var value = cache.get(SINGLETON_KEY);
-    var values = value.payload().values();
-    var result =
-        new SivuDto<>(
-            values.stream().skip((long) sivu * koko).limit(koko).toList(),
-            values.size(),
-            (values.size() + koko - 1) / koko);
-    return new Versioned<>(value.version(), result);
+    return new Versioned<>(value.version(), value.page(sivu, koko));
   }
 
   public Versioned<SivuDto<AmmattiDto>> findBy(int sivu, int koko, Set<URI> uri) {
     var value = cache.get(SINGLETON_KEY);
-    var values = uri.stream().map(u -> value.payload().get(u)).filter(Objects::nonNull).toList();
-    var payload =
-        new SivuDto<>(
-            values.stream().skip((long) sivu * koko).limit(koko).toList(),
-            values.size(),
-            (values.size() + koko - 1) / koko);
-    return new Versioned<>(value.version(), payload);
+    return new Versioned<>(value.version(), EscoSnapshot.page(sivu, koko, value.findBy(uri)));
   }
 
   public List<AmmattiDto> findBy(Set<URI> uri) {
-    var dtos = cache.get(SINGLETON_KEY).payload();
-    return uri.stream().map(dtos::get).filter(Objects::nonNull).toList();
+    return cache.get(SINGLETON_KEY).findBy(uri);
   }
 
   public Map<URI, AmmattiDto> getAll() {
     return cache.get(SINGLETON_KEY).payload();
   }
 
+  /** Returns the dictionary of the ammatti URIs of the current snapshot. */
+  public EscoIds getIds() {
+    return cache.get(SINGLETON_KEY).ids();
+  }
+
   @RequiredArgsConstructor
-  private static class Loader implements CacheLoader<Object, Versioned<Map<URI, AmmattiDto>>> {
+  private static class Loader implements CacheLoader<Object, EscoSnapshot<AmmattiDto>> {
     private final AmmattiRepository ammatit;
 
     @Override
-    public Versioned<Map<URI, AmmattiDto>> load(Object key) throws Exception {
+    public EscoSnapshot<AmmattiDto> load(Object key) throws Exception {
       return reload(key, null);
     }
 
     @Override
-    public @Nullable Versioned<Map<URI, AmmattiDto>> reload(
-        Object key, Versioned<Map<URI, AmmattiDto>> oldValue) throws Exception {
-      return ammatit.refreshAll(oldValue);
+    public @Nullable EscoSnapshot<AmmattiDto> reload(
+        Object key, EscoSnapshot<AmmattiDto> oldValue) throws Exception {
+      return EscoSnapshot.refresh(oldValue, ammatit::refreshAll);
     }
   }
 }
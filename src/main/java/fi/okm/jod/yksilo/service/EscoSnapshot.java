@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.service;
+
+import fi.okm.jod.yksilo.domain.EscoIds;
+import fi.okm.jod.yksilo.domain.Versioned;
+import fi.okm.jod.yksilo.dto.SivuDto;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Versioned snapshot of ESCO DTOs (osaamiset or ammatit) with the {@link EscoIds} dictionary of
+ * their URIs built at load time.
+ */
+record EscoSnapshot<T>(
+    Versioned<Map<URI, T>> versioned, EscoIds ids, List<T> byId, List<T> values) {
+
+  static <T> EscoSnapshot<T> of(Versioned<Map<URI, T>> versioned) {
+    final var ids = EscoIds.of(versioned.payload().keySet());
+    final var byId = new ArrayList<T>(ids.size());
+    for (int id = 0; id < ids.size(); id++) {
+      byId.add(versioned.payload().get(ids.uri(id)));
+    }
+    return new EscoSnapshot<>(
+        versioned, ids, List.copyOf(byId), List.copyOf(versioned.payload().values()));
+  }
+
+  /**
+   * Refreshes the snapshot using the given repository refresh function, which returns the previous
+   * value as is if it has not changed.
+   */
+  static <T> EscoSnapshot<T> refresh(
+      @Nullable EscoSnapshot<T> previous, UnaryOperator<Versioned<Map<URI, T>>> refreshAll) {
+    final var refreshed = refreshAll.apply(previous == null ? null : previous.versioned());
+    return previous != null && refreshed == previous.versioned() ? previous : of(refreshed);
+  }
+
+  long version() {
+    return versioned.version();
+  }
+
+  Map<URI, T> payload() {
+    return versioned.payload();
+  }
+
+  /** Returns a page of all the DTOs (in the snapshot order). */
+  SivuDto<T> page(int sivu, int koko) {
+    return page(sivu, koko, values);
+  }
+
+  /** Returns a page of the given values without copying them. */
+  static <T> SivuDto<T> page(int sivu, int koko, List<T> values) {
+    final int from = (int) Math.min((long) sivu * koko, values.size());
+    final int to = Math.min(from + koko, values.size());
+    return new SivuDto<>(
+        values.subList(from, to), values.size(), (values.size() + koko - 1) / koko);
+  }
+
+  /** Returns the DTOs of the known URIs, in the iteration order of the given URIs. */
+  List<T> findBy(Collection<URI> uris) {
+    return uris.stream()
+        .mapToInt(ids::idOf)
+        .filter(id -> id >= 0)
+        .mapToObj(byId::get)
+        .toList();
+  }
+}
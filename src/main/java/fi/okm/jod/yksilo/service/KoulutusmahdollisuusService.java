@@ -16,6 +16,8 @@ import fi.okm.jod.yksilo.dto.KestoJakaumaDto;
 import fi.okm.jod.yksilo.dto.KoulutusViiteDto;
 import fi.okm.jod.yksilo.dto.KoulutusmahdollisuusDto;
 import fi.okm.jod.yksilo.dto.KoulutusmahdollisuusFullDto;
+import fi.okm.jod.yksilo.dto.Kursori;
+import fi.okm.jod.yksilo.dto.KursoriSivuDto;
 import fi.okm.jod.yksilo.entity.Jakauma;
 import fi.okm.jod.yksilo.entity.koulutusmahdollisuus.Koulutusmahdollisuus;
 import fi.okm.jod.yksilo.entity.koulutusmahdollisuus.Koulutusmahdollisuus.KestoJakauma;
@@ -29,6 +31,8 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -102,6 +106,18 @@ public class KoulutusmahdollisuusService {
         .map(KoulutusmahdollisuusService::map);
   }
 
+  /** Returns the page after the given position in id order (keyset pagination). */
+  public KursoriSivuDto<KoulutusmahdollisuusDto> findAll(
+      @Nullable Kursori kursori, int koko, boolean laskeMaara) {
+    return KursoriSivuDto.of(
+        koulutusmahdollisuudet.findByIdGreaterThanOrderById(
+            kursori == null ? Kursori.MIN_ID : kursori.id(), Limit.of(koko + 1)),
+        koko,
+        k -> new Kursori(k.getId()),
+        KoulutusmahdollisuusService::map,
+        laskeMaara ? koulutusmahdollisuudet::count : null);
+  }
+
   public Page<KoulutusmahdollisuusFullDto> findAllFull(Set<UUID> id, Pageable pageable) {
     return koulutusmahdollisuudet
         .findByIdIn(
@@ -9,28 +9,102 @@
 
 package fi.okm.jod.yksilo.service;
 
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
 import fi.okm.jod.yksilo.domain.Kieli;
+import fi.okm.jod.yksilo.domain.Versioned;
 import fi.okm.jod.yksilo.dto.MahdollisuusDto;
 import fi.okm.jod.yksilo.repository.MahdollisuusRepository;
 import fi.okm.jod.yksilo.service.ehdotus.MahdollisuudetService;
+import java.time.Duration;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.SequencedCollection;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 @Service
-@Transactional(readOnly = true)
-@RequiredArgsConstructor
+@DependsOnDatabaseInitialization
+@Slf4j
 public class MahdollisuudetSearchService {
 
+  private static final Object SINGLETON_KEY = new Object();
+
+  static final Duration CACHE_DURATION = Duration.ofMinutes(10);
+
   private final MahdollisuusRepository mahdollisuusRepository;
   private final MahdollisuudetService mahdollisuudetService;
+  private final LoadingCache<Object, Versioned<Map<Kieli, MahdollisuusSearchIndex>>> cache;
+
+  @Autowired
+  MahdollisuudetSearchService(
+      MahdollisuusRepository mahdollisuusRepository, MahdollisuudetService mahdollisuudetService) {
+    this(
+        mahdollisuusRepository,
+        mahdollisuudetService,
+        Ticker.systemTicker(),
+        ForkJoinPool.commonPool());
+  }
+
+  // for testing
+  MahdollisuudetSearchService(
+      MahdollisuusRepository mahdollisuusRepository,
+      MahdollisuudetService mahdollisuudetService,
+      Ticker ticker,
+      Executor executor) {
+    this.mahdollisuusRepository = mahdollisuusRepository;
+    this.mahdollisuudetService = mahdollisuudetService;
+    this.cache =
+        Caffeine.newBuilder()
+            .ticker(ticker)
+            .initialCapacity(1)
+            .maximumSize(1)
+            .executor(executor)
+            .refreshAfterWrite(CACHE_DURATION)
+            .build(new Loader(this));
+  }
+
+  /** Reloads the search index in the background if the catalog version has changed. */
+  public void refresh() {
+    cache.refresh(SINGLETON_KEY);
+  }
+
+  /**
+   * Searches the active opportunities whose title, summary or description contains the query, the
+   * best matches first.
+   *
+   * @param sivu page number (0..)
+   * @param koko page size, all the matches are returned if not set
+   */
+  public SequencedCollection<MahdollisuusDto> search(
+      Kieli lang, String query, int sivu, @Nullable Integer koko) {
+    final long start = koko == null ? 0 : (long) sivu * koko;
+    if (start > Integer.MAX_VALUE) {
+      // past the end of any index
+      return List.of();
+    }
+    final int offset = (int) start;
+    final int limit = koko == null ? Integer.MAX_VALUE : koko;
+    final var index = getIndexes().get(lang);
+
+    final var ids =
+        (index == null ? Optional.<List<UUID>>empty() : index.search(query, offset, limit))
+            .orElseGet(() -> fallback(lang, query, offset, limit));
 
-  public SequencedCollection<MahdollisuusDto> search(Kieli lang, String query) {
-    var ids = mahdollisuusRepository.searchBy(query, lang);
     if (ids.isEmpty()) {
       return List.of();
     }
@@ -39,4 +113,52 @@ public class MahdollisuudetSearchService {
 
     return ids.stream().map(mahdollisuudet::get).filter(Objects::nonNull).toList();
   }
+
+  private Map<Kieli, MahdollisuusSearchIndex> getIndexes() {
+    var value = cache.get(SINGLETON_KEY);
+    return value == null ? Map.of() : value.payload(); // NOSONAR
+  }
+
+  /** Queries too short for the trigram index are searched from the database. */
+  private List<UUID> fallback(Kieli lang, String query, int offset, int limit) {
+    return mahdollisuusRepository.searchBy(query, lang).stream()
+        .skip(offset)
+        .limit(limit)
+        .toList();
+  }
+
+  private Versioned<Map<Kieli, MahdollisuusSearchIndex>> refreshIndex(
+      @Nullable Versioned<Map<Kieli, MahdollisuusSearchIndex>> previous) {
+    long version = mahdollisuusRepository.currentVersion();
+    if (previous != null && previous.version() == version) {
+      return previous;
+    }
+    final var builders = new EnumMap<Kieli, MahdollisuusSearchIndex.Builder>(Kieli.class);
+    for (var teksti : mahdollisuusRepository.findAllTekstit()) {
+      builders
+          .computeIfAbsent(Kieli.valueOf(teksti.getKieli()), k -> MahdollisuusSearchIndex.builder())
+          .add(teksti.getId(), teksti.getOtsikko(), teksti.getTiivistelma(), teksti.getKuvaus());
+    }
+    final var indexes = new EnumMap<Kieli, MahdollisuusSearchIndex>(Kieli.class);
+    builders.forEach((lang, builder) -> indexes.put(lang, builder.build()));
+    log.info("Built mahdollisuus search index (version {})", version);
+    return new Versioned<>(version, Map.copyOf(indexes));
+  }
+
+  @RequiredArgsConstructor
+  private static class Loader
+      implements CacheLoader<@NonNull Object, Versioned<Map<Kieli, MahdollisuusSearchIndex>>> {
+    private final MahdollisuudetSearchService service;
+
+    @Override
+    public Versioned<Map<Kieli, MahdollisuusSearchIndex>> load(Object key) {
+      return service.refreshIndex(null);
+    }
+
+    @Override
+    public Versioned<Map<Kieli, MahdollisuusSearchIndex>> reload(
+        Object key, @NonNull Versioned<Map<Kieli, MahdollisuusSearchIndex>> oldValue) {
+      return service.refreshIndex(oldValue);
+    }
+  }
 }
@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * In-memory trigram index over the translated texts (otsikko, tiivistelma, kuvaus) of the
+ * opportunities of one language.
+ *
+ * <p>Matching and scoring follow the previous database search: an opportunity matches if one of
+ * its texts contains the query (case-insensitively), and the matches are ranked by {@code 2 *
+ * similarity(otsikko) + similarity(tiivistelma) + similarity(kuvaus)}, where the similarity is the
+ * pg_trgm trigram similarity. The candidates of a text are the opportunities in the posting list of
+ * the rarest trigram of the query, and each candidate is confirmed with a substring check of the
+ * (lower case) text. Only the matches are scored, so a search does not allocate anything sized by
+ * the number of opportunities.
+ */
+final class MahdollisuusSearchIndex {
+
+  private static final double[] BOOSTS = {2, 1, 1};
+  private static final int[] NONE = new int[0];
+
+  private final UUID[] ids;
+  private final List<Map<String, int[]>> postings;
+  private final int[][] trigramCounts;
+  private final String[][] texts;
+
+  private MahdollisuusSearchIndex(
+      UUID[] ids, List<Map<String, int[]>> postings, int[][] trigramCounts, String[][] texts) {
+    this.ids = ids;
+    this.postings = postings;
+    this.trigramCounts = trigramCounts;
+    this.texts = texts;
+  }
+
+  static Builder builder() {
+    return new Builder();
+  }
+
+  int size() {
+    return ids.length;
+  }
+
+  /**
+   * Searches the opportunities matching the query in descending score order.
+   *
+   * @param offset number of the best matches to skip
+   * @param limit maximum number of matches to return
+   * @return the ids of the matches, or empty if the query is too short to be searched using
+   *     trigrams
+   */
+  Optional<List<UUID>> search(String query, int offset, int limit) {
+    final var required = substringTrigrams(query);
+    if (required.isEmpty()) {
+      return Optional.empty();
+    }
+    final var matches = matches(required, query.toLowerCase(Locale.ROOT));
+    final var similar = trigrams(query);
+    final var scores = new double[matches.length];
+    for (int i = 0; i < matches.length; i++) {
+      scores[i] = score(matches[i], similar);
+    }
+
+    final var ranked = Ranking.rank(scores, (int) Math.min((long) offset + limit, matches.length));
+    return Optional.of(
+        IntStream.range(Math.min(offset, ranked.length), ranked.length)
+            .mapToObj(i -> ids[matches[ranked[i]]])
+            .toList());
+  }
+
+  /** Returns the opportunities (in ascending order) that have a text containing the query. */
+  private int[] matches(Set<String> required, String query) {
+    final var found = new IntList();
+    for (int field = 0; field < BOOSTS.length; field++) {
+      final var index = postings.get(field);
+      int[] rarest = null;
+      for (var trigram : required) {
+        final var docs = index.getOrDefault(trigram, NONE);
+        if (rarest == null || docs.length < rarest.length) {
+          rarest = docs;
+        }
+      }
+      for (int doc : rarest) {
+        if (texts[field][doc].contains(query)) {
+          found.add(doc);
+        }
+      }
+    }
+    final var docs = found.toArray();
+    Arrays.sort(docs);
+    int distinct = 0;
+    for (int i = 0; i < docs.length; i++) {
+      if (i == 0 || docs[i] != docs[i - 1]) {
+        docs[distinct++] = docs[i];
+      }
+    }
+    return Arrays.copyOf(docs, distinct);
+  }
+
+  /**
+   * Returns the score of the opportunity. The posting lists are in ascending order, so the common
+   * trigrams are found with binary searches.
+   */
+  private double score(int doc, Set<String> similar) {
+    double score = 0;
+    for (int field = 0; field < BOOSTS.length; field++) {
+      final var index = postings.get(field);
+      int common = 0;
+      for (var trigram : similar) {
+        if (Arrays.binarySearch(index.getOrDefault(trigram, NONE), doc) >= 0) {
+          common++;
+        }
+      }
+      if (common > 0) {
+        final int union = similar.size() + trigramCounts[field][doc] - common;
+        score += BOOSTS[field] * common / union;
+      }
+    }
+    return score;
+  }
+
+  /**
+   * Returns the trigrams of the text like pg_trgm: the text is split to lower case alphanumeric
+   * words and each word is padded with two spaces in front and one space after it.
+   */
+  static Set<String> trigrams(@Nullable String text) {
+    final var trigrams = new LinkedHashSet<String>();
+    if (text != null) {
+      for (var word : words(text)) {
+        addTrigrams(trigrams, "  " + word.text() + " ");
+      }
+    }
+    return trigrams;
+  }
+
+  /**
+   * Returns the trigrams that a text containing the query as a substring must have. The words at
+   * the ends of the query can be parts of longer words, so they are only padded on the side where
+   * the query has a word boundary.
+   */
+  static Set<String> substringTrigrams(String query) {
+    final var trigrams = new LinkedHashSet<String>();
+    for (var word : words(query)) {
+      addTrigrams(
+          trigrams,
+          (word.boundaryBefore() ? "  " : "") + word.text() + (word.boundaryAfter() ? " " : ""));
+    }
+    return trigrams;
+  }
+
+  private record Word(String text, boolean boundaryBefore, boolean boundaryAfter) {}
+
+  private static List<Word> words(String text) {
+    final var words = new ArrayList<Word>();
+    final var lower = text.toLowerCase(Locale.ROOT);
+    int start = -1;
+    for (int i = 0; i <= lower.length(); i++) {
+      final boolean alphanumeric = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+      if (alphanumeric && start < 0) {
+        start = i;
+      } else if (!alphanumeric && start >= 0) {
+        words.add(new Word(lower.substring(start, i), start > 0, i < lower.length()));
+        start = -1;
+      }
+    }
+    return words;
+  }
+
+  private static void addTrigrams(Set<String> trigrams, String padded) {
+    for (int i = 0; i + 3 <= padded.length(); i++) {
+      trigrams.add(padded.substring(i, i + 3));
+    }
+  }
+
+  static final class Builder {
+    private final List<UUID> ids = new ArrayList<>();
+    private final List<Map<String, IntList>> postings =
+        List.of(new HashMap<>(), new HashMap<>(), new HashMap<>());
+    private final List<IntList> trigramCounts =
+        List.of(new IntList(), new IntList(), new IntList());
+    private final List<List<String>> texts =
+        List.of(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+
+    private Builder() {}
+
+    Builder add(
+        UUID id, @Nullable String otsikko, @Nullable String tiivistelma, @Nullable String kuvaus) {
+      final int doc = ids.size();
+      ids.add(id);
+      final var values = new String[] {otsikko, tiivistelma, kuvaus};
+      for (int field = 0; field < values.length; field++) {
+        final var trigrams = trigrams(values[field]);
+        trigramCounts.get(field).add(trigrams.size());
+        texts.get(field).add(values[field] == null ? "" : values[field].toLowerCase(Locale.ROOT));
+        for (var trigram : trigrams) {
+          postings.get(field).computeIfAbsent(trigram, k -> new IntList()).add(doc);
+        }
+      }
+      return this;
+    }
+
+    MahdollisuusSearchIndex build() {
+      final var fields = new ArrayList<Map<String, int[]>>(postings.size());
+      for (var field : postings) {
+        final var index = HashMap.<String, int[]>newHashMap(field.size());
+        field.forEach((trigram, docs) -> index.put(trigram, docs.toArray()));
+        fields.add(index);
+      }
+      return new MahdollisuusSearchIndex(
+          ids.toArray(UUID[]::new),
+          List.copyOf(fields),
+          trigramCounts.stream().map(IntList::toArray).toArray(int[][]::new),
+          texts.stream().map(field -> field.toArray(String[]::new)).toArray(String[][]::new));
+    }
+  }
+
+  private static final class IntList {
+    private int[] values = new int[4];
+    private int size;
+
+    void add(int value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+
+    int[] toArray() {
+      return Arrays.copyOf(values, size);
+    }
+  }
+}
@@ -13,16 +13,15 @@ import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.github.benmanes.caffeine.cache.Ticker;
+import fi.okm.jod.yksilo.domain.EscoIds;
 import fi.okm.jod.yksilo.domain.Versioned;
 import fi.okm.jod.yksilo.dto.OsaaminenDto;
 import fi.okm.jod.yksilo.dto.SivuDto;
 import fi.okm.jod.yksilo.repository.OsaaminenRepository;
 import java.net.URI;
 import java.time.Duration;
-import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ForkJoinPool;
@@ -39,10 +38,11 @@ import org.springframework.stereotype.Service;
 public class OsaaminenService {
 
   private static final Object SINGLETON_KEY = new Object();
-  private static final Versioned<Map<URI, OsaaminenDto>> EMPTY = new Versioned<>(0, Map.of());
-  private final LoadingCache<Object, Versioned<Map<URI, OsaaminenDto>>> cache;
+  private static final EscoSnapshot<OsaaminenDto> EMPTY =
+      new EscoSnapshot<>(new Versioned<>(0, Map.of()), EscoIds.EMPTY, List.of(), List.of());
+  private final LoadingCache<Object, EscoSnapshot<OsaaminenDto>> cache;
 
-  static final Duration CACHE_DURATION = Duration.ofMinutes(1);
+  static final Duration CACHE_DURATION = Duration.ofMinutes(10);
 
   @Autowired
   OsaaminenService(OsaaminenRepository osaamiset) {
@@ -61,6 +61,11 @@ public class OsaaminenService {
             .build(new OsaaminenService.Loader(osaamiset));
   }
 
+  /** Reloads the snapshot in the background if its version has changed. */
+  public void refresh() {
+    cache.refresh(SINGLETON_KEY);
+  }
+
   public long currentVersion() {
     return getOsaamiset().version();
   }
@@ -68,27 +73,30 @@ public class OsaaminenService {
   public Versioned<SivuDto<OsaaminenDto>> findAll(int sivu, int koko) {
     validateArgs(sivu, koko);
     var osaamiset = getOsaamiset();
-    return new Versioned<>(osaamiset.version(), toPage(sivu, koko, osaamiset.payload().values()));
+    return new Versioned<>(osaamiset.version(), osaamiset.page(sivu, koko));
   }
 
   public Versioned<SivuDto<OsaaminenDto>> findBy(int sivu, int koko, Set<URI> uri) {
     validateArgs(sivu, koko);
     var osaamiset = getOsaamiset();
-    var values =
-        uri.stream().map(u -> osaamiset.payload().get(u)).filter(Objects::nonNull).toList();
-    return new Versioned<>(osaamiset.version(), toPage(sivu, koko, values));
+    return new Versioned<>(
+        osaamiset.version(), EscoSnapshot.page(sivu, koko, osaamiset.findBy(uri)));
   }
 
   public List<OsaaminenDto> findBy(Set<URI> uri) {
-    var osaamiset = getOsaamiset().payload();
-    return uri.stream().map(osaamiset::get).filter(Objects::nonNull).toList();
+    return getOsaamiset().findBy(uri);
   }
 
   public Map<URI, OsaaminenDto> getAll() {
     return getOsaamiset().payload();
   }
 
-  private Versioned<Map<URI, OsaaminenDto>> getOsaamiset() {
+  /** Returns the dictionary of the osaaminen URIs of the current snapshot. */
+  public EscoIds getIds() {
+    return getOsaamiset().ids();
+  }
+
+  private EscoSnapshot<OsaaminenDto> getOsaamiset() {
     var value = cache.get(SINGLETON_KEY);
     return value == null ? EMPTY : value; // NOSONAR
   }
@@ -99,27 +107,19 @@ public class OsaaminenService {
     }
   }
 
-  private static SivuDto<OsaaminenDto> toPage(int sivu, int koko, Collection<OsaaminenDto> values) {
-    return new SivuDto<>(
-        values.stream().skip((long) sivu * koko).limit(koko).toList(),
-        values.size(),
-        (values.size() + koko - 1) / koko);
-  }
-
   @RequiredArgsConstructor
-  private static class Loader
-      implements CacheLoader<@NonNull Object, Versioned<Map<URI, OsaaminenDto>>> {
+  private static class Loader implements CacheLoader<@NonNull Object, EscoSnapshot<OsaaminenDto>> {
     private final OsaaminenRepository osaamiset;
 
     @Override
-    public Versioned<Map<URI, OsaaminenDto>> load(Object key) {
-      return osaamiset.refreshAll(null);
+    public EscoSnapshot<OsaaminenDto> load(Object key) {
+      return EscoSnapshot.refresh(null, osaamiset::refreshAll);
     }
 
     @Override
-    public Versioned<Map<URI, OsaaminenDto>> reload(
-        Object key, @NonNull Versioned<Map<URI, OsaaminenDto>> oldValue) {
-      return osaamiset.refreshAll(oldValue);
+    public EscoSnapshot<OsaaminenDto> reload(
+        Object key, @NonNull EscoSnapshot<OsaaminenDto> oldValue) {
+      return EscoSnapshot.refresh(oldValue, osaamiset::refreshAll);
     }
   }
 }
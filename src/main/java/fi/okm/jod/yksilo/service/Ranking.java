@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.service;
+
+/** Top-N ranking of scores without sorting (or boxing) all of them. */
+public final class Ranking {
+
+  private Ranking() {}
+
+  /**
+   * Returns the indexes of the best scores in descending score order, equal scores in index order.
+   * The best ones are kept in a bounded heap whose head is the worst of them, then heapsorted, so
+   * ranking allocates nothing but the result array.
+   *
+   * @param size maximum number of indexes to return
+   */
+  public static int[] rank(double[] scores, int size) {
+    final int n = Math.clamp(size, 0, scores.length);
+    final var heap = new int[n];
+    int count = 0;
+    for (int i = 0; i < scores.length && n > 0; i++) {
+      if (count < n) {
+        heap[count] = i;
+        siftUp(heap, count++, scores);
+      } else if (isBetter(i, heap[0], scores)) {
+        heap[0] = i;
+        siftDown(heap, n, scores);
+      }
+    }
+    // heapsort: moving the worst to the end leaves the best first
+    for (int end = n - 1; end > 0; end--) {
+      swap(heap, 0, end);
+      siftDown(heap, end, scores);
+    }
+    return heap;
+  }
+
+  private static boolean isBetter(int a, int b, double[] scores) {
+    final int c = Double.compare(scores[a], scores[b]);
+    return c > 0 || (c == 0 && a < b);
+  }
+
+  private static void siftUp(int[] heap, int k, double[] scores) {
+    while (k > 0) {
+      final int parent = (k - 1) / 2;
+      if (!isBetter(heap[parent], heap[k], scores)) {
+        return;
+      }
+      swap(heap, parent, k);
+      k = parent;
+    }
+  }
+
+  private static void siftDown(int[] heap, int size, double[] scores) {
+    int k = 0;
+    while (2 * k + 1 < size) {
+      int worse = 2 * k + 1;
+      if (worse + 1 < size && isBetter(heap[worse], heap[worse + 1], scores)) {
+        worse++;
+      }
+      if (!isBetter(heap[k], heap[worse], scores)) {
+        return;
+      }
+      swap(heap, k, worse);
+      k = worse;
+    }
+  }
+
+  private static void swap(int[] heap, int a, int b) {
+    final int tmp = heap[a];
+    heap[a] = heap[b];
+    heap[b] = tmp;
+  }
+}
@@ -11,6 +11,8 @@ package fi.okm.jod.yksilo.service;
 
 import static fi.okm.jod.yksilo.service.JakaumaMapper.mapJakauma;
 
+import fi.okm.jod.yksilo.dto.Kursori;
+import fi.okm.jod.yksilo.dto.KursoriSivuDto;
 import fi.okm.jod.yksilo.dto.tyomahdollisuus.AmmattiryhmaBasicDto;
 import fi.okm.jod.yksilo.dto.tyomahdollisuus.AmmattiryhmaFullDto;
 import fi.okm.jod.yksilo.dto.tyomahdollisuus.KoulutusAlaDto;
@@ -31,6 +33,8 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -52,6 +56,18 @@ public class TyomahdollisuusService {
         .map(TyomahdollisuusService::map);
   }
 
+  /** Returns the page after the given position in id order (keyset pagination). */
+  public KursoriSivuDto<TyomahdollisuusDto> findAll(
+      @Nullable Kursori kursori, int koko, boolean laskeMaara) {
+    return KursoriSivuDto.of(
+        tyomahdollisuusRepository.findByIdGreaterThanOrderById(
+            kursori == null ? Kursori.MIN_ID : kursori.id(), Limit.of(koko + 1)),
+        koko,
+        t -> new Kursori(t.getId()),
+        TyomahdollisuusService::map,
+        laskeMaara ? tyomahdollisuusRepository::count : null);
+  }
+
   public List<TyomahdollisuusDto> findByIds(Set<UUID> uuidSet) {
     return tyomahdollisuusRepository.findAllById(uuidSet).stream()
         .map(TyomahdollisuusService::map)
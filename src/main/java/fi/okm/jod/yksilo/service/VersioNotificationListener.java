@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import fi.okm.jod.yksilo.service.ehdotus.MahdollisuudetService;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Properties;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Refreshes the catalog snapshots (osaamiset, ammatit, mahdollisuudet) when the import procedures
+ * change their versions.
+ *
+ * <p>The version tables have triggers that send a Postgres notification (on commit) with the name
+ * of the table as the payload. The listener holds one dedicated connection (outside the pool) that
+ * LISTENs to the channel and renews it periodically. After a reconnect all the snapshots are
+ * refreshed, since notifications may have been missed.
+ *
+ * <p>The services still refresh their snapshots after {@code CACHE_DURATION} (10 minutes), which
+ * bounds the staleness if a notification is lost or the listener is disabled
+ * ({@code jod.versio-notifications.enabled}).
+ */
+@Component
+@ConditionalOnProperty(
+    name = "jod.versio-notifications.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+@Slf4j
+class VersioNotificationListener implements SmartLifecycle {
+
+  static final String CHANNEL = "jod_versio";
+  private static final Duration POLL_TIMEOUT = Duration.ofSeconds(10);
+  private static final Duration RECONNECT_INTERVAL = Duration.ofMinutes(10);
+  private static final Duration RETRY_DELAY = Duration.ofSeconds(30);
+
+  private final DataSource dataSource;
+  private final Map<String, Runnable> refreshers;
+  private volatile boolean running;
+  private volatile Thread thread;
+
+  VersioNotificationListener(
+      DataSource dataSource,
+      OsaaminenService osaaminenService,
+      AmmattiService ammattiService,
+      MahdollisuudetService mahdollisuudetService,
+      MahdollisuudetSearchService mahdollisuudetSearchService) {
+    this.dataSource = dataSource;
+    this.refreshers =
+        Map.of(
+            "osaaminen_versio", osaaminenService::refresh,
+            "ammatti_versio", ammattiService::refresh,
+            "mahdollisuus_versio",
+            () -> {
+              mahdollisuudetService.refresh();
+              mahdollisuudetSearchService.refresh();
+            });
+  }
+
+  @Override
+  public void start() {
+    running = true;
+    thread = Thread.ofVirtual().name("versio-notification-listener").start(this::run);
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    if (thread != null) {
+      thread.interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  private void run() {
+    boolean reconnect = false;
+    while (running) {
+      try (var connection = connect()) {
+        try (var statement = connection.createStatement()) {
+          statement.execute("LISTEN " + CHANNEL);
+        }
+        if (reconnect) {
+          refreshers.values().forEach(Runnable::run);
+        }
+        reconnect = true;
+        listen(connection);
+      } catch (SQLException e) {
+        log.warn("Listening to catalog version notifications failed: {}", e.getMessage());
+        if (!sleep(RETRY_DELAY)) {
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Opens a connection with the settings of the pool (including a generated IAM auth password),
+   * so that the long-lived connection does not take a connection from the pool.
+   */
+  private Connection connect() throws SQLException {
+    if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+      return dataSource.getConnection();
+    }
+    final var pool = dataSource.unwrap(HikariDataSource.class);
+    final var info = new Properties();
+    info.putAll(pool.getDataSourceProperties());
+    if (pool.getUsername() != null) {
+      info.setProperty("user", pool.getUsername());
+    }
+    final var password = pool.getPassword();
+    if (password != null) {
+      info.setProperty("password", password);
+    }
+    return DriverManager.getConnection(pool.getJdbcUrl(), info);
+  }
+
+  private void listen(Connection connection) throws SQLException {
+    final var pgConnection = connection.unwrap(PGConnection.class);
+    final long deadline = System.nanoTime() + RECONNECT_INTERVAL.toNanos();
+    try {
+      while (running && System.nanoTime() < deadline) {
+        final var notifications = pgConnection.getNotifications((int) POLL_TIMEOUT.toMillis());
+        if (notifications == null) {
+          continue;
+        }
+        for (var notification : notifications) {
+          final var refresher = refreshers.get(notification.getParameter());
+          if (refresher != null) {
+            log.info("Catalog version changed ({}), refreshing", notification.getParameter());
+            refresher.run();
+          }
+        }
+      }
+    } finally {
+      try (var statement = connection.createStatement()) {
+        statement.execute("UNLISTEN " + CHANNEL);
+      }
+    }
+  }
+
+  private static boolean sleep(Duration duration) {
+    try {
+      Thread.sleep(duration);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
@@ -9,51 +9,114 @@
 
 package fi.okm.jod.yksilo.service.ehdotus;
 
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
 import fi.okm.jod.yksilo.controller.ehdotus.Suggestion;
 import fi.okm.jod.yksilo.domain.Kieli;
+import fi.okm.jod.yksilo.domain.Versioned;
 import fi.okm.jod.yksilo.dto.MahdollisuusDto;
 import fi.okm.jod.yksilo.dto.SuunnitelmaEhdotusDto;
 import fi.okm.jod.yksilo.repository.MahdollisuusRepository;
 import java.net.URI;
-import java.util.LinkedHashMap;
+import java.time.Duration;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.SequencedMap;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.UnaryOperator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 @Service
+@DependsOnDatabaseInitialization
 @Slf4j
-@RequiredArgsConstructor
 public class MahdollisuudetService {
 
+  private static final Object SINGLETON_KEY = new Object();
+  private static final Versioned<Map<Kieli, SequencedMap<UUID, MahdollisuusDto>>> EMPTY =
+      new Versioned<>(0, Map.of());
+
+  static final Duration CACHE_DURATION = Duration.ofMinutes(10);
+
   private final MahdollisuusRepository mahdollisuusRepository;
+  private final LoadingCache<Object, Versioned<Map<Kieli, SequencedMap<UUID, MahdollisuusDto>>>>
+      cache;
+  private final LoadingCache<Object, Versioned<PolkuIndex>> polkuIndex;
+
+  @Autowired
+  MahdollisuudetService(MahdollisuusRepository mahdollisuusRepository) {
+    this(mahdollisuusRepository, Ticker.systemTicker(), ForkJoinPool.commonPool());
+  }
+
+  // for testing
+  MahdollisuudetService(
+      MahdollisuusRepository mahdollisuusRepository, Ticker ticker, Executor executor) {
+    this.mahdollisuusRepository = mahdollisuusRepository;
+    this.cache =
+        Caffeine.newBuilder()
+            .ticker(ticker)
+            .initialCapacity(1)
+            .maximumSize(1)
+            .executor(executor)
+            .refreshAfterWrite(CACHE_DURATION)
+            .build(new Loader<>(mahdollisuusRepository::refreshAll));
+    this.polkuIndex =
+        Caffeine.newBuilder()
+            .ticker(ticker)
+            .initialCapacity(1)
+            .maximumSize(1)
+            .executor(executor)
+            .refreshAfterWrite(CACHE_DURATION)
+            .build(new Loader<>(this::refreshPolkuIndex));
+  }
 
-  @Cacheable("mahdollisuusIdsAndTypes")
+  /** Reloads the snapshot in the background if its version has changed. */
+  public void refresh() {
+    cache.refresh(SINGLETON_KEY);
+    polkuIndex.refresh(SINGLETON_KEY);
+  }
+
+  public long currentVersion() {
+    return getCatalog().version();
+  }
+
+  /**
+   * Returns the active opportunities of the given language in collated title order.
+   *
+   * <p>The catalog is reloaded only when the import procedures have changed its version. Both sort
+   * directions are views of the same snapshot.
+   */
   public SequencedMap<UUID, MahdollisuusDto> fetchTyoAndKoulutusMahdollisuusIdsWithTypes(
       Sort.Direction direction, Kieli lang) {
+    var mahdollisuudet =
+        getCatalog().payload().getOrDefault(lang, Collections.emptyNavigableMap());
+    return direction == Sort.Direction.DESC ? mahdollisuudet.reversed() : mahdollisuudet;
+  }
 
-    return mahdollisuusRepository.findMahdollisuusIds(lang, direction).stream()
-        .collect(
-            Collectors.toMap(
-                MahdollisuusDto::id, // Key mapper
-                it -> it, // Value mapper
-                (existing, replacement) -> existing, // Merge function in case of duplicates
-                LinkedHashMap::new // Supplier for the LinkedHashMap
-                ));
+  private Versioned<Map<Kieli, SequencedMap<UUID, MahdollisuusDto>>> getCatalog() {
+    var value = cache.get(SINGLETON_KEY);
+    return value == null ? EMPTY : value; // NOSONAR
   }
 
   /**
    * Retrieves a list of suggestions for education opportunities (koulutusmahdollisuudet) based on a
    * set of missing competencies (osaamiset).
    *
-   * <p>This method performs a query to find opportunities that match the given missing competencies
-   * and calculates a match ratio for each suggestion. Only active opportunities are considered.
+   * <p>The opportunities that match the given missing competencies are found from an in-memory
+   * index that is rebuilt when the import procedures change the catalog version, and a match ratio
+   * is calculated for each suggestion. Only active opportunities are considered.
    *
    * @param missingOsaamiset a set of URIs representing the missing competencies for which
    *     suggestions are to be retrieved
@@ -64,7 +127,34 @@ public class MahdollisuudetService {
     if (missingOsaamiset == null || missingOsaamiset.isEmpty()) {
       return List.of();
     }
-    return mahdollisuusRepository.getPolunVaiheSuggestions(
-        missingOsaamiset.stream().map(URI::toString).toList());
+    final var index = polkuIndex.get(SINGLETON_KEY);
+    return index == null // NOSONAR
+        ? List.of()
+        : index.payload().match(missingOsaamiset.stream().map(URI::toString).toList());
+  }
+
+  private Versioned<PolkuIndex> refreshPolkuIndex(@Nullable Versioned<PolkuIndex> previous) {
+    long version = mahdollisuusRepository.currentVersion();
+    if (previous != null && previous.version() == version) {
+      return previous;
+    }
+    var index = PolkuIndex.of(mahdollisuusRepository.findKoulutusmahdollisuusOsaamiset());
+    log.info("Built polku index of {} koulutusmahdollisuutta (version {})", index.size(), version);
+    return new Versioned<>(version, index);
+  }
+
+  @RequiredArgsConstructor
+  private static class Loader<V> implements CacheLoader<@NonNull Object, V> {
+    private final UnaryOperator<@Nullable V> refresh;
+
+    @Override
+    public V load(Object key) {
+      return refresh.apply(null);
+    }
+
+    @Override
+    public V reload(Object key, @NonNull V oldValue) {
+      return refresh.apply(oldValue);
+    }
   }
 }
@@ -75,8 +75,9 @@ public class OsaamisetEhdotusService {
   public List<Ehdotus> createEhdotus(LocalizedString kuvaus) {
 
     record Input(String text, int maxNumberOfSkills, int maxNumberOfOccupations, Kieli language) {}
-    record Skill(URI uri, String label, URI skillType, double score) {}
-    record Occupation(URI uri, String label, double score) {}
+    // URIs are kept as strings, they are resolved using the ESCO dictionaries
+    record Skill(String uri, String label, String skillType, double score) {}
+    record Occupation(String uri, String label, double score) {}
     record Result(List<Skill> skills, List<Occupation> occupations) {}
 
     log.info("Creating a suggestion for osaamiset");
@@ -98,33 +99,33 @@ public class OsaamisetEhdotusService {
         return List.of();
       }
 
-      var escoIdentifiers = osaamiset.getAll().keySet();
-      var escoOccupationIdentifiers = ammatit.getAll().keySet();
+      var escoIdentifiers = osaamiset.getIds();
+      var escoOccupationIdentifiers = ammatit.getIds();
 
       List<Ehdotus> skills =
           result.skills().stream()
-              .filter(
-                  s -> {
-                    var exists = escoIdentifiers.contains(s.uri());
-                    if (!exists && log.isDebugEnabled()) {
+              .<Ehdotus>mapMulti(
+                  (s, found) -> {
+                    var id = escoIdentifiers.idOf(s.uri());
+                    if (id >= 0) {
+                      found.accept(new Ehdotus(escoIdentifiers.uri(id), s.score()));
+                    } else if (log.isDebugEnabled()) {
                       log.debug("Unknown ESCO skill: {}", s.uri());
                     }
-                    return exists;
                   })
-              .map(s -> new Ehdotus(s.uri, s.score()))
               .toList();
 
       List<Ehdotus> occupations =
           result.occupations().stream()
-              .filter(
-                  o -> {
-                    var exists = escoOccupationIdentifiers.contains(o.uri());
-                    if (!exists && log.isDebugEnabled()) {
+              .<Ehdotus>mapMulti(
+                  (o, found) -> {
+                    var id = escoOccupationIdentifiers.idOf(o.uri());
+                    if (id >= 0) {
+                      found.accept(new Ehdotus(escoOccupationIdentifiers.uri(id), o.score()));
+                    } else if (log.isDebugEnabled()) {
                       log.debug("Unknown ESCO occupation: {}", o.uri());
                     }
-                    return exists;
                   })
-              .map(s -> new Ehdotus(s.uri, s.score()))
               .sorted((a, b) -> Double.compare(b.osuvuus(), a.osuvuus()))
               .toList();
 
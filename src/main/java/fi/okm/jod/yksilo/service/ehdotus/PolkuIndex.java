@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.service.ehdotus;
+
+import fi.okm.jod.yksilo.dto.SuunnitelmaEhdotusDto;
+import fi.okm.jod.yksilo.repository.projection.KoulutusmahdollisuusOsaaminen;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Inverted index from osaaminen (URI) to the active koulutusmahdollisuudet having that osaaminen.
+ *
+ * <p>The koulutusmahdollisuudet are numbered densely and each osaaminen maps to a posting list of
+ * those numbers, so matching a set of osaamiset only merges the posting lists into an int
+ * accumulator.
+ */
+final class PolkuIndex {
+
+  private final List<SuunnitelmaEhdotusDto> koulutukset;
+  private final Map<String, int[]> postings;
+  private final int[] osaamisia;
+
+  private PolkuIndex(
+      List<SuunnitelmaEhdotusDto> koulutukset, Map<String, int[]> postings, int[] osaamisia) {
+    this.koulutukset = koulutukset;
+    this.postings = postings;
+    this.osaamisia = osaamisia;
+  }
+
+  /**
+   * Builds the index.
+   *
+   * @param rows osaamiset of the koulutusmahdollisuudet, the rows of a koulutusmahdollisuus must be
+   *     consecutive
+   */
+  static PolkuIndex of(List<KoulutusmahdollisuusOsaaminen> rows) {
+    final var koulutukset = new ArrayList<SuunnitelmaEhdotusDto>();
+    final var counts = new ArrayList<Integer>();
+    final var lists = new HashMap<String, IntList>();
+
+    UUID current = null;
+    for (var row : rows) {
+      if (!row.getId().equals(current)) {
+        current = row.getId();
+        koulutukset.add(
+            new SuunnitelmaEhdotusDto(
+                row.getId(),
+                row.getTyyppi(),
+                row.getKestoMediaani(),
+                row.getKestoMinimi(),
+                row.getKestoMaksimi(),
+                0,
+                0));
+        counts.add(0);
+      }
+      final int doc = koulutukset.size() - 1;
+      counts.set(doc, counts.get(doc) + 1);
+      lists.computeIfAbsent(row.getOsaaminen(), k -> new IntList()).add(doc);
+    }
+
+    final var postings = HashMap.<String, int[]>newHashMap(lists.size());
+    lists.forEach((osaaminen, docs) -> postings.put(osaaminen, docs.toArray()));
+    return new PolkuIndex(
+        List.copyOf(koulutukset),
+        postings,
+        counts.stream().mapToInt(Integer::intValue).toArray());
+  }
+
+  int size() {
+    return koulutukset.size();
+  }
+
+  /**
+   * Returns the koulutusmahdollisuudet having at least one of the given osaamiset in descending
+   * match ratio (matching / all osaamiset of the koulutusmahdollisuus) order.
+   */
+  List<SuunnitelmaEhdotusDto> match(Collection<String> osaamiset) {
+    final var hits = new int[koulutukset.size()];
+    for (var osaaminen : osaamiset) {
+      final var docs = postings.get(osaaminen);
+      if (docs != null) {
+        for (int doc : docs) {
+          hits[doc]++;
+        }
+      }
+    }
+
+    return IntStream.range(0, hits.length)
+        .filter(doc -> hits[doc] > 0)
+        .boxed()
+        .sorted(
+            Comparator.<Integer>comparingDouble(doc -> ratio(hits, doc))
+                .reversed()
+                .thenComparingInt(Integer::intValue))
+        .map(
+            doc -> {
+              final var k = koulutukset.get(doc);
+              return new SuunnitelmaEhdotusDto(
+                  k.mahdollisuusId(),
+                  k.tyyppi(),
+                  k.kestoMediaani(),
+                  k.kestoMinimi(),
+                  k.kestoMaksimi(),
+                  ratio(hits, doc),
+                  hits[doc]);
+            })
+        .toList();
+  }
+
+  private double ratio(int[] hits, int doc) {
+    return (double) hits[doc] / osaamisia[doc];
+  }
+
+  private static final class IntList {
+    private int[] values = new int[4];
+    private int size;
+
+    void add(int value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+
+    int[] toArray() {
+      return Arrays.copyOf(values, size);
+    }
+  }
+}
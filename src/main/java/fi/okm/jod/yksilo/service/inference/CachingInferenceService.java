@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.service.inference;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ParameterizedTypeReference;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Caches the results of a deterministic inference endpoint.
+ *
+ * <p>The cache key is a hash of the endpoint and the JSON serialized payload, so the payload must
+ * serialize deterministically (e.g. use sorted sets). Concurrent identical requests are coalesced:
+ * the first caller invokes the delegate on its own thread and the others wait for the result, at
+ * most maxWait. Failures are not cached. The cached responses are shared and must not be modified.
+ */
+@Slf4j
+public class CachingInferenceService<T, R> implements InferenceService<T, R> {
+
+  private final InferenceService<T, R> delegate;
+  private final ObjectMapper objectMapper;
+  private final AsyncCache<HashCode, R> cache;
+  private final Duration maxWait;
+
+  public CachingInferenceService(
+      InferenceService<T, R> delegate,
+      ObjectMapper objectMapper,
+      Duration timeToLive,
+      long maximumSize,
+      Duration maxWait) {
+    this.delegate = delegate;
+    this.objectMapper = objectMapper;
+    this.maxWait = maxWait;
+    this.cache =
+        Caffeine.newBuilder().expireAfterWrite(timeToLive).maximumSize(maximumSize).buildAsync();
+  }
+
+  @Override
+  public R infer(String endpoint, T payload, ParameterizedTypeReference<R> responseType) {
+    final var key = keyOf(endpoint, payload);
+    final var result = new CompletableFuture<R>();
+    final var inFlight = cache.asMap().putIfAbsent(key, result);
+
+    if (inFlight != null) {
+      log.debug("Using cached or in-flight inference result for {}", endpoint);
+      return InferenceInvoker.await(inFlight, maxWait);
+    }
+
+    try {
+      var response = delegate.infer(endpoint, payload, responseType);
+      result.complete(response);
+      return response;
+    } catch (RuntimeException | Error e) {
+      // failed results are removed from the cache automatically
+      result.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  @Override
+  public CompletableFuture<R> inferAsync(
+      String endpoint, T payload, ParameterizedTypeReference<R> responseType) {
+    // failed futures are removed from the cache automatically
+    return cache.get(
+        keyOf(endpoint, payload),
+        (key, executor) -> delegate.inferAsync(endpoint, payload, responseType));
+  }
+
+  private HashCode keyOf(String endpoint, T payload) {
+    return Hashing.sha256()
+        .newHasher()
+        .putString(endpoint, StandardCharsets.UTF_8)
+        .putByte((byte) 0)
+        .putBytes(objectMapper.writeValueAsBytes(payload))
+        .hash();
+  }
+}
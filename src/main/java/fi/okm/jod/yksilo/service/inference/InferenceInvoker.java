@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.service.inference;
+
+import fi.okm.jod.yksilo.service.ServiceException;
+import fi.okm.jod.yksilo.service.ServiceOverloadedException;
+import fi.okm.jod.yksilo.service.ServiceUnavailableException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Invokes asynchronous inference calls with a per-endpoint concurrency limit, jittered exponential
+ * backoff when the endpoint is throttling or unavailable, and optional hedging.
+ */
+@Slf4j
+class InferenceInvoker {
+
+  static final int MIN_LATENCY_SAMPLES = 16;
+
+  private final InferenceProperties properties;
+  private final Executor executor;
+  private final ConcurrentMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+  InferenceInvoker(InferenceProperties properties) {
+    this(properties, task -> Thread.ofVirtual().start(task));
+  }
+
+  // for testing
+  InferenceInvoker(InferenceProperties properties, Executor executor) {
+    this.properties = properties;
+    this.executor = executor;
+  }
+
+  <R> CompletableFuture<R> invoke(String endpointName, Supplier<CompletableFuture<R>> call) {
+    return invoke(endpointName, properties.timeout(), call);
+  }
+
+  /**
+   * Invokes the call. The returned future fails as unavailable if it has not completed before the
+   * deadline; the retries and the hedged request stop then, and a pending call is cancelled.
+   */
+  <R> CompletableFuture<R> invoke(
+      String endpointName, Duration timeout, Supplier<CompletableFuture<R>> call) {
+    final var endpoint =
+        endpoints.computeIfAbsent(
+            endpointName, name -> new Endpoint(properties.maxConcurrentRequests()));
+    final var result = new CompletableFuture<R>();
+
+    CompletableFuture.delayedExecutor(timeout.toNanos(), TimeUnit.NANOSECONDS)
+        .execute(
+            () ->
+                result.completeExceptionally(
+                    new ServiceUnavailableException("Inference timed out", null)));
+    executor.execute(() -> attempt(endpoint, call, result, 1));
+
+    if (properties.hedge().endpoints().contains(endpointName)) {
+      final var delay = endpoint.percentile(properties.hedge().percentile());
+      if (delay >= 0) {
+        final var hedgeDelay = Math.max(delay, properties.hedge().minDelay().toNanos());
+        CompletableFuture.delayedExecutor(hedgeDelay, TimeUnit.NANOSECONDS, executor)
+            .execute(() -> hedge(endpointName, endpoint, call, result));
+      }
+    }
+    return result;
+  }
+
+  private <R> void attempt(
+      Endpoint endpoint, Supplier<CompletableFuture<R>> call, CompletableFuture<R> result, int n) {
+    if (result.isDone()) {
+      return;
+    }
+    try {
+      if (!endpoint.permits.tryAcquire(properties.maxWait().toNanos(), TimeUnit.NANOSECONDS)) {
+        result.completeExceptionally(
+            new ServiceOverloadedException("Too many concurrent inference requests", null));
+        return;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      result.completeExceptionally(new ServiceException("Inference interrupted", e));
+      return;
+    }
+
+    call(endpoint, call, result)
+        .whenComplete(
+            (response, failure) -> {
+              final var error = unwrap(failure);
+              if (error == null) {
+                result.complete(response);
+              } else if (isRetryable(error) && n < properties.maxAttempts()) {
+                final var delay = backoff(n);
+                log.debug("Inference failed ({}), retrying in {} ms", error.getMessage(), delay);
+                CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, executor)
+                    .execute(() -> attempt(endpoint, call, result, n + 1));
+              } else {
+                result.completeExceptionally(error);
+              }
+            });
+  }
+
+  private <R> void hedge(
+      String endpointName,
+      Endpoint endpoint,
+      Supplier<CompletableFuture<R>> call,
+      CompletableFuture<R> result) {
+    // a hedged request never waits for a permit, it is only sent if there is spare capacity
+    if (result.isDone() || !endpoint.permits.tryAcquire()) {
+      return;
+    }
+    log.debug("Sending a hedged inference request to {}", endpointName);
+    call(endpoint, call, result)
+        .whenComplete(
+            (response, error) -> {
+              if (error == null) {
+                result.complete(response);
+              } else {
+                log.debug("Hedged inference request failed: {}", error.getMessage());
+              }
+            });
+  }
+
+  /**
+   * Starts the call. The caller must have acquired a permit, it is released on completion. The
+   * call is cancelled if the result completes first (it is cancelled, the deadline has passed, or
+   * the other one of the hedged calls has won).
+   */
+  private static <R> CompletableFuture<R> call(
+      Endpoint endpoint, Supplier<CompletableFuture<R>> call, CompletableFuture<R> result) {
+    final long start = System.nanoTime();
+    CompletableFuture<R> future;
+    try {
+      future = call.get();
+    } catch (RuntimeException e) {
+      future = CompletableFuture.failedFuture(e);
+    }
+    final var started = future;
+    result.whenComplete(
+        (ignored, error) -> {
+          if (!started.isDone()) {
+            started.cancel(true);
+          }
+        });
+    return future.whenComplete(
+        (response, error) -> {
+          endpoint.permits.release();
+          if (error == null) {
+            endpoint.record(System.nanoTime() - start);
+          }
+        });
+  }
+
+  private long backoff(int attempt) {
+    final long max = properties.retryDelay().toMillis() << (attempt - 1);
+    return max / 2 + ThreadLocalRandom.current().nextLong(max / 2 + 1);
+  }
+
+  private static boolean isRetryable(Throwable error) {
+    return error instanceof ServiceOverloadedException
+        || error instanceof ServiceUnavailableException;
+  }
+
+  private static Throwable unwrap(Throwable error) {
+    return error instanceof CompletionException e && e.getCause() != null ? e.getCause() : error;
+  }
+
+  /**
+   * Waits for the result at most the given time.
+   *
+   * @throws ServiceUnavailableException if the result is not available in time
+   */
+  static <R> R await(CompletableFuture<R> future, Duration timeout) {
+    try {
+      return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new ServiceException("Inference failed", e.getCause());
+    } catch (TimeoutException e) {
+      throw new ServiceUnavailableException("Inference timed out", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ServiceException("Inference interrupted", e);
+    }
+  }
+
+  private static final class Endpoint {
+    private static final int WINDOW = 128;
+
+    final Semaphore permits;
+    private final long[] latencies = new long[WINDOW];
+    private int next;
+    private int size;
+
+    Endpoint(int maxConcurrentRequests) {
+      this.permits = new Semaphore(maxConcurrentRequests);
+    }
+
+    synchronized void record(long nanos) {
+      latencies[next] = nanos;
+      next = (next + 1) % WINDOW;
+      size = Math.min(size + 1, WINDOW);
+    }
+
+    /** Latency percentile in nanoseconds, or -1 if there are not enough samples yet. */
+    synchronized long percentile(double percentile) {
+      if (size < MIN_LATENCY_SAMPLES) {
+        return -1;
+      }
+      final var sorted = Arrays.copyOf(latencies, size);
+      Arrays.sort(sorted);
+      return sorted[Math.min(size - 1, (int) Math.ceil(percentile * size) - 1)];
+    }
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.service.inference;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Invocation settings for the inference endpoints.
+ *
+ * @param maxConcurrentRequests Maximum number of concurrent requests per endpoint
+ * @param maxWait How long a request waits for a free slot before failing as overloaded
+ * @param maxAttempts Maximum number of attempts when the endpoint is throttling or unavailable
+ * @param retryDelay Base delay of the (exponential, jittered) retry backoff
+ * @param timeout Deadline of a request, including the retries
+ * @param streamTimeout Deadline of a streamed request
+ * @param hedge Hedged request settings
+ */
+@ConfigurationProperties("jod.inference")
+public record InferenceProperties(
+    @DefaultValue("16") int maxConcurrentRequests,
+    @DefaultValue("5s") Duration maxWait,
+    @DefaultValue("3") int maxAttempts,
+    @DefaultValue("200ms") Duration retryDelay,
+    @DefaultValue("30s") Duration timeout,
+    @DefaultValue("2m") Duration streamTimeout,
+    @DefaultValue Hedge hedge) {
+
+  public InferenceProperties {
+    if (maxConcurrentRequests <= 0 || maxAttempts <= 0) {
+      throw new IllegalArgumentException("maxConcurrentRequests and maxAttempts must be positive");
+    }
+  }
+
+  /**
+   * A hedged (duplicate) request is sent if the first one has not completed within the given
+   * latency percentile of the endpoint. Only use for idempotent endpoints.
+   *
+   * @param endpoints Endpoints where hedging is allowed
+   * @param percentile Latency percentile (0..1) after which the hedged request is sent
+   * @param minDelay Minimum delay before sending the hedged request
+   */
+  public record Hedge(
+      @DefaultValue Set<String> endpoints,
+      @DefaultValue("0.95") double percentile,
+      @DefaultValue("200ms") Duration minDelay) {
+
+    public Hedge {
+      // the endpoints are configured using placeholders, the ones not set are blank
+      endpoints =
+          endpoints.stream().filter(e -> !e.isBlank()).collect(Collectors.toUnmodifiableSet());
+    }
+  }
+}
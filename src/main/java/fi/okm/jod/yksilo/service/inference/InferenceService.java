@@ -9,9 +9,31 @@
 
 package fi.okm.jod.yksilo.service.inference;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import org.springframework.core.ParameterizedTypeReference;
 
 public interface InferenceService<T, R> {
 
   R infer(String endpoint, T payload, ParameterizedTypeReference<R> responseType);
+
+  /**
+   * Non-blocking variant of {@link #infer}. The default implementation runs {@link #infer} on a
+   * virtual thread.
+   */
+  default CompletableFuture<R> inferAsync(
+      String endpoint, T payload, ParameterizedTypeReference<R> responseType) {
+    return CompletableFuture.supplyAsync(
+        () -> infer(endpoint, payload, responseType), task -> Thread.ofVirtual().start(task));
+  }
+
+  /**
+   * Streaming variant of {@link #inferAsync}. The endpoint responds with parts of the response
+   * (newline delimited JSON values of the response type), which are passed to the consumer in order
+   * as they arrive. The default implementation passes the whole response as a single part.
+   */
+  default CompletableFuture<Void> inferStream(
+      String endpoint, T payload, ParameterizedTypeReference<R> responseType, Consumer<R> parts) {
+    return inferAsync(endpoint, payload, responseType).thenAccept(parts);
+  }
 }
@@ -13,14 +13,21 @@ import fi.okm.jod.yksilo.service.ServiceException;
 import fi.okm.jod.yksilo.service.ServiceOverloadedException;
 import fi.okm.jod.yksilo.service.ServiceValidationException;
 import io.micrometer.tracing.Tracer;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Profile;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import software.amazon.awssdk.core.SdkBytes;
-import software.amazon.awssdk.services.sagemakerruntime.SageMakerRuntimeClient;
+import software.amazon.awssdk.services.sagemakerruntime.SageMakerRuntimeAsyncClient;
 import software.amazon.awssdk.services.sagemakerruntime.model.InvokeEndpointRequest;
+import software.amazon.awssdk.services.sagemakerruntime.model.InvokeEndpointResponse;
+import software.amazon.awssdk.services.sagemakerruntime.model.InvokeEndpointWithResponseStreamRequest;
+import software.amazon.awssdk.services.sagemakerruntime.model.InvokeEndpointWithResponseStreamResponseHandler;
 import software.amazon.awssdk.services.sagemakerruntime.model.ModelErrorException;
 import software.amazon.awssdk.services.sagemakerruntime.model.ModelNotReadyException;
 import software.amazon.awssdk.services.sagemakerruntime.model.SageMakerRuntimeException;
@@ -33,48 +40,195 @@ import tools.jackson.databind.ObjectMapper;
 public class SageMakerInferenceService<T, R> implements InferenceService<T, R> {
 
   private final ObjectMapper objectMapper;
-  private final SageMakerRuntimeClient sageMakerClient;
+  private final SageMakerRuntimeAsyncClient sageMakerClient;
   private final Tracer tracer;
+  private final InferenceProperties properties;
+  private final InferenceInvoker invoker;
 
   public SageMakerInferenceService(
-      ObjectMapper objectMapper, SageMakerRuntimeClient sageMakerClient, Tracer tracer) {
+      ObjectMapper objectMapper,
+      SageMakerRuntimeAsyncClient sageMakerClient,
+      Tracer tracer,
+      InferenceProperties properties) {
 
     this.objectMapper = objectMapper;
     this.sageMakerClient = sageMakerClient;
     this.tracer = tracer;
+    this.properties = properties;
+    this.invoker = new InferenceInvoker(properties);
   }
 
   @Override
   public R infer(String endpoint, T payload, ParameterizedTypeReference<R> responseType) {
+    return InferenceInvoker.await(
+        inferAsync(endpoint, payload, responseType), properties.timeout());
+  }
+
+  @Override
+  public CompletableFuture<R> inferAsync(
+      String endpoint, T payload, ParameterizedTypeReference<R> responseType) {
+    final InvokeEndpointRequest request;
     try {
-      var request =
+      request =
           InvokeEndpointRequest.builder()
               .endpointName(endpoint)
               .customAttributes(tracer.currentSpan().context().traceId())
               .contentType(MediaType.APPLICATION_JSON_VALUE)
               .body(SdkBytes.fromByteArray(objectMapper.writeValueAsBytes(payload)))
               .build();
+    } catch (tools.jackson.core.JacksonException e) {
+      return CompletableFuture.failedFuture(new ServiceException("Invoking SageMaker failed", e));
+    }
+
+    return invoker.invoke(
+        endpoint,
+        () ->
+            sageMakerClient
+                .invokeEndpoint(request)
+                .handle(
+                    (response, error) -> {
+                      if (error != null) {
+                        throw translate(
+                            error instanceof CompletionException e ? e.getCause() : error);
+                      }
+                      return read(response, responseType);
+                    }));
+  }
+
+  @Override
+  public CompletableFuture<Void> inferStream(
+      String endpoint, T payload, ParameterizedTypeReference<R> responseType, Consumer<R> parts) {
+    final InvokeEndpointWithResponseStreamRequest request;
+    try {
+      request =
+          InvokeEndpointWithResponseStreamRequest.builder()
+              .endpointName(endpoint)
+              .customAttributes(tracer.currentSpan().context().traceId())
+              .contentType(MediaType.APPLICATION_JSON_VALUE)
+              .body(SdkBytes.fromByteArray(objectMapper.writeValueAsBytes(payload)))
+              .build();
+    } catch (tools.jackson.core.JacksonException e) {
+      return CompletableFuture.failedFuture(new ServiceException("Invoking SageMaker failed", e));
+    }
+    final var javaType = objectMapper.getTypeFactory().constructType(responseType.getType());
+
+    return invoker.invoke(
+        endpoint,
+        properties.streamTimeout(),
+        () -> {
+          final var lines =
+              new JsonLines(
+                  line -> {
+                    try {
+                      parts.accept(objectMapper.readValue(line, javaType));
+                    } catch (tools.jackson.core.JacksonException e) {
+                      throw new ServiceException("Invoking SageMaker failed", e);
+                    }
+                  });
+          final var handler =
+              InvokeEndpointWithResponseStreamResponseHandler.builder()
+                  .subscriber(
+                      InvokeEndpointWithResponseStreamResponseHandler.Visitor.builder()
+                          .onPayloadPart(part -> lines.accept(part.bytes().asByteArray()))
+                          .build())
+                  .build();
+          final var response = sageMakerClient.invokeEndpointWithResponseStream(request, handler);
+          final var result =
+              response.handle(
+                  (ignored, error) -> {
+                    if (error == null) {
+                      lines.finish();
+                      return null;
+                    }
+                    final var cause = error instanceof CompletionException e ? e.getCause() : error;
+                    if (lines.count() > 0) {
+                      // a partially consumed stream can not be retried
+                      throw new ServiceException("Inference stream failed", cause);
+                    }
+                    throw translate(cause);
+                  });
+          // a cancelled result (the client has disconnected or the deadline has passed) aborts
+          // the request
+          result.whenComplete(
+              (ignored, error) -> {
+                if (result.isCancelled()) {
+                  response.cancel(true);
+                }
+              });
+          return result;
+        });
+  }
 
-      var response = sageMakerClient.invokeEndpoint(request);
+  private R read(InvokeEndpointResponse response, ParameterizedTypeReference<R> responseType) {
+    try {
       var javaType = objectMapper.getTypeFactory().constructType(responseType.getType());
       return objectMapper.readValue(response.body().asInputStream(), javaType);
-
     } catch (tools.jackson.core.JacksonException e) {
       throw new ServiceException("Invoking SageMaker failed", e);
-    } catch (ModelNotReadyException | ServiceUnavailableException e) {
-      log.warn("SageMaker service unavailable: {}", e.getMessage());
-      throw new fi.okm.jod.yksilo.service.ServiceUnavailableException(
-          "SageMaker model not ready or service unavailable", e);
-    } catch (ModelErrorException e) {
-      throw new ServiceValidationException(e.originalMessage());
-    } catch (SageMakerRuntimeException e) {
-      if ("ThrottlingException".equals(e.awsErrorDetails().errorCode())) {
-        throw new ServiceOverloadedException("SageMaker is throttling requests", e);
+    }
+  }
+
+  private static RuntimeException translate(Throwable error) {
+    return switch (error) {
+      case ModelNotReadyException e -> unavailable(e);
+      case ServiceUnavailableException e -> unavailable(e);
+      case ModelErrorException e -> new ServiceValidationException(e.originalMessage());
+      case SageMakerRuntimeException e
+          when "ThrottlingException".equals(e.awsErrorDetails().errorCode()) ->
+          new ServiceOverloadedException("SageMaker is throttling requests", e);
+      case SageMakerRuntimeException e
+          when "ValidationError".equals(e.awsErrorDetails().errorCode()) ->
+          new ServiceValidationException("Invalid request", e);
+      default -> new ServiceException("Inference failed", error);
+    };
+  }
+
+  private static RuntimeException unavailable(SageMakerRuntimeException e) {
+    log.warn("SageMaker service unavailable: {}", e.getMessage());
+    return new fi.okm.jod.yksilo.service.ServiceUnavailableException(
+        "SageMaker model not ready or service unavailable", e);
+  }
+
+  /** Splits the payload parts of a response stream to (non-blank) lines. */
+  private static final class JsonLines {
+    private final Consumer<byte[]> consumer;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private int count;
+
+    JsonLines(Consumer<byte[]> consumer) {
+      this.consumer = consumer;
+    }
+
+    void accept(byte[] bytes) {
+      int start = 0;
+      for (int i = 0; i < bytes.length; i++) {
+        if (bytes[i] == '\n') {
+          buffer.write(bytes, start, i - start);
+          emit();
+          start = i + 1;
+        }
       }
-      if ("ValidationError".equals(e.awsErrorDetails().errorCode())) {
-        throw new ServiceValidationException("Invalid request", e);
+      buffer.write(bytes, start, bytes.length - start);
+    }
+
+    void finish() {
+      emit();
+    }
+
+    int count() {
+      return count;
+    }
+
+    private void emit() {
+      final var line = buffer.toByteArray();
+      buffer.reset();
+      for (byte b : line) {
+        if (!Character.isWhitespace(b)) {
+          count++;
+          consumer.accept(line);
+          return;
+        }
       }
-      throw new ServiceException("Inference failed", e);
     }
   }
 }
@@ -9,20 +9,15 @@
 
 package fi.okm.jod.yksilo.service.profiili;
 
-import fi.okm.jod.yksilo.domain.OsaamisenLahdeTyyppi;
-import fi.okm.jod.yksilo.dto.profiili.export.KiinnostuksetExportDto;
 import fi.okm.jod.yksilo.dto.profiili.export.KoulutusExportDto;
 import fi.okm.jod.yksilo.dto.profiili.export.KoulutusKokonaisuusExportDto;
-import fi.okm.jod.yksilo.dto.profiili.export.MuuOsaaminenExportDto;
 import fi.okm.jod.yksilo.dto.profiili.export.PatevyysExportDto;
 import fi.okm.jod.yksilo.dto.profiili.export.PolunSuunnitelmaExportDto;
 import fi.okm.jod.yksilo.dto.profiili.export.TavoiteExportDto;
 import fi.okm.jod.yksilo.dto.profiili.export.ToimenkuvaExportDto;
 import fi.okm.jod.yksilo.dto.profiili.export.ToimintoExportDto;
 import fi.okm.jod.yksilo.dto.profiili.export.TyopaikkaExportDto;
-import fi.okm.jod.yksilo.dto.profiili.export.YksiloExportDto;
 import fi.okm.jod.yksilo.dto.profiili.export.YksilonSuosikkiExportDto;
-import fi.okm.jod.yksilo.entity.Ammatti;
 import fi.okm.jod.yksilo.entity.Koulutus;
 import fi.okm.jod.yksilo.entity.KoulutusKokonaisuus;
 import fi.okm.jod.yksilo.entity.Osaaminen;
@@ -32,7 +27,6 @@ import fi.okm.jod.yksilo.entity.Tavoite;
 import fi.okm.jod.yksilo.entity.Toimenkuva;
 import fi.okm.jod.yksilo.entity.Toiminto;
 import fi.okm.jod.yksilo.entity.Tyopaikka;
-import fi.okm.jod.yksilo.entity.Yksilo;
 import fi.okm.jod.yksilo.entity.YksilonSuosikki;
 import fi.okm.jod.yksilo.entity.koulutusmahdollisuus.Koulutusmahdollisuus;
 import fi.okm.jod.yksilo.entity.tyomahdollisuus.Tyomahdollisuus;
@@ -43,51 +37,6 @@ public final class ExportMapper {
 
   private ExportMapper() {}
 
-  public static YksiloExportDto mapYksilo(Yksilo entity, String email) {
-    return entity == null
-        ? null
-        : new YksiloExportDto(
-            entity.getId(),
-            entity.getTervetuloapolku(),
-            entity.getLupaLuovuttaaTiedotUlkopuoliselle(),
-            entity.getLupaKayttaaTekoalynKoulutukseen(),
-            entity.getSyntymavuosi(),
-            entity.getSukupuoli(),
-            entity.getKotikunta(),
-            entity.getAidinkieli(),
-            entity.getValittuKieli(),
-            email,
-            entity.getTyopaikat().stream()
-                .map(ExportMapper::mapTyopaikka)
-                .collect(Collectors.toSet()),
-            entity.getKoulutusKokonaisuudet().stream()
-                .map(ExportMapper::mapKoulutusKokonaisuus)
-                .collect(Collectors.toSet()),
-            entity.getToiminnot().stream()
-                .map(ExportMapper::mapToiminto)
-                .collect(Collectors.toSet()),
-            new MuuOsaaminenExportDto(
-                entity.getMuuOsaaminenVapaateksti(),
-                entity.getOsaamiset().stream()
-                    .filter(yo -> OsaamisenLahdeTyyppi.MUU_OSAAMINEN.equals(yo.getLahdeTyyppi()))
-                    .map(yo -> yo.getOsaaminen().getUri())
-                    .collect(Collectors.toSet())),
-            new KiinnostuksetExportDto(
-                entity.getOsaamisKiinnostuksetVapaateksti(),
-                entity.getOsaamisKiinnostukset().stream()
-                    .map(Osaaminen::getUri)
-                    .collect(Collectors.toSet()),
-                entity.getAmmattiKiinnostukset().stream()
-                    .map(Ammatti::getUri)
-                    .collect(Collectors.toSet())),
-            entity.getSuosikit().stream()
-                .map(ExportMapper::mapYksilonSuosikki)
-                .collect(Collectors.toSet()),
-            entity.getTavoitteet().stream()
-                .map(ExportMapper::mapTavoite)
-                .collect(Collectors.toSet()));
-  }
-
   public static TyopaikkaExportDto mapTyopaikka(Tyopaikka entity) {
     return entity == null
         ? null
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.service.profiili;
+
+import fi.okm.jod.yksilo.domain.OsaamisenLahdeTyyppi;
+import fi.okm.jod.yksilo.dto.profiili.export.KiinnostuksetExportDto;
+import fi.okm.jod.yksilo.dto.profiili.export.MuuOsaaminenExportDto;
+import fi.okm.jod.yksilo.dto.profiili.export.YksiloExportDto;
+import fi.okm.jod.yksilo.entity.Ammatti;
+import fi.okm.jod.yksilo.entity.Osaaminen;
+import fi.okm.jod.yksilo.entity.Yksilo;
+import fi.okm.jod.yksilo.repository.KoulutusKokonaisuusRepository;
+import fi.okm.jod.yksilo.repository.TavoiteRepository;
+import fi.okm.jod.yksilo.repository.ToimintoRepository;
+import fi.okm.jod.yksilo.repository.TyopaikkaRepository;
+import fi.okm.jod.yksilo.repository.YksilonOsaaminenRepository;
+import fi.okm.jod.yksilo.repository.YksilonSuosikkiRepository;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JsonGenerator;
+
+/**
+ * Writes the export of a profile ({@link YksiloExportDto}) incrementally. The items of the profile
+ * are read by id in chunks and the persistence context is cleared after each chunk, so the memory
+ * use depends on the chunk size instead of the size of the profile.
+ */
+@Component
+@RequiredArgsConstructor
+class ExportWriter {
+
+  static final int CHUNK_SIZE = 50;
+
+  private final EntityManager entityManager;
+  private final TyopaikkaRepository tyopaikat;
+  private final KoulutusKokonaisuusRepository koulutusKokonaisuudet;
+  private final ToimintoRepository toiminnot;
+  private final YksilonOsaaminenRepository osaamiset;
+  private final YksilonSuosikkiRepository suosikit;
+  private final TavoiteRepository tavoitteet;
+
+  /** Writes the profile as a JSON object. Must be called within a (read-only) transaction. */
+  void write(Yksilo yksilo, @Nullable String email, JsonGenerator generator) {
+    final UUID id = yksilo.getId();
+    // the small collections are read before the entity is detached by the chunks
+    final var muuOsaaminen =
+        new MuuOsaaminenExportDto(
+            yksilo.getMuuOsaaminenVapaateksti(),
+            osaamiset
+                .findAllByYksiloIdAndLahde(id, OsaamisenLahdeTyyppi.MUU_OSAAMINEN, Sort.unsorted())
+                .stream()
+                .map(yo -> yo.getOsaaminen().getUri())
+                .collect(Collectors.toSet()));
+    final var kiinnostukset =
+        new KiinnostuksetExportDto(
+            yksilo.getOsaamisKiinnostuksetVapaateksti(),
+            yksilo.getOsaamisKiinnostukset().stream()
+                .map(Osaaminen::getUri)
+                .collect(Collectors.toSet()),
+            yksilo.getAmmattiKiinnostukset().stream()
+                .map(Ammatti::getUri)
+                .collect(Collectors.toSet()));
+
+    generator.writeStartObject();
+    writeProperty(generator, "id", id);
+    writeProperty(generator, "tervetuloapolku", yksilo.getTervetuloapolku());
+    writeProperty(
+        generator,
+        "lupaLuovuttaaTiedotUlkopuoliselle",
+        yksilo.getLupaLuovuttaaTiedotUlkopuoliselle());
+    writeProperty(
+        generator, "lupaKayttaaTekoalynKoulutukseen", yksilo.getLupaKayttaaTekoalynKoulutukseen());
+    writeProperty(generator, "syntymavuosi", yksilo.getSyntymavuosi());
+    writeProperty(generator, "sukupuoli", yksilo.getSukupuoli());
+    writeProperty(generator, "kotikunta", yksilo.getKotikunta());
+    writeProperty(generator, "aidinkieli", yksilo.getAidinkieli());
+    writeProperty(generator, "valittuKieli", yksilo.getValittuKieli());
+    writeProperty(generator, "email", email);
+
+    writeArray(
+        generator,
+        "tyopaikat",
+        tyopaikat.findIdsByYksiloId(id),
+        tyopaikat::findAllById,
+        ExportMapper::mapTyopaikka);
+    writeArray(
+        generator,
+        "koulutusKokonaisuudet",
+        koulutusKokonaisuudet.findIdsByYksiloId(id),
+        koulutusKokonaisuudet::findAllById,
+        ExportMapper::mapKoulutusKokonaisuus);
+    writeArray(
+        generator,
+        "toiminnot",
+        toiminnot.findIdsByYksiloId(id),
+        toiminnot::findAllById,
+        ExportMapper::mapToiminto);
+    writeProperty(generator, "muuOsaaminen", muuOsaaminen);
+    writeProperty(generator, "kiinnostukset", kiinnostukset);
+    writeArray(
+        generator,
+        "suosikit",
+        suosikit.findIdsByYksiloId(id),
+        suosikit::findAllById,
+        ExportMapper::mapYksilonSuosikki);
+    writeArray(
+        generator,
+        "tavoitteet",
+        tavoitteet.findIdsByYksiloId(id),
+        tavoitteet::findAllById,
+        ExportMapper::mapTavoite);
+    generator.writeEndObject();
+    generator.flush();
+  }
+
+  private <E> void writeArray(
+      JsonGenerator generator,
+      String name,
+      List<UUID> ids,
+      Function<List<UUID>, List<E>> loader,
+      Function<E, ?> mapper) {
+    generator.writeName(name);
+    generator.writeStartArray();
+    for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+      for (var entity : loader.apply(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())))) {
+        generator.writePOJO(mapper.apply(entity));
+      }
+      entityManager.clear();
+    }
+    generator.writeEndArray();
+  }
+
+  // null values are omitted like in the serialization of the DTOs (NON_ABSENT)
+  private static void writeProperty(JsonGenerator generator, String name, @Nullable Object value) {
+    if (value != null) {
+      generator.writePOJOProperty(name, value);
+    }
+  }
+}
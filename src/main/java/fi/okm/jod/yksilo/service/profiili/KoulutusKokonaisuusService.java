@@ -10,6 +10,7 @@
 package fi.okm.jod.yksilo.service.profiili;
 
 import fi.okm.jod.yksilo.domain.JodUser;
+import fi.okm.jod.yksilo.domain.OsaamisenLahde;
 import fi.okm.jod.yksilo.dto.profiili.KoulutusKokonaisuusDto;
 import fi.okm.jod.yksilo.dto.profiili.KoulutusKokonaisuusUpdateDto;
 import fi.okm.jod.yksilo.entity.Koulutus;
@@ -22,13 +23,14 @@ import fi.okm.jod.yksilo.service.ServiceException;
 import fi.okm.jod.yksilo.service.ServiceValidationException;
 import fi.okm.jod.yksilo.service.profiili.ProfileLimitException.ProfileItem;
 import fi.okm.jod.yksilo.validation.Limits;
+import java.net.URI;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.SequencedSet;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
@@ -42,6 +44,7 @@ public class KoulutusKokonaisuusService {
   private final YksiloRepository yksilot;
   private final KoulutusKokonaisuusRepository kokonaisuudet;
   private final KoulutusService koulutusService;
+  private final YksilonOsaaminenService osaamiset;
   private final ApplicationEventPublisher applicationEventPublisher;
 
   @Transactional(readOnly = true)
@@ -52,7 +55,8 @@ public class KoulutusKokonaisuusService {
   }
 
   public List<UUID> addManyForImport(JodUser user, Set<KoulutusKokonaisuusDto> dtos) {
-    var koulutukset = add(user, dtos, true).flatMap(dto -> dto.getKoulutukset().stream()).toList();
+    var koulutukset =
+        add(user, dtos, true).stream().flatMap(dto -> dto.getKoulutukset().stream()).toList();
     applicationEventPublisher.publishEvent(new OsaamisetTunnistusEvent(user, koulutukset));
     return koulutukset.stream().map(Koulutus::getId).toList();
   }
@@ -62,12 +66,12 @@ public class KoulutusKokonaisuusService {
   }
 
   public SequencedSet<UUID> add(JodUser user, Set<KoulutusKokonaisuusDto> dtos) {
-    return add(user, dtos, false)
+    return add(user, dtos, false).stream()
         .map(KoulutusKokonaisuus::getId)
         .collect(Collectors.toCollection(LinkedHashSet::new));
   }
 
-  private Stream<KoulutusKokonaisuus> add(
+  private List<KoulutusKokonaisuus> add(
       JodUser user, Set<KoulutusKokonaisuusDto> dtos, boolean tunnistaOsaamiset) {
     var yksilo = yksilot.getReferenceById(user.getId());
     if (kokonaisuudet.countByYksilo(yksilo) + dtos.size() > Limits.KOULUTUSKOKONAISUUS) {
@@ -83,17 +87,24 @@ public class KoulutusKokonaisuusService {
       throw new ProfileLimitException(ProfileItem.KOULUTUS);
     }
 
-    return dtos.stream()
-        .map(
-            dto -> {
-              var entity = kokonaisuudet.save(new KoulutusKokonaisuus(yksilo, dto.nimi()));
-              for (var koulutus : dto.koulutukset()) {
-                entity
-                    .getKoulutukset()
-                    .add(koulutusService.add(entity, koulutus, tunnistaOsaamiset));
-              }
-              return entity;
-            });
+    var lahteidenOsaamiset = new LinkedHashMap<OsaamisenLahde, Set<URI>>();
+    var entities =
+        dtos.stream()
+            .map(
+                dto -> {
+                  var entity = kokonaisuudet.save(new KoulutusKokonaisuus(yksilo, dto.nimi()));
+                  for (var koulutus : dto.koulutukset()) {
+                    var lahde = koulutusService.create(entity, koulutus, tunnistaOsaamiset);
+                    entity.getKoulutukset().add(lahde);
+                    if (koulutus.osaamiset() != null) {
+                      lahteidenOsaamiset.put(lahde, koulutus.osaamiset());
+                    }
+                  }
+                  return entity;
+                })
+            .toList();
+    osaamiset.addAll(yksilo, lahteidenOsaamiset);
+    return entities;
   }
 
   @Transactional(readOnly = true)
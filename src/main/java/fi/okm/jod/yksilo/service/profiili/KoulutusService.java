@@ -30,6 +30,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.jspecify.annotations.Nullable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -41,6 +42,7 @@ public class KoulutusService {
   private final KoulutusKokonaisuusRepository kokonaisuudet;
   private final KoulutusRepository koulutukset;
   private final YksilonOsaaminenService osaamiset;
+  private final ApplicationEventPublisher eventPublisher;
 
   @Transactional(readOnly = true)
   public List<KoulutusDto> findAll(JodUser user, UUID kokonaisuusId) {
@@ -100,10 +102,15 @@ public class KoulutusService {
   }
 
   Koulutus add(KoulutusKokonaisuus kokonaisuus, KoulutusDto dto) {
-    return add(kokonaisuus, dto, false);
+    var entity = create(kokonaisuus, dto, false);
+    if (dto.osaamiset() != null) {
+      osaamiset.addLahteenOsaamiset(entity, osaamiset.getOsaamiset(dto.osaamiset()));
+    }
+    return entity;
   }
 
-  Koulutus add(KoulutusKokonaisuus kokonaisuus, KoulutusDto dto, boolean tunnistaOsaamiset) {
+  /** Creates the koulutus without its osaamiset (see YksilonOsaaminenService#addAll). */
+  Koulutus create(KoulutusKokonaisuus kokonaisuus, KoulutusDto dto, boolean tunnistaOsaamiset) {
     var entity = new Koulutus(kokonaisuus);
     entity.setNimi(dto.nimi());
     entity.setKuvaus(dto.kuvaus());
@@ -111,11 +118,7 @@ public class KoulutusService {
     entity.setLoppuPvm(dto.loppuPvm());
     entity.setOsaamisenTunnistusStatus(tunnistaOsaamiset ? OsaamisenTunnistusStatus.WAIT : null);
     entity.setOsasuoritukset(dto.osasuoritukset());
-    entity = koulutukset.save(entity);
-    if (dto.osaamiset() != null) {
-      osaamiset.addLahteenOsaamiset(entity, osaamiset.getOsaamiset(dto.osaamiset()));
-    }
-    return entity;
+    return koulutukset.save(entity);
   }
 
   void update(Koulutus entity, KoulutusDto dto) {
@@ -141,7 +144,11 @@ public class KoulutusService {
     if (newOsaamiset != null && !newOsaamiset.isEmpty()) {
       osaamiset.addLahteenOsaamiset(koulutus, osaamiset.getOsaamiset(newOsaamiset));
     }
-    koulutukset.save(koulutus);
+    final var saved = koulutukset.save(koulutus);
+    // not made by the user, so not seen by ProfileUpdatedAspect
+    final var yksilo = saved.getKokonaisuus().getYksilo();
+    yksilo.updated();
+    eventPublisher.publishEvent(new ProfileModifiedEvent(yksilo.getId()));
   }
 
   @Scheduled(fixedDelay = 30, initialDelay = 1, timeUnit = TimeUnit.MINUTES)
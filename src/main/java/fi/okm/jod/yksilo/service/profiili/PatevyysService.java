@@ -88,16 +88,21 @@ public class PatevyysService {
   }
 
   Patevyys add(Toiminto toiminto, PatevyysDto dto) {
+    var patevyys = create(toiminto, dto);
+    if (dto.osaamiset() != null) {
+      osaamiset.addLahteenOsaamiset(patevyys, osaamiset.getOsaamiset(dto.osaamiset()));
+    }
+    return patevyys;
+  }
+
+  /** Creates the pätevyys without its osaamiset (see YksilonOsaaminenService#addAll). */
+  Patevyys create(Toiminto toiminto, PatevyysDto dto) {
     var entity = new Patevyys(toiminto);
     entity.setNimi(dto.nimi());
     entity.setKuvaus(dto.kuvaus());
     entity.setAlkuPvm(dto.alkuPvm());
     entity.setLoppuPvm(dto.loppuPvm());
-    var patevyys = patevyydet.save(entity);
-    if (dto.osaamiset() != null) {
-      osaamiset.addLahteenOsaamiset(patevyys, osaamiset.getOsaamiset(dto.osaamiset()));
-    }
-    return patevyys;
+    return patevyydet.save(entity);
   }
 
   void update(Patevyys entity, PatevyysDto dto) {
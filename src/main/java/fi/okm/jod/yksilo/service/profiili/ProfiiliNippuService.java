@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.service.profiili;
+
+import fi.okm.jod.yksilo.domain.JodUser;
+import fi.okm.jod.yksilo.dto.profiili.ProfiiliNippuDto;
+import fi.okm.jod.yksilo.repository.YksiloRepository;
+import fi.okm.jod.yksilo.service.NotFoundException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Read model of the profile pages: all the items of a profile, cached in Redis as gzip compressed
+ * JSON.
+ *
+ * <p>A cached bundle is tagged with the modification time (muokattu) of the profile read before
+ * the items, and it is used only if the profile has not been modified since. Every profile
+ * operation updates the modification time (see {@link ProfileUpdatedAspect}), so a hit costs one
+ * primary key lookup instead of the queries of all the items, and a bundle read concurrently with
+ * a modification is never used after it. The bundles of the modified profiles are also evicted
+ * after the commit, and they expire after {@link #TTL}. Redis failures only disable the cache.
+ */
+@Service
+@Transactional(readOnly = true)
+@Slf4j
+public class ProfiiliNippuService {
+
+  static final String KEY_PREFIX = "jod:profiili:nippu:";
+  static final Duration TTL = Duration.ofMinutes(10);
+
+  private final YksiloRepository yksilot;
+  private final YksilonOsaaminenService osaamiset;
+  private final TyopaikkaService tyopaikat;
+  private final KoulutusKokonaisuusService koulutusKokonaisuudet;
+  private final ToimintoService toiminnot;
+  private final TavoiteService tavoitteet;
+  private final YksilonSuosikkiService suosikit;
+  private final ObjectMapper objectMapper;
+  private final RedisTemplate<String, byte[]> redis;
+
+  @SuppressWarnings("java:S107")
+  ProfiiliNippuService(
+      YksiloRepository yksilot,
+      YksilonOsaaminenService osaamiset,
+      TyopaikkaService tyopaikat,
+      KoulutusKokonaisuusService koulutusKokonaisuudet,
+      ToimintoService toiminnot,
+      TavoiteService tavoitteet,
+      YksilonSuosikkiService suosikit,
+      ObjectMapper objectMapper,
+      RedisConnectionFactory connectionFactory) {
+    this.yksilot = yksilot;
+    this.osaamiset = osaamiset;
+    this.tyopaikat = tyopaikat;
+    this.koulutusKokonaisuudet = koulutusKokonaisuudet;
+    this.toiminnot = toiminnot;
+    this.tavoitteet = tavoitteet;
+    this.suosikit = suosikit;
+    this.objectMapper = objectMapper;
+    this.redis = new RedisTemplate<>();
+    this.redis.setConnectionFactory(connectionFactory);
+    this.redis.setKeySerializer(RedisSerializer.string());
+    this.redis.setValueSerializer(RedisSerializer.byteArray());
+    this.redis.afterPropertiesSet();
+  }
+
+  public ProfiiliNippuDto get(JodUser user) {
+    final long versio =
+        yksilot
+            .findMuokattuById(user.getId())
+            .map(muokattu -> ChronoUnit.MICROS.between(Instant.EPOCH, muokattu))
+            .orElseThrow(() -> new NotFoundException("Profiili does not exist"));
+
+    final var cached = read(user.getId(), versio);
+    if (cached != null) {
+      return cached;
+    }
+    final var nippu =
+        new ProfiiliNippuDto(
+            osaamiset.findAll(user, null, null),
+            tyopaikat.findAll(user),
+            koulutusKokonaisuudet.findAll(user),
+            toiminnot.findAll(user),
+            tavoitteet.findAll(user),
+            suosikit.findAll(user, null));
+    write(user.getId(), versio, nippu);
+    return nippu;
+  }
+
+  @EventListener(ProfileChangesCommittedEvent.class)
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  void profilesChanged(ProfileChangesCommittedEvent event) {
+    try {
+      redis.delete(event.yksiloIds().stream().map(ProfiiliNippuService::key).toList());
+    } catch (DataAccessException e) {
+      log.warn("Evicting cached profile bundles failed: {}", e.getMessage());
+    }
+  }
+
+  private @Nullable ProfiiliNippuDto read(UUID id, long versio) {
+    final byte[] value;
+    try {
+      value = redis.opsForValue().get(key(id));
+    } catch (DataAccessException e) {
+      log.warn("Reading cached profile bundle failed: {}", e.getMessage());
+      return null;
+    }
+    if (value == null) {
+      return null;
+    }
+    try (var in = new DataInputStream(new ByteArrayInputStream(value))) {
+      if (in.readLong() != versio) {
+        return null;
+      }
+      return objectMapper.readValue(new GZIPInputStream(in), ProfiiliNippuDto.class);
+    } catch (IOException | JacksonException e) {
+      // e.g. written by a version with a different bundle format
+      log.warn("Ignoring unreadable cached profile bundle: {}", e.getMessage());
+      return null;
+    }
+  }
+
+  private void write(UUID id, long versio, ProfiiliNippuDto nippu) {
+    final var bytes = new ByteArrayOutputStream();
+    try (var out = new DataOutputStream(bytes)) {
+      out.writeLong(versio);
+      try (var gzip = new GZIPOutputStream(out)) {
+        objectMapper.writeValue(gzip, nippu);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    try {
+      redis.opsForValue().set(key(id), bytes.toByteArray(), TTL);
+    } catch (DataAccessException e) {
+      log.warn("Caching profile bundle failed: {}", e.getMessage());
+    }
+  }
+
+  private static String key(UUID id) {
+    return KEY_PREFIX + id;
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.service.profiili;
+
+import static org.springframework.transaction.support.TransactionSynchronizationManager.bindResource;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.getResource;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.isSynchronizationActive;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.registerSynchronization;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.unbindResourceIfPossible;
+
+import fi.okm.jod.yksilo.domain.ProfiiliMuutosTyyppi;
+import fi.okm.jod.yksilo.entity.ProfiiliMuutos;
+import fi.okm.jod.yksilo.repository.ProfiiliMuutosRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+
+/**
+ * Writes the change log (outbox) of the profiles, which the external API exposes as a feed. The
+ * changes of a transaction are collected per profile and written just before the transaction
+ * commits, so the log is always consistent with the profiles and a transaction adds at most one
+ * entry per profile. After the commit a {@link ProfileChangesCommittedEvent} is published.
+ *
+ * <p>Not transactional itself (and thus not advised by {@link ProfileUpdatedAspect}), the changes
+ * are always recorded within the transaction of the profile operation.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProfileChangeLog {
+
+  /** Consumers of the feed must catch up within the retention period. */
+  static final Duration RETENTION = Duration.ofDays(30);
+
+  private final ProfiiliMuutosRepository muutokset;
+  private final ApplicationEventPublisher eventPublisher;
+
+  /** Records a modification of the profile in the current read-write transaction. */
+  void modified(UUID yksiloId) {
+    record(yksiloId, ProfiiliMuutosTyyppi.MUOKATTU);
+  }
+
+  @EventListener(ProfileModifiedEvent.class)
+  void profileModified(ProfileModifiedEvent event) {
+    modified(event.yksiloId());
+  }
+
+  @EventListener(ProfileDeletedEvent.class)
+  void profileDeleted(ProfileDeletedEvent event) {
+    record(event.user().getId(), ProfiiliMuutosTyyppi.POISTETTU);
+  }
+
+  @Scheduled(fixedDelay = 1, initialDelay = 1, timeUnit = TimeUnit.HOURS)
+  void cleanup() {
+    var deleted = muutokset.deleteExpired(Instant.now().minus(RETENTION));
+    if (deleted > 0) {
+      log.info("Removed {} expired profile change log entries", deleted);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void record(UUID yksiloId, ProfiiliMuutosTyyppi tyyppi) {
+    if (!isSynchronizationActive()) {
+      throw new IllegalStateException("Profile changes must be recorded within a transaction");
+    }
+    var pending = (Map<UUID, ProfiiliMuutosTyyppi>) getResource(this);
+    if (pending == null) {
+      pending = new LinkedHashMap<>();
+      bindResource(this, pending);
+      registerSynchronization(new Writer(pending));
+    }
+    // the deletion supersedes the modifications of the same transaction
+    pending.merge(
+        yksiloId,
+        tyyppi,
+        (previous, next) -> previous == ProfiiliMuutosTyyppi.POISTETTU ? previous : next);
+  }
+
+  @RequiredArgsConstructor
+  private class Writer implements TransactionSynchronization {
+    private final Map<UUID, ProfiiliMuutosTyyppi> pending;
+
+    @Override
+    public void beforeCommit(boolean readOnly) {
+      if (!readOnly && !pending.isEmpty()) {
+        muutokset.saveAll(
+            pending.entrySet().stream()
+                .map(e -> new ProfiiliMuutos(e.getKey(), e.getValue()))
+                .toList());
+      }
+    }
+
+    @Override
+    public void afterCommit() {
+      eventPublisher.publishEvent(new ProfileChangesCommittedEvent(Set.copyOf(pending.keySet())));
+    }
+
+    @Override
+    public void afterCompletion(int status) {
+      unbindResourceIfPossible(ProfileChangeLog.this);
+    }
+  }
+}
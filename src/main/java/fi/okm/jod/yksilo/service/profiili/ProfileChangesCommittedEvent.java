@@ -0,0 +1,16 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.service.profiili;
+
+import java.util.Set;
+import java.util.UUID;
+
+/** Published after a transaction that modified or deleted the given profiles has committed. */
+public record ProfileChangesCommittedEvent(Set<UUID> yksiloIds) {}
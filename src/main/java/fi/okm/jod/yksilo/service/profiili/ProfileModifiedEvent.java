@@ -0,0 +1,18 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.service.profiili;
+
+import java.util.UUID;
+
+/**
+ * Modification of a profile made without the user (e.g. by a background task), which {@link
+ * ProfileUpdatedAspect} does not see. Must be published within the modifying transaction.
+ */
+public record ProfileModifiedEvent(UUID yksiloId) {}
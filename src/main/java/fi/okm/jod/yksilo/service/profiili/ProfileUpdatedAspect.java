@@ -32,6 +32,7 @@ import org.springframework.transaction.support.TransactionSynchronization;
 @RequiredArgsConstructor
 public class ProfileUpdatedAspect {
   private final EntityManager entityManager;
+  private final ProfileChangeLog changeLog;
 
   @Pointcut("within(fi.okm.jod.yksilo.service.profiili..*)")
   public void profiili() {}
@@ -54,6 +55,7 @@ public class ProfileUpdatedAspect {
       registerSynchronization(
           new SynchronizationCallback(
               entityManager.getReference(Yksilo.class, user.getId()), operation));
+      changeLog.modified(user.getId());
     }
     return joinPoint.proceed();
   }
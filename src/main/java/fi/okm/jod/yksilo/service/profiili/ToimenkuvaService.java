@@ -92,16 +92,21 @@ public class ToimenkuvaService {
   }
 
   Toimenkuva add(Tyopaikka tyopaikka, ToimenkuvaDto dto) {
+    var toimenkuva = create(tyopaikka, dto);
+    if (dto.osaamiset() != null) {
+      osaamiset.addLahteenOsaamiset(toimenkuva, osaamiset.getOsaamiset(dto.osaamiset()));
+    }
+    return toimenkuva;
+  }
+
+  /** Creates the toimenkuva without its osaamiset (see YksilonOsaaminenService#addAll). */
+  Toimenkuva create(Tyopaikka tyopaikka, ToimenkuvaDto dto) {
     var entity = new Toimenkuva(tyopaikka);
     entity.setNimi(dto.nimi());
     entity.setKuvaus(dto.kuvaus());
     entity.setAlkuPvm(dto.alkuPvm());
     entity.setLoppuPvm(dto.loppuPvm());
-    var toimenkuva = toimenkuvat.save(entity);
-    if (dto.osaamiset() != null) {
-      osaamiset.addLahteenOsaamiset(toimenkuva, osaamiset.getOsaamiset(dto.osaamiset()));
-    }
-    return toimenkuva;
+    return toimenkuvat.save(entity);
   }
 
   void update(Toimenkuva entity, ToimenkuvaDto dto) {
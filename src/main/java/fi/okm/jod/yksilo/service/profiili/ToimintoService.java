@@ -10,6 +10,7 @@
 package fi.okm.jod.yksilo.service.profiili;
 
 import fi.okm.jod.yksilo.domain.JodUser;
+import fi.okm.jod.yksilo.domain.OsaamisenLahde;
 import fi.okm.jod.yksilo.dto.profiili.ToimintoDto;
 import fi.okm.jod.yksilo.dto.profiili.ToimintoUpdateDto;
 import fi.okm.jod.yksilo.entity.Toiminto;
@@ -18,6 +19,8 @@ import fi.okm.jod.yksilo.repository.YksiloRepository;
 import fi.okm.jod.yksilo.service.NotFoundException;
 import fi.okm.jod.yksilo.service.profiili.ProfileLimitException.ProfileItem;
 import fi.okm.jod.yksilo.validation.Limits;
+import java.net.URI;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.SequencedSet;
@@ -36,6 +39,7 @@ public class ToimintoService {
   private final YksiloRepository yksilot;
   private final ToimintoRepository toiminnot;
   private final PatevyysService patevyysService;
+  private final YksilonOsaaminenService osaamiset;
 
   @Transactional(readOnly = true)
   public List<ToimintoDto> findAll(JodUser user) {
@@ -69,18 +73,26 @@ public class ToimintoService {
       throw new ProfileLimitException(ProfileItem.PATEVYYS);
     }
 
-    return dtos.stream()
-        .map(
-            dto -> {
-              var toiminto = toiminnot.save(new Toiminto(yksilo, dto.nimi()));
-              if (dto.patevyydet() != null) {
-                for (var patevyys : dto.patevyydet()) {
-                  toiminto.getPatevyydet().add(patevyysService.add(toiminto, patevyys));
-                }
-              }
-              return toiminto.getId();
-            })
-        .collect(Collectors.toCollection(LinkedHashSet::new));
+    var lahteidenOsaamiset = new LinkedHashMap<OsaamisenLahde, Set<URI>>();
+    var ids =
+        dtos.stream()
+            .map(
+                dto -> {
+                  var toiminto = toiminnot.save(new Toiminto(yksilo, dto.nimi()));
+                  if (dto.patevyydet() != null) {
+                    for (var patevyys : dto.patevyydet()) {
+                      var lahde = patevyysService.create(toiminto, patevyys);
+                      toiminto.getPatevyydet().add(lahde);
+                      if (patevyys.osaamiset() != null) {
+                        lahteidenOsaamiset.put(lahde, patevyys.osaamiset());
+                      }
+                    }
+                  }
+                  return toiminto.getId();
+                })
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    osaamiset.addAll(yksilo, lahteidenOsaamiset);
+    return ids;
   }
 
   public void update(JodUser user, ToimintoUpdateDto dto) {
@@ -10,6 +10,7 @@
 package fi.okm.jod.yksilo.service.profiili;
 
 import fi.okm.jod.yksilo.domain.JodUser;
+import fi.okm.jod.yksilo.domain.OsaamisenLahde;
 import fi.okm.jod.yksilo.dto.profiili.TyopaikkaDto;
 import fi.okm.jod.yksilo.dto.profiili.TyopaikkaUpdateDto;
 import fi.okm.jod.yksilo.entity.Tyopaikka;
@@ -19,6 +20,8 @@ import fi.okm.jod.yksilo.service.NotFoundException;
 import fi.okm.jod.yksilo.service.ServiceException;
 import fi.okm.jod.yksilo.service.profiili.ProfileLimitException.ProfileItem;
 import fi.okm.jod.yksilo.validation.Limits;
+import java.net.URI;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.SequencedSet;
@@ -37,6 +40,7 @@ public class TyopaikkaService {
   private final YksiloRepository yksilot;
   private final TyopaikkaRepository tyopaikat;
   private final ToimenkuvaService toimenkuvaService;
+  private final YksilonOsaaminenService osaamiset;
 
   @Transactional(readOnly = true)
   public List<TyopaikkaDto> findAll(JodUser user) {
@@ -88,18 +92,26 @@ public class TyopaikkaService {
       throw new ProfileLimitException(ProfileItem.TOIMENKUVA);
     }
 
-    return dtos.stream()
-        .map(
-            dto -> {
-              var entity = tyopaikat.save(new Tyopaikka(yksilo, dto.nimi()));
-              if (dto.toimenkuvat() != null) {
-                for (var toimenkuva : dto.toimenkuvat()) {
-                  entity.getToimenkuvat().add(toimenkuvaService.add(entity, toimenkuva));
-                }
-              }
-              return entity.getId();
-            })
-        .collect(Collectors.toCollection(LinkedHashSet::new));
+    var lahteidenOsaamiset = new LinkedHashMap<OsaamisenLahde, Set<URI>>();
+    var ids =
+        dtos.stream()
+            .map(
+                dto -> {
+                  var entity = tyopaikat.save(new Tyopaikka(yksilo, dto.nimi()));
+                  if (dto.toimenkuvat() != null) {
+                    for (var toimenkuva : dto.toimenkuvat()) {
+                      var lahde = toimenkuvaService.create(entity, toimenkuva);
+                      entity.getToimenkuvat().add(lahde);
+                      if (toimenkuva.osaamiset() != null) {
+                        lahteidenOsaamiset.put(lahde, toimenkuva.osaamiset());
+                      }
+                    }
+                  }
+                  return entity.getId();
+                })
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    osaamiset.addAll(yksilo, lahteidenOsaamiset);
+    return ids;
   }
 
   private static ServiceException notFound() {
@@ -15,7 +15,6 @@ import fi.okm.jod.yksilo.domain.FinnishPersonIdentifier;
 import fi.okm.jod.yksilo.domain.JodUser;
 import fi.okm.jod.yksilo.domain.PersonIdentifierType;
 import fi.okm.jod.yksilo.dto.profiili.YksiloDto;
-import fi.okm.jod.yksilo.dto.profiili.export.YksiloExportDto;
 import fi.okm.jod.yksilo.entity.Yksilo;
 import fi.okm.jod.yksilo.repository.YksiloRepository;
 import fi.okm.jod.yksilo.service.NotFoundException;
@@ -27,6 +26,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.core.JsonGenerator;
 
 @Service
 @Transactional
@@ -35,6 +35,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class YksiloService {
   private final YksiloRepository yksilot;
   private final ApplicationEventPublisher eventPublisher;
+  private final ExportWriter exportWriter;
 
   @Transactional(readOnly = true)
   public YksiloDto get(JodUser user) {
@@ -130,13 +131,16 @@ public class YksiloService {
     log.atInfo().addMarker(LogMarker.AUDIT).log("Deleted user {} profile", user.getId());
   }
 
+  /**
+   * Writes the export of the profile as JSON (see {@link
+   * fi.okm.jod.yksilo.dto.profiili.export.YksiloExportDto}). The profile is read and written in
+   * chunks, so the memory use does not depend on the size of the profile.
+   */
   @Transactional(readOnly = true)
-  public YksiloExportDto export(JodUser user) {
-    var exportDto =
-        ExportMapper.mapYksilo(
-            getYksilo(user), yksilot.getEmail(user.getQualifiedPersonId()).orElse(null));
+  public void export(JodUser user, JsonGenerator generator) {
+    exportWriter.write(
+        getYksilo(user), yksilot.getEmail(user.getQualifiedPersonId()).orElse(null), generator);
     log.atInfo().addMarker(LogMarker.AUDIT).log("Exported user {} profile", user.getId());
-    return exportDto;
   }
 
   Yksilo getYksilo(JodUser user) {
@@ -15,6 +15,7 @@ import fi.okm.jod.yksilo.domain.OsaamisenLahdeTyyppi;
 import fi.okm.jod.yksilo.dto.profiili.OsaamisenLahdeDto;
 import fi.okm.jod.yksilo.dto.profiili.YksilonOsaaminenDto;
 import fi.okm.jod.yksilo.entity.Osaaminen;
+import fi.okm.jod.yksilo.entity.Yksilo;
 import fi.okm.jod.yksilo.entity.YksilonOsaaminen;
 import fi.okm.jod.yksilo.entity.YksilonOsaaminen_;
 import fi.okm.jod.yksilo.repository.OsaaminenRepository;
@@ -27,8 +28,10 @@ import fi.okm.jod.yksilo.service.profiili.ProfileLimitException.ProfileItem;
 import fi.okm.jod.yksilo.validation.Limits;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -98,6 +101,38 @@ public class YksilonOsaaminenService {
     updateLahteenOsaamiset(lahde, osaamiset, false);
   }
 
+  /**
+   * Adds the osaamiset of new sources (e.g. imported ones) at once. The URIs of all the sources are
+   * resolved with one query and the limit is checked once, so the rows can be inserted in JDBC
+   * batches when the transaction is flushed.
+   */
+  void addAll(Yksilo yksilo, Map<? extends OsaamisenLahde, Set<URI>> lahteidenOsaamiset) {
+    if (lahteidenOsaamiset.isEmpty()) {
+      return;
+    }
+    var uris = new HashSet<URI>();
+    lahteidenOsaamiset.values().forEach(uris::addAll);
+    var osaamiset = HashMap.<URI, Osaaminen>newHashMap(uris.size());
+    getOsaamiset(uris).forEach(o -> osaamiset.put(o.getUri(), o));
+
+    var added = lahteidenOsaamiset.values().stream().mapToLong(Set::size).sum();
+    if (repository.countByYksilo(yksilo) + added > Limits.OSAAMINEN) {
+      throw new ProfileLimitException(ProfileItem.OSAAMINEN);
+    }
+
+    lahteidenOsaamiset.forEach(
+        (lahde, lahteenOsaamiset) ->
+            lahde
+                .getOsaamiset()
+                .addAll(
+                    repository.saveAll(
+                        lahteenOsaamiset.stream()
+                            .map(uri -> new YksilonOsaaminen(lahde, osaamiset.get(uri)))
+                            .toList())));
+    yksilo.updated();
+    this.yksiloRepository.save(yksilo);
+  }
+
   void updateLahteenOsaamiset(OsaamisenLahde lahde, Set<Osaaminen> osaamiset) {
     updateLahteenOsaamiset(lahde, osaamiset, true);
   }
@@ -175,17 +175,17 @@ class TmtImportMapper {
 
   private Set<URI> extractSkills(DescriptionItemExternalGet description) {
     if (description != null && description.getSkills() != null) {
-      var uris = osaaminenService.getAll().keySet();
+      var ids = osaaminenService.getIds();
       return description.getSkills().stream()
           .filter(it -> it.getUri() != null)
-          .map(it -> URI.create(it.getUri()))
-          .filter(
-              it -> {
-                if (!uris.contains(it)) {
-                  log.debug("Ignoring unknown osaaminen URI from TMT: {}", it);
-                  return false;
+          .<URI>mapMulti(
+              (it, known) -> {
+                var id = ids.idOf(it.getUri());
+                if (id >= 0) {
+                  known.accept(ids.uri(id));
+                } else {
+                  log.debug("Ignoring unknown osaaminen URI from TMT: {}", it.getUri());
                 }
-                return true;
               })
           .collect(Collectors.toSet());
     }
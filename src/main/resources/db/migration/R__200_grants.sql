@@ -6,6 +6,15 @@ GRANT SELECT, INSERT, UPDATE, DELETE
   ON ammattiryhma
   TO dataloader;
 
+-- refreshed by a trigger when the import procedures update the catalog version
+GRANT SELECT, INSERT, UPDATE, DELETE
+  ON mahdollisuus_lista
+  TO dataloader;
+
+GRANT SELECT
+  ON mahdollisuus_view
+  TO dataloader;
+
 GRANT SELECT, INSERT, UPDATE, DELETE, TRUNCATE
   ON ALL TABLES IN SCHEMA esco_data, tyomahdollisuus_data, koulutusmahdollisuus_data
   TO dataloader;
@@ -13,25 +13,55 @@ BEGIN
   ATOMIC
   UPDATE tyomahdollisuus
   SET aktiivinen = FALSE;
+
+  INSERT INTO mahdollisuus_versio AS v (versio)
+  VALUES (1)
+  ON CONFLICT (id) DO UPDATE SET versio = v.versio + 1;
 END;
 
-CREATE OR REPLACE PROCEDURE tyomahdollisuus_data.import()
+-- Staged opportunities that are new or whose content (hash) has changed. Unchanged ones that are
+-- inactive (e.g. after clear()) are only reactivated, see reactivate().
+CREATE OR REPLACE VIEW tyomahdollisuus_data.changed AS
+SELECT i.id, i.data
+FROM tyomahdollisuus_data.import i
+WHERE NOT EXISTS (SELECT 1
+                  FROM tyomahdollisuus t
+                  WHERE t.id = i.id
+                    AND t.tiiviste = SHA256(CONVERT_TO(i.data::TEXT, 'UTF8')));
+
+-- Reactivates the inactive opportunities that are in the import
+CREATE OR REPLACE PROCEDURE tyomahdollisuus_data.reactivate()
+  LANGUAGE SQL
+BEGIN
+  ATOMIC
+  UPDATE tyomahdollisuus t
+  SET aktiivinen = TRUE
+  FROM tyomahdollisuus_data.import i
+  WHERE t.id = i.id
+    AND NOT t.aktiivinen;
+END;
+
+-- Applies the given staged opportunities
+CREATE OR REPLACE PROCEDURE tyomahdollisuus_data.apply(ids UUID[])
   LANGUAGE sql
 BEGIN
   ATOMIC
 
-  INSERT INTO tyomahdollisuus(id, ammattiryhma, aineisto, aktiivinen)
+  INSERT INTO tyomahdollisuus(id, ammattiryhma, aineisto, aktiivinen, tiiviste)
   SELECT i.id,
          i.data ->> 'ammattiryhma',
          i.data ->> 'aineisto',
-         TRUE
+         TRUE,
+         SHA256(CONVERT_TO(i.data::TEXT, 'UTF8'))
   FROM tyomahdollisuus_data.import i
+  WHERE i.id = ANY (ids)
   ON CONFLICT (id) DO UPDATE SET ammattiryhma = EXCLUDED.ammattiryhma,
                                  aineisto     = EXCLUDED.aineisto,
-                                 aktiivinen   = TRUE;
+                                 aktiivinen   = TRUE,
+                                 tiiviste     = EXCLUDED.tiiviste;
   DELETE
   FROM tyomahdollisuus_kaannos
-  WHERE tyomahdollisuus_id IN (SELECT id FROM tyomahdollisuus_data.import);
+  WHERE tyomahdollisuus_id = ANY (ids);
 
   INSERT INTO tyomahdollisuus_kaannos(tyomahdollisuus_id, kaannos_key, otsikko,
                                       tiivistelma,
@@ -57,18 +87,18 @@ BEGIN
                    ON o.key = tt.key
          LEFT JOIN LATERAL JSONB_EACH_TEXT(JSONB_PATH_QUERY_FIRST(d.data,
                                                                   '$.perustiedot.tyomahdollisuudenYleisetVaatimukset ? (@ != null)')) yv
-                   ON o.key = yv.key;
+                   ON o.key = yv.key
+  WHERE d.id = ANY (ids);
 
   DELETE
   FROM tyomahdollisuus_jakauma_arvot
   WHERE tyomahdollisuus_jakauma_id IN (SELECT id
                                        FROM tyomahdollisuus_jakauma
-                                       WHERE tyomahdollisuus_id IN
-                                             (SELECT id FROM tyomahdollisuus_data.import));
+                                       WHERE tyomahdollisuus_id = ANY (ids));
 
   DELETE
   FROM tyomahdollisuus_jakauma
-  WHERE tyomahdollisuus_id IN (SELECT id FROM tyomahdollisuus_data.import);
+  WHERE tyomahdollisuus_id = ANY (ids);
 
   WITH paths AS (SELECT n, p::jsonpath
                  FROM (VALUES ('OSAAMINEN', '$.osaamisvaatimukset.osaamiset'),
@@ -99,7 +129,8 @@ BEGIN
                   (JSONB_PATH_QUERY_FIRST(d.data, p.p) -> 'tyhjienMaara')::INT
            FROM tyomahdollisuus_data.import d,
                 paths p
-           WHERE JSONB_PATH_EXISTS(d.data, p.p)
+           WHERE d.id = ANY (ids)
+             AND JSONB_PATH_EXISTS(d.data, p.p)
            RETURNING id, tyomahdollisuus_id, tyyppi),
        distribution_values AS (SELECT j.id AS tyomahdollisuus_jakauma_id,
                                       x.arvo AS arvo,
@@ -115,6 +146,83 @@ BEGIN
   FROM distribution_values;
 END;
 
+-- Imports the changed staged opportunities in one transaction (after clear())
+CREATE OR REPLACE PROCEDURE tyomahdollisuus_data.import()
+  LANGUAGE plpgsql
+AS
+$$
+BEGIN
+  CALL tyomahdollisuus_data.apply(ARRAY(SELECT id FROM tyomahdollisuus_data.changed));
+  CALL tyomahdollisuus_data.reactivate();
+
+  INSERT INTO mahdollisuus_versio AS v (versio)
+  VALUES (1)
+  ON CONFLICT (id) DO UPDATE SET versio = v.versio + 1;
+END;
+$$;
+
+-- Staged import, an alternative to clear() + import() that does not hold locks for the whole
+-- import: applies the changed staged opportunities in chunks, committing each chunk. Can be run
+-- in several sessions in parallel (each takes different chunks) and resumed after a failure by
+-- calling it again. Must be called outside a transaction block, followed by finish().
+--
+-- NOTE: The import is not atomic. Each committed chunk is visible to the readers of the
+-- opportunity tables at once, so they see a partly updated catalog (and the opportunities
+-- missing from the import stay active) until finish(). Only mahdollisuus_lista and the
+-- application caches switch to the new version in finish(). Use clear() + import() in one
+-- transaction when the catalog must change at once.
+CREATE OR REPLACE PROCEDURE tyomahdollisuus_data.import_changes(chunk_size INTEGER DEFAULT 500)
+  LANGUAGE plpgsql
+AS
+$$
+DECLARE
+  ids     UUID[];
+  applied BIGINT := 0;
+BEGIN
+  LOOP
+    SELECT ARRAY(SELECT c.id
+                 FROM tyomahdollisuus_data.changed c
+                 LIMIT chunk_size FOR UPDATE SKIP LOCKED)
+    INTO ids;
+    EXIT WHEN CARDINALITY(ids) = 0;
+
+    CALL tyomahdollisuus_data.apply(ids);
+    COMMIT;
+    applied := applied + CARDINALITY(ids);
+    RAISE NOTICE 'tyomahdollisuus import: % applied, % remaining',
+      applied, (SELECT COUNT(*) FROM tyomahdollisuus_data.changed);
+  END LOOP;
+END;
+$$;
+
+-- Completes the staged import: reactivates the unchanged inactive opportunities, deactivates the
+-- opportunities missing from the import and publishes the new catalog version (refreshing
+-- mahdollisuus_lista and the application caches)
+CREATE OR REPLACE PROCEDURE tyomahdollisuus_data.finish()
+  LANGUAGE plpgsql
+AS
+$$
+DECLARE
+  remaining BIGINT := (SELECT COUNT(*) FROM tyomahdollisuus_data.changed);
+BEGIN
+  IF remaining > 0 THEN
+    RAISE EXCEPTION 'tyomahdollisuus import has % unapplied changes, run import_changes()',
+      remaining;
+  END IF;
+
+  CALL tyomahdollisuus_data.reactivate();
+
+  UPDATE tyomahdollisuus
+  SET aktiivinen = FALSE
+  WHERE aktiivinen
+    AND id NOT IN (SELECT id FROM tyomahdollisuus_data.import);
+
+  INSERT INTO mahdollisuus_versio AS v (versio)
+  VALUES (1)
+  ON CONFLICT (id) DO UPDATE SET versio = v.versio + 1;
+END;
+$$;
+
 -- ===========================
 -- Koulutusmahdollisuus import
 -- ===========================
@@ -130,29 +238,59 @@ BEGIN
   ATOMIC
   UPDATE koulutusmahdollisuus
   SET aktiivinen = FALSE;
+
+  INSERT INTO mahdollisuus_versio AS v (versio)
+  VALUES (1)
+  ON CONFLICT (id) DO UPDATE SET versio = v.versio + 1;
 END;
 
 
-CREATE OR REPLACE PROCEDURE koulutusmahdollisuus_data.import()
+-- Staged opportunities that are new or whose content (hash) has changed. Unchanged ones that are
+-- inactive (e.g. after clear()) are only reactivated, see reactivate().
+CREATE OR REPLACE VIEW koulutusmahdollisuus_data.changed AS
+SELECT i.id, i.data
+FROM koulutusmahdollisuus_data.import i
+WHERE NOT EXISTS (SELECT 1
+                  FROM koulutusmahdollisuus k
+                  WHERE k.id = i.id
+                    AND k.tiiviste = SHA256(CONVERT_TO(i.data::TEXT, 'UTF8')));
+
+-- Reactivates the inactive opportunities that are in the import
+CREATE OR REPLACE PROCEDURE koulutusmahdollisuus_data.reactivate()
+  LANGUAGE SQL
+BEGIN
+  ATOMIC
+  UPDATE koulutusmahdollisuus k
+  SET aktiivinen = TRUE
+  FROM koulutusmahdollisuus_data.import i
+  WHERE k.id = i.id
+    AND NOT k.aktiivinen;
+END;
+
+-- Applies the given staged opportunities
+CREATE OR REPLACE PROCEDURE koulutusmahdollisuus_data.apply(ids UUID[])
   LANGUAGE SQL
 BEGIN
   ATOMIC
 
   -- Then koulutusmahdollisuus upsert, setting active to true for all records that will be imported
   INSERT INTO koulutusmahdollisuus(id, tyyppi, kesto_minimi, kesto_mediaani, kesto_maksimi,
-                                   aktiivinen)
+                                   aktiivinen, tiiviste)
   SELECT id,
          data ->> 'tyyppi',
          (data ->> 'kestoMinimi')::FLOAT(53),
          (data ->> 'kestoMediaani')::FLOAT(53),
          (data ->> 'kestoMaksimi')::FLOAT(53),
-         TRUE -- Set aktiivinen to true for all imported records
+         TRUE, -- Set aktiivinen to true for all imported records
+         SHA256(CONVERT_TO(data::TEXT, 'UTF8'))
   FROM koulutusmahdollisuus_data.import
+  WHERE id = ANY (ids)
   ON CONFLICT (id) DO UPDATE SET tyyppi         = EXCLUDED.tyyppi,
                                  kesto_minimi   = EXCLUDED.kesto_minimi,
                                  kesto_mediaani = EXCLUDED.kesto_mediaani,
                                  kesto_maksimi  = EXCLUDED.kesto_maksimi,
-                                 aktiivinen     = TRUE;
+                                 aktiivinen     = TRUE,
+                                 tiiviste       = EXCLUDED.tiiviste;
 
   -- Upsert translations
   WITH translation_data AS (SELECT d.id,
@@ -165,7 +303,8 @@ BEGIN
                                    LEFT JOIN LATERAL JSONB_EACH_TEXT(data -> 'tiivistelma') y
                                              ON (x.key = y.key)
                                    LEFT JOIN LATERAL JSONB_EACH_TEXT(data -> 'kuvaus') z
-                                             ON x.key = z.key)
+                                             ON x.key = z.key
+                            WHERE d.id = ANY (ids))
   INSERT
   INTO koulutusmahdollisuus_kaannos(koulutusmahdollisuus_id, kaannos_key, otsikko, tiivistelma,
                                     kuvaus)
@@ -180,18 +319,18 @@ BEGIN
   FROM koulutus_viite_kaannos
   WHERE koulutus_viite_id IN (SELECT kv.id
                               FROM koulutus_viite kv
-                              WHERE kv.koulutusmahdollisuus_id IN
-                                    (SELECT id FROM koulutusmahdollisuus_data.import));
+                              WHERE kv.koulutusmahdollisuus_id = ANY (ids));
 
   -- Delete parent koulutus_viite records
   DELETE
   FROM koulutus_viite
-  WHERE koulutusmahdollisuus_id IN (SELECT id FROM koulutusmahdollisuus_data.import);
+  WHERE koulutusmahdollisuus_id = ANY (ids);
 
   -- Insert new references
   WITH koulutukset AS (SELECT DISTINCT d.id, k.oid, k.nimi
                        FROM koulutusmahdollisuus_data.import d,
-                            JSONB_TO_RECORDSET(data -> 'koulutukset') AS k(oid VARCHAR, nimi jsonb)),
+                            JSONB_TO_RECORDSET(data -> 'koulutukset') AS k(oid VARCHAR, nimi jsonb)
+                       WHERE d.id = ANY (ids)),
        viitteet AS (
          INSERT INTO koulutus_viite (oid, koulutusmahdollisuus_id)
            SELECT oid, id
@@ -214,13 +353,12 @@ BEGIN
   FROM koulutusmahdollisuus_jakauma_arvot
   WHERE koulutusmahdollisuus_jakauma_id IN (SELECT kmj.id
                                             FROM koulutusmahdollisuus_jakauma kmj
-                                            WHERE kmj.koulutusmahdollisuus_id IN
-                                                  (SELECT id FROM koulutusmahdollisuus_data.import));
+                                            WHERE kmj.koulutusmahdollisuus_id = ANY (ids));
 
   -- Delete parent koulutusmahdollisuus_jakauma records
   DELETE
   FROM koulutusmahdollisuus_jakauma
-  WHERE koulutusmahdollisuus_id IN (SELECT id FROM koulutusmahdollisuus_data.import);
+  WHERE koulutusmahdollisuus_id = ANY (ids);
 
   -- Insert new jakauma records
   WITH paths AS (SELECT n, p::jsonpath
@@ -239,7 +377,8 @@ BEGIN
                   (JSONB_PATH_QUERY_FIRST(d.data, p.p) -> 'tyhjienMaara')::INT
            FROM koulutusmahdollisuus_data.import d,
                 paths p
-           WHERE JSONB_PATH_EXISTS(d.data, p.p)
+           WHERE d.id = ANY (ids)
+             AND JSONB_PATH_EXISTS(d.data, p.p)
            RETURNING id, koulutusmahdollisuus_id, tyyppi),
        distribution_values AS (SELECT j.id AS koulutusmahdollisuus_jakauma_id,
                                       x.arvo AS arvo,
@@ -254,3 +393,73 @@ BEGIN
   SELECT koulutusmahdollisuus_jakauma_id, arvo, osuus
   FROM distribution_values;
 END;
+
+-- Imports the changed staged opportunities in one transaction (after clear())
+CREATE OR REPLACE PROCEDURE koulutusmahdollisuus_data.import()
+  LANGUAGE plpgsql
+AS
+$$
+BEGIN
+  CALL koulutusmahdollisuus_data.apply(ARRAY(SELECT id FROM koulutusmahdollisuus_data.changed));
+  CALL koulutusmahdollisuus_data.reactivate();
+
+  INSERT INTO mahdollisuus_versio AS v (versio)
+  VALUES (1)
+  ON CONFLICT (id) DO UPDATE SET versio = v.versio + 1;
+END;
+$$;
+
+-- Staged import, see tyomahdollisuus_data.import_changes()
+CREATE OR REPLACE PROCEDURE koulutusmahdollisuus_data.import_changes(chunk_size INTEGER DEFAULT 500)
+  LANGUAGE plpgsql
+AS
+$$
+DECLARE
+  ids     UUID[];
+  applied BIGINT := 0;
+BEGIN
+  LOOP
+    SELECT ARRAY(SELECT c.id
+                 FROM koulutusmahdollisuus_data.changed c
+                 LIMIT chunk_size FOR UPDATE SKIP LOCKED)
+    INTO ids;
+    EXIT WHEN CARDINALITY(ids) = 0;
+
+    CALL koulutusmahdollisuus_data.apply(ids);
+    COMMIT;
+    applied := applied + CARDINALITY(ids);
+    RAISE NOTICE 'koulutusmahdollisuus import: % applied, % remaining',
+      applied, (SELECT COUNT(*) FROM koulutusmahdollisuus_data.changed);
+  END LOOP;
+END;
+$$;
+
+-- Completes the staged import, see tyomahdollisuus_data.finish()
+CREATE OR REPLACE PROCEDURE koulutusmahdollisuus_data.finish()
+  LANGUAGE plpgsql
+AS
+$$
+DECLARE
+  remaining BIGINT := (SELECT COUNT(*) FROM koulutusmahdollisuus_data.changed);
+BEGIN
+  IF remaining > 0 THEN
+    RAISE EXCEPTION 'koulutusmahdollisuus import has % unapplied changes, run import_changes()',
+      remaining;
+  END IF;
+
+  CALL koulutusmahdollisuus_data.reactivate();
+
+  UPDATE koulutusmahdollisuus
+  SET aktiivinen = FALSE
+  WHERE aktiivinen
+    AND id NOT IN (SELECT id FROM koulutusmahdollisuus_data.import);
+
+  INSERT INTO mahdollisuus_versio AS v (versio)
+  VALUES (1)
+  ON CONFLICT (id) DO UPDATE SET versio = v.versio + 1;
+END;
+$$;
+
+GRANT SELECT
+  ON tyomahdollisuus_data.changed, koulutusmahdollisuus_data.changed
+  TO dataloader;
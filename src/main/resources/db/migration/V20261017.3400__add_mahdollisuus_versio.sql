@@ -0,0 +1,9 @@
+-- Version of the tyomahdollisuus/koulutusmahdollisuus catalog, bumped by the import procedures
+CREATE TABLE mahdollisuus_versio
+(
+  id     INTEGER GENERATED ALWAYS AS (1) STORED NOT NULL PRIMARY KEY,
+  versio BIGINT                                 NOT NULL
+);
+
+INSERT INTO mahdollisuus_versio (versio)
+VALUES (1);
@@ -0,0 +1,27 @@
+-- Notify the application nodes when a catalog version changes (delivered on commit),
+-- the payload is the name of the version table
+CREATE OR REPLACE FUNCTION notify_versio_change() RETURNS TRIGGER AS
+$$
+BEGIN
+  PERFORM pg_notify('jod_versio', TG_TABLE_NAME);
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER osaaminen_versio_notify
+  AFTER INSERT OR UPDATE
+  ON osaaminen_versio
+  FOR EACH ROW
+EXECUTE FUNCTION notify_versio_change();
+
+CREATE TRIGGER ammatti_versio_notify
+  AFTER INSERT OR UPDATE
+  ON ammatti_versio
+  FOR EACH ROW
+EXECUTE FUNCTION notify_versio_change();
+
+CREATE TRIGGER mahdollisuus_versio_notify
+  AFTER INSERT OR UPDATE
+  ON mahdollisuus_versio
+  FOR EACH ROW
+EXECUTE FUNCTION notify_versio_change();
@@ -0,0 +1,2 @@
+-- Supports the external profile export, which pages the profiles in (muokattu, id) order
+CREATE INDEX ix_yksilo_muokattu_id ON yksilo (muokattu, id);
@@ -0,0 +1,16 @@
+-- Change log (outbox) of the profiles for the external API, written in the same transaction as the
+-- change. The log has no foreign key to yksilo, so the deletion tombstones outlive the profiles.
+-- The feed is read in (transaktio, id) order: all the transactions older than the oldest running
+-- transaction have finished, so the rows below that horizon never change and a consumer that
+-- resumes after its last (transaktio, id) position cannot miss a late committed row.
+CREATE TABLE profiili_muutos
+(
+  id         BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+  transaktio XID8        NOT NULL DEFAULT pg_current_xact_id(),
+  yksilo_id  UUID        NOT NULL,
+  tyyppi     VARCHAR(20) NOT NULL CHECK ( tyyppi IN ('MUOKATTU', 'POISTETTU') ),
+  luotu      TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX ix_profiili_muutos_transaktio_id ON profiili_muutos (transaktio, id);
+CREATE INDEX ix_profiili_muutos_luotu ON profiili_muutos (luotu);
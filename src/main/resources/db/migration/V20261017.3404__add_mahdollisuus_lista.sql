@@ -0,0 +1,66 @@
+-- Materialized mahdollisuus_view, one partition per language. The rows are ordered by the
+-- (trimmed) title using the collation of the language, jarjestys is the position in that order.
+-- Refreshed whenever the catalog version changes, i.e. at the end of the import procedures.
+CREATE TABLE mahdollisuus_lista
+(
+  id              UUID         NOT NULL,
+  kieli           VARCHAR(255) NOT NULL,
+  jarjestys       INTEGER      NOT NULL,
+  tyyppi          VARCHAR(255) NOT NULL,
+  ammattiryhma    VARCHAR(255),
+  aineisto        VARCHAR(255),
+  otsikko         TEXT,
+  koulutus_tyyppi VARCHAR(255),
+  maakunnat       VARCHAR(255)[],
+  toimialat       VARCHAR(255)[],
+  koulutusalat    VARCHAR(255)[],
+  kesto           DOUBLE PRECISION,
+  kesto_minimi    DOUBLE PRECISION,
+  kesto_maksimi   DOUBLE PRECISION,
+  PRIMARY KEY (kieli, id),
+  UNIQUE (kieli, jarjestys)
+) PARTITION BY LIST (kieli);
+
+CREATE TABLE mahdollisuus_lista_fi PARTITION OF mahdollisuus_lista FOR VALUES IN ('FI');
+CREATE TABLE mahdollisuus_lista_sv PARTITION OF mahdollisuus_lista FOR VALUES IN ('SV');
+CREATE TABLE mahdollisuus_lista_en PARTITION OF mahdollisuus_lista FOR VALUES IN ('EN');
+
+CREATE OR REPLACE FUNCTION refresh_mahdollisuus_lista() RETURNS TRIGGER AS
+$$
+BEGIN
+  -- DELETE instead of TRUNCATE, the readers see the previous contents until commit
+  DELETE FROM mahdollisuus_lista;
+
+  INSERT INTO mahdollisuus_lista
+  SELECT v.id, v.kieli, ROW_NUMBER() OVER (ORDER BY TRIM(v.otsikko) COLLATE "fi-x-icu", v.id),
+         v.tyyppi, v.ammattiryhma, v.aineisto, v.otsikko, v.koulutus_tyyppi, v.maakunnat,
+         v.toimialat, v.koulutusalat, v.kesto, v.kesto_minimi, v.kesto_maksimi
+  FROM mahdollisuus_view v
+  WHERE v.kieli = 'FI';
+
+  INSERT INTO mahdollisuus_lista
+  SELECT v.id, v.kieli, ROW_NUMBER() OVER (ORDER BY TRIM(v.otsikko) COLLATE "sv-x-icu", v.id),
+         v.tyyppi, v.ammattiryhma, v.aineisto, v.otsikko, v.koulutus_tyyppi, v.maakunnat,
+         v.toimialat, v.koulutusalat, v.kesto, v.kesto_minimi, v.kesto_maksimi
+  FROM mahdollisuus_view v
+  WHERE v.kieli = 'SV';
+
+  INSERT INTO mahdollisuus_lista
+  SELECT v.id, v.kieli, ROW_NUMBER() OVER (ORDER BY TRIM(v.otsikko) COLLATE "en-x-icu", v.id),
+         v.tyyppi, v.ammattiryhma, v.aineisto, v.otsikko, v.koulutus_tyyppi, v.maakunnat,
+         v.toimialat, v.koulutusalat, v.kesto, v.kesto_minimi, v.kesto_maksimi
+  FROM mahdollisuus_view v
+  WHERE v.kieli = 'EN';
+
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER mahdollisuus_versio_refresh
+  AFTER INSERT OR UPDATE
+  ON mahdollisuus_versio
+  FOR EACH ROW
+EXECUTE FUNCTION refresh_mahdollisuus_lista();
+
+UPDATE mahdollisuus_versio
+SET versio = versio + 1;
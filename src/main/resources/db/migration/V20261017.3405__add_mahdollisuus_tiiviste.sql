@@ -0,0 +1,6 @@
+-- SHA-256 of the imported JSON data, the import applies only the opportunities whose data changed
+ALTER TABLE tyomahdollisuus
+  ADD COLUMN tiiviste BYTEA;
+
+ALTER TABLE koulutusmahdollisuus
+  ADD COLUMN tiiviste BYTEA;
@@ -0,0 +1,54 @@
+-- Staging table for the ESCO CSV files (one row per concept and language), loaded by
+-- esco-update-task and merged to the JSON staging tables by esco_data.import_labels()
+CREATE UNLOGGED TABLE esco_data.labels
+(
+  kind        TEXT NOT NULL,
+  lang        TEXT NOT NULL,
+  uri         TEXT NOT NULL,
+  label       TEXT,
+  description TEXT,
+  notation    TEXT
+);
+
+CREATE OR REPLACE PROCEDURE esco_data.import_labels()
+  LANGUAGE sql
+BEGIN
+  ATOMIC
+  DELETE FROM esco_data.skills;
+  DELETE FROM esco_data.skill_descriptions;
+  DELETE FROM esco_data.occupations;
+  DELETE FROM esco_data.occupation_descriptions;
+
+  INSERT INTO esco_data.skills(data)
+  SELECT JSONB_BUILD_OBJECT('uri', l.uri,
+                            'prefLabel', JSONB_OBJECT_AGG(l.lang, l.label))
+  FROM esco_data.labels l
+  WHERE l.kind = 'skill'
+    AND l.label IS NOT NULL
+  GROUP BY l.uri;
+
+  INSERT INTO esco_data.skill_descriptions(data)
+  SELECT JSONB_BUILD_OBJECT('key', l.uri,
+                            'value', JSONB_OBJECT_AGG(l.lang, l.description))
+  FROM esco_data.labels l
+  WHERE l.kind = 'skill'
+    AND l.description IS NOT NULL
+  GROUP BY l.uri;
+
+  INSERT INTO esco_data.occupations(data)
+  SELECT JSONB_BUILD_OBJECT('uri', l.uri,
+                            'notation', MAX(l.notation),
+                            'prefLabel', JSONB_OBJECT_AGG(l.lang, l.label))
+  FROM esco_data.labels l
+  WHERE l.kind = 'occupation'
+    AND l.label IS NOT NULL
+  GROUP BY l.uri;
+
+  INSERT INTO esco_data.occupation_descriptions(data)
+  SELECT JSONB_BUILD_OBJECT('key', l.uri,
+                            'value', JSONB_OBJECT_AGG(l.lang, l.description))
+  FROM esco_data.labels l
+  WHERE l.kind = 'occupation'
+    AND l.description IS NOT NULL
+  GROUP BY l.uri;
+END;
@@ -29,7 +29,7 @@ import org.testcontainers.postgresql.PostgreSQLContainer;
 public abstract class IntegrationTest {
 
   @ServiceConnection
-  private static final PostgreSQLContainer POSTGRES_CONTAINER =
+  protected static final PostgreSQLContainer POSTGRES_CONTAINER =
       TestUtil.createPostgreSqlContainer();
 
   @ServiceConnection
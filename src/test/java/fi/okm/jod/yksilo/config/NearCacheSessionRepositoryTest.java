@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import fi.okm.jod.yksilo.testutil.TestUtil;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Testcontainers
+class NearCacheSessionRepositoryTest {
+
+  private static final String NAMESPACE = "test:session";
+
+  @Container
+  static GenericContainer<?> redisContainer = TestUtil.createRedisContainer();
+
+  private static LettuceConnectionFactory connectionFactory;
+  private static RedisTemplate<String, Object> redis;
+
+  @BeforeAll
+  static void setUp() {
+    connectionFactory = TestUtil.createRedisConnectionFactory(redisContainer);
+    redis = new RedisTemplate<>();
+    redis.setConnectionFactory(connectionFactory);
+    redis.setKeySerializer(RedisSerializer.string());
+    redis.setValueSerializer(RedisSerializer.string());
+    redis.setHashKeySerializer(RedisSerializer.string());
+    redis.setHashValueSerializer(RedisSerializer.java());
+    redis.afterPropertiesSet();
+  }
+
+  @AfterAll
+  static void tearDown() {
+    connectionFactory.destroy();
+  }
+
+  private static NearCacheSessionRepository repository() {
+    return new NearCacheSessionRepository(
+        redis,
+        NAMESPACE,
+        Duration.ofMinutes(30),
+        Duration.ofMinutes(1),
+        100,
+        Duration.ofMinutes(1));
+  }
+
+  @Test
+  void shouldStoreSessionsInRedis() {
+    var session = repository().createSession();
+    session.setAttribute("name", "value");
+    repository().save(session);
+
+    var other = repository();
+    var found = other.findById(session.getId());
+    assertThat(found).isNotNull();
+    assertThat(found.<String>getAttribute("name")).isEqualTo("value");
+    assertThat(found.getCreationTime().toEpochMilli())
+        .isEqualTo(session.getCreationTime().toEpochMilli());
+
+    found.removeAttribute("name");
+    other.save(found);
+
+    assertThat(repository().findById(session.getId()).getAttributeNames()).isEmpty();
+    assertThat(redis.getExpire(NAMESPACE + ":sessions:" + session.getId())).isPositive();
+  }
+
+  @Test
+  void shouldServeSessionsFromCacheUntilInvalidated() {
+    var repository = repository();
+    var session = repository.createSession();
+    session.setAttribute("name", "value");
+    repository.save(session);
+    var id = session.getId();
+
+    // changed by another instance
+    var other = repository();
+    var changed = other.findById(id);
+    changed.setAttribute("name", "changed");
+    other.save(changed);
+
+    assertThat(repository.findById(id).<String>getAttribute("name")).isEqualTo("value");
+
+    repository.onMessage(
+        new DefaultMessage(
+            repository.channel().getBytes(StandardCharsets.UTF_8),
+            id.getBytes(StandardCharsets.UTF_8)),
+        null);
+
+    assertThat(repository.findById(id).<String>getAttribute("name")).isEqualTo("changed");
+  }
+
+  @Test
+  void shouldNotShareChangesBeforeSave() {
+    var repository = repository();
+    var session = repository.createSession();
+    repository.save(session);
+
+    repository.findById(session.getId()).setAttribute("name", "value");
+
+    assertThat(repository.findById(session.getId()).getAttributeNames()).isEmpty();
+  }
+
+  @Test
+  void shouldCoalesceLastAccessedTimeWrites() {
+    var repository = repository();
+    var session = repository.createSession();
+    repository.save(session);
+    var key = NAMESPACE + ":sessions:" + session.getId();
+    var created = redis.opsForHash().get(key, NearCacheSessionRepository.LAST_ACCESSED_TIME);
+
+    var accessed = repository.findById(session.getId());
+    accessed.setLastAccessedTime(accessed.getLastAccessedTime().plusSeconds(10));
+    repository.save(accessed);
+
+    assertThat(redis.opsForHash().get(key, NearCacheSessionRepository.LAST_ACCESSED_TIME))
+        .isEqualTo(created);
+
+    accessed = repository.findById(session.getId());
+    accessed.setLastAccessedTime(accessed.getLastAccessedTime().plusSeconds(60));
+    repository.save(accessed);
+
+    assertThat(redis.opsForHash().get(key, NearCacheSessionRepository.LAST_ACCESSED_TIME))
+        .isEqualTo(accessed.getLastAccessedTime().toEpochMilli());
+
+    // the interval is counted from the last write, not from the last cached access
+    var written = accessed.getLastAccessedTime();
+    accessed = repository.findById(session.getId());
+    accessed.setLastAccessedTime(written.plusSeconds(10));
+    repository.save(accessed);
+    accessed = repository.findById(session.getId());
+    accessed.setLastAccessedTime(written.plusSeconds(65));
+    repository.save(accessed);
+
+    assertThat(redis.opsForHash().get(key, NearCacheSessionRepository.LAST_ACCESSED_TIME))
+        .isEqualTo(written.plusSeconds(65).toEpochMilli());
+  }
+
+  @Test
+  void shouldDeleteSessions() {
+    var repository = repository();
+    var session = repository.createSession();
+    repository.save(session);
+
+    repository.deleteById(session.getId());
+
+    assertThat(repository.findById(session.getId())).isNull();
+    assertThat(repository().findById(session.getId())).isNull();
+  }
+
+  @Test
+  void shouldIgnoreChangedIdOfDeletedSession() {
+    var repository = repository();
+    var session = repository.createSession();
+    repository.save(session);
+    var found = repository.findById(session.getId());
+
+    redis.delete(NAMESPACE + ":sessions:" + session.getId());
+    found.changeSessionId();
+    repository.save(found);
+
+    assertThat(repository().findById(found.getId())).isNull();
+  }
+}
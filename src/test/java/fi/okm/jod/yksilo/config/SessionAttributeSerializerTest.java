@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import fi.okm.jod.yksilo.controller.KeskusteluController.InferenceSession;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJacksonJsonRedisSerializer;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+class SessionAttributeSerializerTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private GenericJacksonJsonRedisSerializer jsonSerializer;
+  private SessionAttributeSerializer serializer;
+
+  @BeforeEach
+  void setUp() {
+    var config = new SessionConfig();
+    config.setBeanClassLoader(getClass().getClassLoader());
+    jsonSerializer = new GenericJacksonJsonRedisSerializer(config.configure(JsonMapper.builder()));
+    serializer =
+        new SessionAttributeSerializer(
+            config.configure(SmileMapper.builder()), jsonSerializer, true, registry);
+  }
+
+  @Test
+  void shouldRoundTripSessionAttributes() {
+    var context =
+        new SecurityContextImpl(
+            UsernamePasswordAuthenticationToken.authenticated(
+                "user", null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    var inferenceSession = new InferenceSession(UUID.randomUUID(), 1L, "signature");
+
+    for (var value : List.of("value", 1_760_000_000_000L, 42, true, context, inferenceSession)) {
+      var bytes = serializer.serialize(value);
+      assertThat(bytes[0]).isEqualTo(SessionAttributeSerializer.MAGIC);
+      assertThat(serializer.deserialize(bytes)).isEqualTo(value);
+    }
+  }
+
+  @Test
+  void shouldReadJsonSessionAttributes() {
+    var inferenceSession = new InferenceSession(UUID.randomUUID(), 1L, "signature");
+
+    assertThat(serializer.deserialize(jsonSerializer.serialize(inferenceSession)))
+        .isEqualTo(inferenceSession);
+    assertThat(serializer.deserialize(jsonSerializer.serialize("value"))).isEqualTo("value");
+  }
+
+  @Test
+  void shouldBeSmallerThanJsonAndRecordSizes() {
+    var inferenceSession = new InferenceSession(UUID.randomUUID(), 1L, "signature");
+
+    var bytes = serializer.serialize(inferenceSession);
+
+    assertThat(bytes.length).isLessThan(jsonSerializer.serialize(inferenceSession).length);
+    var summary =
+        registry
+            .get("fi.okm.jod.yksilo.session.attribute.size")
+            .tag("type", "InferenceSession")
+            .summary();
+    assertThat(summary.count()).isOne();
+    assertThat(summary.totalAmount()).isEqualTo(bytes.length);
+  }
+
+  @Test
+  void shouldWriteJsonWhenBinaryFormatIsDisabled() {
+    var config = new SessionConfig();
+    config.setBeanClassLoader(getClass().getClassLoader());
+    var jsonOnly =
+        new SessionAttributeSerializer(
+            config.configure(SmileMapper.builder()), jsonSerializer, false, registry);
+
+    var bytes = jsonOnly.serialize("value");
+
+    assertThat(bytes).isEqualTo(jsonSerializer.serialize("value"));
+    assertThat(serializer.deserialize(bytes)).isEqualTo("value");
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.config.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveLimitTest {
+
+  @Test
+  void shouldRejectAboveLimit() {
+    var limit = new AdaptiveLimit(2, 1, 4);
+
+    assertThat(limit.tryAcquire()).isTrue();
+    assertThat(limit.tryAcquire()).isTrue();
+    assertThat(limit.tryAcquire()).isFalse();
+
+    limit.release(200);
+    assertThat(limit.tryAcquire()).isTrue();
+  }
+
+  @Test
+  void shouldShrinkOnOverloadAndGrowWhenSaturated() {
+    var limit = new AdaptiveLimit(10, 2, 12);
+
+    for (int i = 0; i < 20; i++) {
+      limit.tryAcquire();
+      limit.release(429);
+    }
+    assertThat(limit.limit()).isEqualTo(2);
+
+    for (int i = 0; i < 100; i++) {
+      limit.tryAcquire();
+      limit.tryAcquire();
+      limit.release(200);
+      limit.release(200);
+    }
+    assertThat(limit.limit()).isEqualTo(12);
+  }
+
+  @Test
+  void shouldNotGrowWhenUnused() {
+    var limit = new AdaptiveLimit(10, 2, 20);
+
+    for (int i = 0; i < 100; i++) {
+      limit.tryAcquire();
+      limit.release(200);
+    }
+    assertThat(limit.limit()).isEqualTo(10);
+  }
+}
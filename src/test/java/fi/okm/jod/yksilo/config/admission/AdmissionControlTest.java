@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.config.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import fi.okm.jod.yksilo.testutil.TestUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+// the tests share the buckets and flush them
+@Execution(ExecutionMode.SAME_THREAD)
+@Testcontainers
+class AdmissionControlTest {
+
+  private static final String ENDPOINT = "/api/ehdotus/**";
+
+  @Container
+  static GenericContainer<?> redisContainer = TestUtil.createRedisContainer();
+
+  private static LettuceConnectionFactory connectionFactory;
+  private static StringRedisTemplate redis;
+
+  @BeforeAll
+  static void setUp() {
+    connectionFactory = TestUtil.createRedisConnectionFactory(redisContainer);
+    redis = new StringRedisTemplate(connectionFactory);
+  }
+
+  @AfterAll
+  static void tearDown() {
+    connectionFactory.destroy();
+  }
+
+  @BeforeEach
+  void flush() {
+    redis.getConnectionFactory().getConnection().serverCommands().flushAll();
+  }
+
+  private static AdmissionControl admissionControl(int clientBurst, int endpointBurst) {
+    return new AdmissionControl(
+        new AdmissionProperties(
+            List.of(ENDPOINT), "", clientBurst, 0.01, endpointBurst, 0.01, 4, 1, 8),
+        redis,
+        new SimpleMeterRegistry());
+  }
+
+  private static MockHttpServletRequest request(String method, String path) {
+    var request = new MockHttpServletRequest(method, "/yksilo" + path);
+    request.setContextPath("/yksilo");
+    return request;
+  }
+
+  private static MockHttpServletRequest request(String address) {
+    var request = new MockHttpServletRequest("POST", "/yksilo/api/ehdotus/osaamiset");
+    request.setContextPath("/yksilo");
+    request.setRemoteAddr(address);
+    return request;
+  }
+
+  @Test
+  void shouldLimitOnlyConfiguredEndpoints() {
+    var admissionControl = admissionControl(1, 1);
+
+    assertThat(admissionControl.endpointOf(request("10.0.0.1"))).isEqualTo(ENDPOINT);
+    var get = request("10.0.0.1");
+    get.setMethod("GET");
+    assertThat(admissionControl.endpointOf(get)).isNull();
+    var other = new MockHttpServletRequest("POST", "/yksilo/api/profiili/yksilo");
+    other.setContextPath("/yksilo");
+    assertThat(admissionControl.endpointOf(other)).isNull();
+  }
+
+  @Test
+  void shouldLimitOnlyInferenceRoutes() {
+    var admissionControl =
+        new AdmissionControl(
+            new AdmissionProperties(
+                List.of("/api/keskustelut", "/api/keskustelut/*", "/api/profiili/cv"),
+                "",
+                1,
+                0.01,
+                1,
+                0.01,
+                4,
+                1,
+                8),
+            redis,
+            new SimpleMeterRegistry());
+    var id = UUID.randomUUID();
+
+    assertThat(admissionControl.endpointOf(request("POST", "/api/keskustelut")))
+        .isEqualTo("/api/keskustelut");
+    assertThat(admissionControl.endpointOf(request("POST", "/api/keskustelut/" + id)))
+        .isEqualTo("/api/keskustelut/*");
+    assertThat(admissionControl.endpointOf(request("GET", "/api/keskustelut/" + id))).isNull();
+    assertThat(admissionControl.endpointOf(request("POST", "/api/profiili/cv")))
+        .isEqualTo("/api/profiili/cv");
+    assertThat(admissionControl.endpointOf(request("POST", "/api/profiili/cv/" + id))).isNull();
+  }
+
+  @Test
+  void shouldLimitClients() {
+    var admissionControl = admissionControl(2, 100);
+
+    assertThat(admissionControl.takeToken(ENDPOINT, request("10.0.0.1"))).isZero();
+    assertThat(admissionControl.takeToken(ENDPOINT, request("10.0.0.1"))).isZero();
+    assertThat(admissionControl.takeToken(ENDPOINT, request("10.0.0.1")))
+        .isPositive()
+        .isLessThanOrEqualTo(Duration.ofSeconds(100));
+
+    assertThat(admissionControl.takeToken(ENDPOINT, request("10.0.0.2"))).isZero();
+  }
+
+  @Test
+  void shouldLimitEndpoint() {
+    var admissionControl = admissionControl(100, 2);
+
+    assertThat(admissionControl.takeToken(ENDPOINT, request("10.0.0.1"))).isZero();
+    assertThat(admissionControl.takeToken(ENDPOINT, request("10.0.0.2"))).isZero();
+    assertThat(admissionControl.takeToken(ENDPOINT, request("10.0.0.3"))).isPositive();
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.config.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.zaxxer.hikari.HikariDataSource;
+import fi.okm.jod.yksilo.IntegrationTest;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class ReplicaDataSourceConfigTest extends IntegrationTest {
+
+  @DynamicPropertySource
+  static void replicas(DynamicPropertyRegistry registry) {
+    // the primary database doubles as a replica without replication lag
+    registry.add("jod.datasource.replica.urls", POSTGRES_CONTAINER::getJdbcUrl);
+  }
+
+  @Autowired private DataSource dataSource;
+  @Autowired private ReplicaRouter router;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  @Test
+  void shouldWrapThePrimaryDataSource() throws SQLException {
+    assertInstanceOf(LazyConnectionDataSourceProxy.class, dataSource);
+    assertTrue(dataSource.isWrapperFor(HikariDataSource.class));
+  }
+
+  @Test
+  void shouldRouteReadOnlyTransactionsToReplicas() {
+    router.checkLag();
+    var replica = assertInstanceOf(HikariDataSource.class, router.select());
+    assertEquals("replica-0", replica.getPoolName());
+
+    var readOnly = new TransactionTemplate(transactionManager);
+    readOnly.setReadOnly(true);
+    assertEquals(
+        "on",
+        readOnly.execute(
+            status -> jdbcTemplate.queryForObject("SHOW transaction_read_only", String.class)));
+  }
+}
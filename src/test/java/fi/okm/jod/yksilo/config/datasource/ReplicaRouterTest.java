@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.config.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+class ReplicaRouterTest {
+
+  private final DataSource primary = mock(DataSource.class);
+  private final AtomicLong clock = new AtomicLong(1_000_000);
+
+  @AfterEach
+  void tearDown() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  @Test
+  void shouldUsePrimaryBeforeLagCheck() throws SQLException {
+    var router = router(replica(0));
+    assertSame(primary, router.select());
+  }
+
+  @Test
+  void shouldUseReplicasWithinMaxLag() throws SQLException {
+    var first = replica(0);
+    var lagging = replica(60);
+    var second = replica(1);
+    var router = router(first, lagging, second);
+
+    router.checkLag();
+
+    assertSame(first, router.select());
+    assertSame(second, router.select());
+    assertSame(first, router.select());
+  }
+
+  @Test
+  void shouldUsePrimaryIfReplicasLag() throws SQLException {
+    var router = router(replica(60));
+    router.checkLag();
+    assertSame(primary, router.select());
+  }
+
+  @Test
+  void shouldUsePrimaryIfReplicaFails() throws SQLException {
+    var failing = mock(DataSource.class);
+    when(failing.getConnection()).thenThrow(new SQLException("connection refused"));
+    var router = router(failing);
+
+    router.checkLag();
+
+    assertSame(primary, router.select());
+  }
+
+  @Test
+  void shouldReadOwnWritesFromPrimary() throws SQLException {
+    var replica = replica(0);
+    var router = router(replica);
+    router.checkLag();
+    var request = new MockHttpServletRequest();
+    request.getSession(true);
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+    router.profileChanged();
+
+    assertSame(primary, router.select());
+    clock.addAndGet(Duration.ofSeconds(5).toMillis());
+    assertSame(replica, router.select());
+  }
+
+  private ReplicaRouter router(DataSource... replicas) {
+    var router = new ReplicaRouter(List.of(replicas), Duration.ofSeconds(5), clock::get);
+    router.setPrimary(primary);
+    return router;
+  }
+
+  private static DataSource replica(double lagSeconds) throws SQLException {
+    var resultSet = mock(ResultSet.class);
+    when(resultSet.next()).thenReturn(true);
+    when(resultSet.getDouble(1)).thenReturn(lagSeconds);
+    var statement = mock(Statement.class);
+    when(statement.executeQuery(anyString())).thenReturn(resultSet);
+    var connection = mock(Connection.class);
+    when(connection.createStatement()).thenReturn(statement);
+    var dataSource = mock(DataSource.class);
+    when(dataSource.getConnection()).thenReturn(connection);
+    return dataSource;
+  }
+}
@@ -10,20 +10,38 @@
 package fi.okm.jod.yksilo.controller;
 
 import static fi.okm.jod.yksilo.testutil.LocalizedStrings.ls;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import fi.okm.jod.yksilo.config.SecurityConfig;
 import fi.okm.jod.yksilo.config.mapping.MappingConfig;
 import fi.okm.jod.yksilo.controller.KeskusteluController.InferenceRequest;
 import fi.okm.jod.yksilo.controller.KeskusteluController.InferenceResponse;
+import fi.okm.jod.yksilo.controller.KeskusteluController.InferenceSession;
+import fi.okm.jod.yksilo.controller.KeskusteluController.Rooli;
 import fi.okm.jod.yksilo.controller.KeskusteluController.Tila;
 import fi.okm.jod.yksilo.controller.KeskusteluController.UusiKeskustelu;
+import fi.okm.jod.yksilo.controller.KeskusteluController.Viesti;
+import fi.okm.jod.yksilo.domain.EscoIds;
 import fi.okm.jod.yksilo.domain.Kieli;
 import fi.okm.jod.yksilo.errorhandler.ErrorInfoFactory;
+import fi.okm.jod.yksilo.service.AmmattiService;
+import fi.okm.jod.yksilo.service.OsaaminenService;
 import fi.okm.jod.yksilo.service.inference.InferenceService;
+import java.net.URI;
 import java.time.Instant;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
@@ -32,16 +50,28 @@ import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
-import org.springframework.mock.web.MockHttpSession;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
-import tools.jackson.databind.JsonNode;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import tools.jackson.databind.ObjectMapper;
 
 @WebMvcTest(value = KeskusteluController.class)
 @Import({ErrorInfoFactory.class, MappingConfig.class, SecurityConfig.class})
 class KeskusteluControllerTest {
+  private static final URI OSAAMINEN = URI.create("urn:osaaminen");
+  private static final URI TUNTEMATON = URI.create("urn:tuntematon");
+  private static final InferenceSession SESSION =
+      new InferenceSession(UUID.randomUUID(), Instant.now().getEpochSecond(), "signature");
+
   @Autowired private MockMvc mockMvc;
   @Autowired private ObjectMapper mapper;
+  @MockitoBean private OsaaminenService osaaminenService;
+  @MockitoBean private AmmattiService ammattiService;
+  @MockitoBean private KeskusteluStore store;
 
   @TestConfiguration
   static class TestConfig {
@@ -51,73 +81,129 @@ class KeskusteluControllerTest {
         if (payload.session() == null) {
           var sessionId = UUID.randomUUID();
           var session =
-              new KeskusteluController.InferenceSession(
-                  sessionId, Instant.now().getEpochSecond(), "dummy-signature");
-          return new InferenceResponse(session, Set.of(), payload.message());
+              new InferenceSession(sessionId, Instant.now().getEpochSecond(), "dummy-signature");
+          return new InferenceResponse(
+              session, Set.of(OSAAMINEN, TUNTEMATON), payload.message());
         }
         return new InferenceResponse(payload.session(), Set.of(), payload.message());
       };
     }
+
+    @Bean
+    TaskExecutor taskExecutor() {
+      return new SimpleAsyncTaskExecutor();
+    }
   }
 
-  @Test
-  void shouldStartNewConversation() throws Exception {
-    mockMvc
-        .perform(
-            post("/api/keskustelut")
-                .contentType("application/json")
-                .content(
-                    mapper.writeValueAsString(
-                        new UusiKeskustelu(ls(Kieli.FI, "START"), Tila.KIINNOSTUKSET))))
-        .andExpect(status().isOk())
-        .andExpect(jsonPath("$.vastaus").value("START"));
+  /** Performs the request and dispatches its asynchronous result. */
+  private ResultActions performAsync(RequestBuilder builder) throws Exception {
+    return mockMvc.perform(
+        asyncDispatch(mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn()));
   }
 
   @Test
-  void shouldContinueConversation() throws Exception {
-    var session = new MockHttpSession();
+  void shouldStartNewConversationWithoutSession() throws Exception {
+    when(store.create(any())).thenReturn("avain");
+
     var result =
-        mockMvc
-            .perform(
+        performAsync(
                 post("/api/keskustelut")
-                    .session(session)
                     .contentType("application/json")
                     .content(
                         mapper.writeValueAsString(
                             new UusiKeskustelu(ls(Kieli.FI, "START"), Tila.KIINNOSTUKSET))))
             .andExpect(status().isOk())
+            .andExpect(jsonPath("$.vastaus").value("START"))
+            .andExpect(jsonPath("$.avain").value("avain"))
             .andReturn();
 
-    var response = mapper.readValue(result.getResponse().getContentAsString(), JsonNode.class);
-    mockMvc
-        .perform(
-            post("/api/keskustelut/{id}", response.path("id").asString())
-                .session(session)
+    assertThat(result.getRequest().getSession(false)).isNull();
+    verify(store).append(any(), any(Viesti.class), any(Viesti.class));
+  }
+
+  @Test
+  void shouldContinueConversation() throws Exception {
+    when(store.find(SESSION.id(), "avain")).thenReturn(SESSION);
+
+    performAsync(
+            post("/api/keskustelut/{id}", SESSION.id())
+                .header(KeskusteluController.AVAIN_HEADER, "avain")
                 .contentType("application/json")
                 .content(mapper.writeValueAsString(ls(Kieli.FI, "CONTINUE"))))
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.vastaus").value("CONTINUE"));
+
+    verify(store)
+        .append(
+            SESSION,
+            new Viesti(Rooli.KAYTTAJA, "CONTINUE"),
+            new Viesti(Rooli.OHJAAJA, "CONTINUE"));
   }
 
   @Test
   void shouldNotContinueNonExistingConversation() throws Exception {
-    var session = new MockHttpSession();
-    mockMvc
-        .perform(
-            post("/api/keskustelut")
-                .session(session)
+    when(store.find(SESSION.id(), "avain")).thenReturn(SESSION);
+
+    performAsync(
+            post("/api/keskustelut/{id}", SESSION.id())
+                .header(KeskusteluController.AVAIN_HEADER, "vaara")
                 .contentType("application/json")
-                .content(
-                    mapper.writeValueAsString(
-                        new UusiKeskustelu(ls(Kieli.FI, "START"), Tila.KIINNOSTUKSET))))
-        .andExpect(status().isOk());
+                .content(mapper.writeValueAsString(ls(Kieli.FI, "CONTINUE"))))
+        .andExpect(status().isNotFound());
 
-    mockMvc
-        .perform(
+    performAsync(
             post("/api/keskustelut/{id}", UUID.randomUUID())
-                .session(session)
                 .contentType("application/json")
                 .content(mapper.writeValueAsString(ls(Kieli.FI, "CONTINUE"))))
         .andExpect(status().isNotFound());
   }
+
+  @Test
+  void shouldReturnConversationHistory() throws Exception {
+    when(store.find(SESSION.id(), "avain")).thenReturn(SESSION);
+    when(store.history(SESSION))
+        .thenReturn(
+            List.of(new Viesti(Rooli.KAYTTAJA, "START"), new Viesti(Rooli.OHJAAJA, "VASTAUS")));
+
+    mockMvc
+        .perform(
+            get("/api/keskustelut/{id}", SESSION.id())
+                .header(KeskusteluController.AVAIN_HEADER, "avain"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].rooli").value("KAYTTAJA"))
+        .andExpect(jsonPath("$[1].viesti").value("VASTAUS"));
+  }
+
+  @Test
+  void shouldStreamConversation() throws Exception {
+    when(osaaminenService.getIds()).thenReturn(EscoIds.of(List.of(OSAAMINEN)));
+    when(ammattiService.getIds()).thenReturn(EscoIds.EMPTY);
+    when(store.create(any())).thenReturn("avain");
+
+    var result =
+        mockMvc
+            .perform(
+                post("/api/keskustelut")
+                    .accept(MediaType.TEXT_EVENT_STREAM)
+                    .contentType("application/json")
+                    .content(
+                        mapper.writeValueAsString(
+                            new UusiKeskustelu(ls(Kieli.FI, "START"), Tila.KIINNOSTUKSET))))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    mockMvc
+        .perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+        .andExpect(
+            content().string(containsString("event:osa\ndata:{\"vastaus\":\"START\"")))
+        .andExpect(content().string(containsString(OSAAMINEN.toString())))
+        .andExpect(content().string(not(containsString(TUNTEMATON.toString()))))
+        .andExpect(content().string(containsString("event:valmis")))
+        .andExpect(content().string(containsString("\"avain\":\"avain\"")));
+
+    assertThat(result.getRequest().getSession(false)).isNull();
+    verify(store).append(any(), any(Viesti.class), any(Viesti.class));
+  }
 }
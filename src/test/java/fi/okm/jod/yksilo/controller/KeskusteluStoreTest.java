@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import fi.okm.jod.yksilo.controller.KeskusteluController.InferenceSession;
+import fi.okm.jod.yksilo.controller.KeskusteluController.Rooli;
+import fi.okm.jod.yksilo.controller.KeskusteluController.Viesti;
+import fi.okm.jod.yksilo.testutil.TestUtil;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import tools.jackson.databind.json.JsonMapper;
+
+@Testcontainers
+class KeskusteluStoreTest {
+
+  @Container
+  static GenericContainer<?> redisContainer = TestUtil.createRedisContainer();
+
+  private static LettuceConnectionFactory connectionFactory;
+  private static StringRedisTemplate redis;
+  private static KeskusteluStore store;
+
+  @BeforeAll
+  static void setUp() {
+    connectionFactory = TestUtil.createRedisConnectionFactory(redisContainer);
+    redis = new StringRedisTemplate(connectionFactory);
+    store = new KeskusteluStore(redis, JsonMapper.builder().build());
+  }
+
+  @AfterAll
+  static void tearDown() {
+    connectionFactory.destroy();
+  }
+
+  private static InferenceSession newSession() {
+    return new InferenceSession(UUID.randomUUID(), Instant.now().getEpochSecond(), "signature");
+  }
+
+  @Test
+  void shouldFindConversationOnlyWithKey() {
+    var session = newSession();
+    var avain = store.create(session);
+
+    assertThat(store.find(session.id(), avain)).isEqualTo(session);
+    assertThat(store.find(session.id(), avain + "x")).isNull();
+    assertThat(store.find(session.id(), null)).isNull();
+    assertThat(store.find(UUID.randomUUID(), avain)).isNull();
+    assertThat(redis.getExpire(KeskusteluStore.KEY_PREFIX + session.id())).isPositive();
+  }
+
+  @Test
+  void shouldKeepLatestMessages() {
+    var session = newSession();
+    store.create(session);
+
+    IntStream.range(0, KeskusteluStore.MAX_HISTORY + 2)
+        .forEach(i -> store.append(session, new Viesti(Rooli.KAYTTAJA, "viesti " + i)));
+
+    var history = store.history(session);
+    assertThat(history).hasSize(KeskusteluStore.MAX_HISTORY);
+    assertThat(history.getFirst().viesti()).isEqualTo("viesti 2");
+    assertThat(history.getLast().viesti())
+        .isEqualTo("viesti " + (KeskusteluStore.MAX_HISTORY + 1));
+    assertThat(redis.getExpire(KeskusteluStore.KEY_PREFIX + session.id() + ":historia"))
+        .isPositive();
+  }
+
+  @Test
+  void shouldReturnEmptyHistoryOfNewConversation() {
+    var session = newSession();
+    store.create(session);
+
+    assertThat(store.history(session)).isEmpty();
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fi.okm.jod.yksilo.dto.SivuDto;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tools.jackson.databind.json.JsonMapper;
+
+class SerializedPageCacheTest {
+
+  private static final String JSON = "{\"sisalto\":[\"a\",\"b\"],\"maara\":2,\"sivuja\":1}";
+
+  private final SerializedPageCache pages = new SerializedPageCache(JsonMapper.builder().build());
+  private final SerializedPageCache.Key key = new SerializedPageCache.Key("test", 42, 0, 10);
+
+  @Test
+  void shouldWriteSerializedPage() throws Exception {
+    var response = new MockHttpServletResponse();
+
+    pages.write(
+        new MockHttpServletRequest(),
+        response,
+        CacheControl.noCache(),
+        key,
+        new SivuDto<>(List.of("a", "b"), 2, 1));
+
+    assertEquals(JSON, response.getContentAsString());
+    assertEquals("W/\"42\"", response.getHeader(HttpHeaders.ETAG));
+    assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+  }
+
+  @Test
+  void shouldWriteCompressedPageFromCache() throws Exception {
+    pages.write(
+        new MockHttpServletRequest(),
+        new MockHttpServletResponse(),
+        CacheControl.noCache(),
+        key,
+        new SivuDto<>(List.of("a", "b"), 2, 1));
+
+    var request = new MockHttpServletRequest();
+    request.addHeader(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip;q=0.8");
+    var response = new MockHttpServletResponse();
+    // the cached page is used for the same key
+    pages.write(request, response, CacheControl.noCache(), key, new SivuDto<>(List.of(), 0, 0));
+
+    assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+    try (var in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+      assertEquals(JSON, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+    }
+  }
+
+  @Test
+  void shouldRespectQualityValuesOfAcceptEncoding() {
+    assertTrue(acceptsGzip("deflate, gzip;q=0.8"));
+    assertTrue(acceptsGzip("GZIP"));
+    assertTrue(acceptsGzip("br, *"));
+    assertFalse(acceptsGzip("gzip;q=0"));
+    assertFalse(acceptsGzip("gzip; q=0.0, deflate"));
+    assertFalse(acceptsGzip("*, gzip;q=0"));
+    assertFalse(acceptsGzip("*;q=0"));
+    assertFalse(acceptsGzip("gzipped"));
+    assertFalse(acceptsGzip(null));
+  }
+
+  private static boolean acceptsGzip(String acceptEncoding) {
+    var request = new MockHttpServletRequest();
+    if (acceptEncoding != null) {
+      request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+    }
+    return SerializedPageCache.acceptsGzip(request);
+  }
+}
@@ -21,6 +21,8 @@ import fi.okm.jod.yksilo.config.mapping.MappingConfig;
 import fi.okm.jod.yksilo.domain.Kieli;
 import fi.okm.jod.yksilo.domain.LocalizedString;
 import fi.okm.jod.yksilo.domain.TyomahdollisuusAineisto;
+import fi.okm.jod.yksilo.dto.Kursori;
+import fi.okm.jod.yksilo.dto.KursoriSivuDto;
 import fi.okm.jod.yksilo.dto.tyomahdollisuus.TyomahdollisuusDto;
 import fi.okm.jod.yksilo.errorhandler.ErrorInfoFactory;
 import fi.okm.jod.yksilo.service.TyomahdollisuusService;
@@ -108,4 +110,30 @@ class TyomahdollisuusControllerTest {
         .andExpect(jsonPath("$.sisalto[0].tiivistelma.en", is("Summary")))
         .andExpect(jsonPath("$.sisalto[0].kuvaus.en", is("Description")));
   }
+
+  @Test
+  @WithMockUser
+  void shouldFindPageAfterKursori() throws Exception {
+    var kursori = new Kursori(UUID.randomUUID());
+    var seuraava = new Kursori(UUID.randomUUID()).token();
+    when(service.findAll(kursori, 1, false))
+        .thenReturn(new KursoriSivuDto<>(List.of(), seuraava, null));
+
+    mockMvc
+        .perform(
+            MockMvcRequestBuilders.get("/api/tyomahdollisuudet/kursori")
+                .param("kursori", kursori.token())
+                .param("koko", "1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.seuraava", is(seuraava)))
+        .andExpect(jsonPath("$.maara").doesNotExist());
+  }
+
+  @Test
+  @WithMockUser
+  void shouldRejectInvalidKursori() throws Exception {
+    mockMvc
+        .perform(MockMvcRequestBuilders.get("/api/tyomahdollisuudet/kursori").param("kursori", "x"))
+        .andExpect(status().isBadRequest());
+  }
 }
@@ -22,11 +22,10 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import fi.okm.jod.yksilo.config.mapping.MappingConfig;
 import fi.okm.jod.yksilo.controller.ehdotus.MahdollisuudetController.EndpointProperties;
+import fi.okm.jod.yksilo.domain.EscoIds;
 import fi.okm.jod.yksilo.domain.Kieli;
 import fi.okm.jod.yksilo.domain.KoulutusmahdollisuusTyyppi;
-import fi.okm.jod.yksilo.domain.LocalizedString;
 import fi.okm.jod.yksilo.dto.MahdollisuusDto;
-import fi.okm.jod.yksilo.dto.OsaaminenDto;
 import fi.okm.jod.yksilo.dto.SuunnitelmaEhdotusDto;
 import fi.okm.jod.yksilo.errorhandler.ErrorInfoFactory;
 import fi.okm.jod.yksilo.service.AmmattiService;
@@ -43,7 +42,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.api.parallel.ExecutionMode;
@@ -52,6 +53,8 @@ import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -81,11 +84,22 @@ class MahdollisuudetControllerTest {
   private InferenceService<MahdollisuudetController.Request, MahdollisuudetController.Response>
       inferenceService;
 
+  @BeforeEach
+  void setUp() {
+    when(osaaminenService.getIds()).thenReturn(EscoIds.EMPTY);
+    when(ammattiService.getIds()).thenReturn(EscoIds.EMPTY);
+  }
+
   @TestConfiguration
   static class TestConfig {
     @Bean
     EndpointProperties endpointProperties() {
-      return new EndpointProperties(Map.of(Kieli.FI, "fi"));
+      return new EndpointProperties(Map.of(Kieli.FI, "fi"), null);
+    }
+
+    @Bean
+    TaskExecutor taskExecutor() {
+      return new SimpleAsyncTaskExecutor();
     }
   }
 
@@ -340,19 +354,13 @@ class MahdollisuudetControllerTest {
             new Suggestion(listOfIds.get(4), 0.88d, KOULUTUSMAHDOLLISUUS.name()),
             new Suggestion(listOfIds.get(5), 0.78d, TYOMAHDOLLISUUS.name())));
 
-    var osaamiset =
-        List.of(
-            new OsaaminenDto(
-                URI.create("urn:osaaminen:1"),
-                new LocalizedString(Map.of(Kieli.FI, "text")),
-                new LocalizedString(Map.of(Kieli.FI, "text"))));
-
     when(mahdollisuudetService.fetchTyoAndKoulutusMahdollisuusIdsWithTypes(
             Sort.Direction.ASC, Kieli.FI))
         .thenReturn(mahdollisuudet);
-    when(osaaminenService.findBy(any())).thenReturn(osaamiset);
+    when(osaaminenService.getIds()).thenReturn(EscoIds.of(luoEhdotusDto.osaamiset()));
 
-    when(inferenceService.infer(anyString(), any(), any())).thenReturn(inferenceResponse);
+    when(inferenceService.inferAsync(anyString(), any(), any()))
+        .thenReturn(CompletableFuture.completedFuture(inferenceResponse));
     var response =
         mockMvc
             .perform(
@@ -504,19 +512,13 @@ class MahdollisuudetControllerTest {
             new Suggestion(listOfIds.get(4), 0.88d, KOULUTUSMAHDOLLISUUS.name()),
             new Suggestion(listOfIds.get(5), 0.78d, TYOMAHDOLLISUUS.name())));
 
-    var osaamiset =
-        List.of(
-            new OsaaminenDto(
-                URI.create("urn:osaaminen:1"),
-                new LocalizedString(Map.of(Kieli.FI, "text")),
-                new LocalizedString(Map.of(Kieli.FI, "text"))));
-
     when(mahdollisuudetService.fetchTyoAndKoulutusMahdollisuusIdsWithTypes(
             Sort.Direction.ASC, Kieli.FI))
         .thenReturn(mahdollisuudet);
-    when(osaaminenService.findBy(any())).thenReturn(osaamiset);
+    when(osaaminenService.getIds()).thenReturn(EscoIds.of(luoEhdotusDto.osaamiset()));
 
-    when(inferenceService.infer(anyString(), any(), any())).thenReturn(inferenceResponse);
+    when(inferenceService.inferAsync(anyString(), any(), any()))
+        .thenReturn(CompletableFuture.completedFuture(inferenceResponse));
     var response =
         mockMvc
             .perform(
@@ -636,19 +638,13 @@ class MahdollisuudetControllerTest {
             new Suggestion(listOfIds.get(3), 0.98d, TYOMAHDOLLISUUS.name()),
             new Suggestion(listOfIds.get(4), 0.88d, KOULUTUSMAHDOLLISUUS.name()),
             new Suggestion(UUID.randomUUID(), 0.78d, TYOMAHDOLLISUUS.name())));
-    var osaamiset =
-        List.of(
-            new OsaaminenDto(
-                URI.create("urn:osaaminen:1"),
-                new LocalizedString(Map.of(Kieli.FI, "text")),
-                new LocalizedString(Map.of(Kieli.FI, "text"))));
-
     when(mahdollisuudetService.fetchTyoAndKoulutusMahdollisuusIdsWithTypes(
             Sort.Direction.ASC, Kieli.FI))
         .thenReturn(mahdollisuudet);
-    when(osaaminenService.findBy(any())).thenReturn(osaamiset);
+    when(osaaminenService.getIds()).thenReturn(EscoIds.of(luoEhdotusDto.osaamiset()));
 
-    when(inferenceService.infer(anyString(), any(), any())).thenReturn(inferenceResponse);
+    when(inferenceService.inferAsync(anyString(), any(), any()))
+        .thenReturn(CompletableFuture.completedFuture(inferenceResponse));
     var response =
         mockMvc
             .perform(
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class EscoIdsTest {
+
+  private static final URI A = URI.create("urn:osaaminen:a");
+  private static final URI B = URI.create("urn:osaaminen:b");
+  private static final URI C = URI.create("urn:osaaminen:c");
+
+  @Test
+  void shouldAssignDenseIdsInSortedOrder() {
+    var ids = EscoIds.of(List.of(C, A, B, A));
+
+    assertEquals(3, ids.size());
+    assertEquals(0, ids.idOf("urn:osaaminen:a"));
+    assertEquals(1, ids.idOf(B));
+    assertEquals(2, ids.idOf(URI.create("urn:osaaminen:c")));
+    assertSame(C, ids.uri(2));
+  }
+
+  @Test
+  void shouldNotFindUnknownUris() {
+    var ids = EscoIds.of(List.of(A, C));
+
+    assertEquals(-1, ids.idOf(B));
+    assertFalse(ids.contains("urn:osaaminen:b"));
+    assertTrue(ids.contains(C));
+    assertEquals(-1, EscoIds.EMPTY.idOf(A));
+  }
+
+  @Test
+  void shouldConvertToBitSet() {
+    var ids = EscoIds.of(List.of(A, B, C));
+
+    var bits = ids.toBitSet(Set.of(C, A, URI.create("urn:osaaminen:unknown")));
+
+    assertEquals(2, bits.cardinality());
+    assertTrue(bits.get(ids.idOf(A)));
+    assertTrue(bits.get(ids.idOf(C)));
+  }
+}
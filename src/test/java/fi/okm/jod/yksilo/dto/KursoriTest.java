@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+class KursoriTest {
+
+  private static final UUID ID = UUID.fromString("6f1c0c61-6a77-4d3b-9a51-1f0b1a5e3c2d");
+
+  @Test
+  void shouldParseItsToken() {
+    var kursori = new Kursori(Instant.parse("2026-10-17T08:15:30.123456Z"), ID);
+
+    assertEquals(kursori, Kursori.of(kursori.token()));
+    assertEquals(new Kursori(ID), Kursori.of(new Kursori(ID).token()));
+  }
+
+  @Test
+  void shouldRejectInvalidTokens() {
+    assertThrows(IllegalArgumentException.class, () -> Kursori.of("not a token"));
+    assertThrows(
+        IllegalArgumentException.class, () -> Kursori.of(new Kursori(ID).token() + "AA"));
+  }
+
+  @Test
+  void shouldRejectTokensOfOtherListings() {
+    var muokattu = new Kursori(Instant.parse("2026-10-17T08:15:30Z"), ID).token();
+    var id = new Kursori(ID).token();
+
+    assertEquals(new Kursori(ID), Kursori.ofId(id));
+    assertThrows(IllegalArgumentException.class, () -> Kursori.ofId(muokattu));
+    assertEquals(Kursori.of(muokattu), Kursori.ofMuokattu(muokattu));
+    assertThrows(IllegalArgumentException.class, () -> Kursori.ofMuokattu(id));
+  }
+
+  @Test
+  void shouldReturnNextKursoriOnlyIfThereAreMoreRows() {
+    var ids = List.of(UUID.randomUUID(), UUID.randomUUID(), ID);
+
+    var page = KursoriSivuDto.of(ids, 2, Kursori::new, Function.identity(), null);
+    var last = KursoriSivuDto.of(ids, 3, Kursori::new, Function.identity(), () -> 3);
+
+    assertEquals(ids.subList(0, 2), page.sisalto());
+    assertEquals(new Kursori(ids.get(1)).token(), page.seuraava());
+    assertNull(page.maara());
+    assertEquals(ids, last.sisalto());
+    assertNull(last.seuraava());
+    assertEquals(3, last.maara());
+  }
+}
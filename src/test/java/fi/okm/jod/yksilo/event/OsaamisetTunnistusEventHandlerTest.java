@@ -39,6 +39,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -154,16 +155,16 @@ class OsaamisetTunnistusEventHandlerTest extends AbstractServiceTest {
         new OsaamisetTunnistusEventHandler.SageMakerResponse(
             koulutus1.getId(), Set.of(URI.create(osaaminen1), URI.create(osaaminen2)));
 
-    when(inferenceService.infer(
+    when(inferenceService.inferAsync(
             ENDPOINT_URL, sageMakerRequest, new ParameterizedTypeReference<>() {}))
-        .thenReturn(sageMakerResponse);
+        .thenReturn(CompletableFuture.completedFuture(sageMakerResponse));
 
     eventHandler.doHandleOsaamisetTunnistusEvent(
         new OsaamisetTunnistusEvent(user, List.of(koulutus1)));
 
     verifyOsaamisetUpdated(koulutus1, OsaamisenTunnistusStatus.DONE, sageMakerResponse.osaamiset());
     verify(inferenceService)
-        .infer(ENDPOINT_URL, sageMakerRequest, new ParameterizedTypeReference<>() {});
+        .inferAsync(ENDPOINT_URL, sageMakerRequest, new ParameterizedTypeReference<>() {});
   }
 
   @Test
@@ -183,16 +184,16 @@ class OsaamisetTunnistusEventHandlerTest extends AbstractServiceTest {
     var sageMakerResponse =
         new OsaamisetTunnistusEventHandler.SageMakerResponse(koulutus1.getId(), Set.of());
 
-    when(inferenceService.infer(
+    when(inferenceService.inferAsync(
             ENDPOINT_URL, sageMakerRequest, new ParameterizedTypeReference<>() {}))
-        .thenReturn(sageMakerResponse);
+        .thenReturn(CompletableFuture.completedFuture(sageMakerResponse));
 
     eventHandler.doHandleOsaamisetTunnistusEvent(
         new OsaamisetTunnistusEvent(user, List.of(koulutus1)));
 
     verifyOsaamisetUpdated(koulutus1, OsaamisenTunnistusStatus.DONE, sageMakerResponse.osaamiset());
     verify(inferenceService)
-        .infer(ENDPOINT_URL, sageMakerRequest, new ParameterizedTypeReference<>() {});
+        .inferAsync(ENDPOINT_URL, sageMakerRequest, new ParameterizedTypeReference<>() {});
   }
 
   private void verifyOsaamisetUpdated(
@@ -222,18 +223,18 @@ class OsaamisetTunnistusEventHandlerTest extends AbstractServiceTest {
   @Test
   @Execution(ExecutionMode.SAME_THREAD)
   void shouldHandleApiErrorsGracefully() {
-    when(inferenceService.infer(
+    when(inferenceService.inferAsync(
             eq(ENDPOINT_URL),
             any(OsaamisetTunnistusEventHandler.SageMakerRequest.class),
             eq(
                 new ParameterizedTypeReference<
                     OsaamisetTunnistusEventHandler.SageMakerResponse>() {})))
-        .thenThrow(new RuntimeException("Internal Server error"));
+        .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Internal Server error")));
 
     eventHandler.doHandleOsaamisetTunnistusEvent(new OsaamisetTunnistusEvent(user, koulutukset));
 
     verify(inferenceService, times(koulutukset.size()))
-        .infer(
+        .inferAsync(
             eq(ENDPOINT_URL),
             any(OsaamisetTunnistusEventHandler.SageMakerRequest.class),
             eq(
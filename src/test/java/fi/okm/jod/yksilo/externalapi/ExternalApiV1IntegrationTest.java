@@ -13,8 +13,14 @@ import static fi.okm.jod.yksilo.externalapi.v1.ExternalApiV1Controller.EXT_API_V
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import fi.okm.jod.yksilo.IntegrationTest;
+import fi.okm.jod.yksilo.domain.ProfiiliMuutosTyyppi;
 import fi.okm.jod.yksilo.dto.SivuDto;
 import fi.okm.jod.yksilo.externalapi.v1.dto.ExtProfiiliDto;
+import fi.okm.jod.yksilo.externalapi.v1.dto.ExtProfiiliMuutoksetDto;
+import fi.okm.jod.yksilo.externalapi.v1.dto.ExtProfiiliMuutosDto;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.api.parallel.ExecutionMode;
@@ -27,16 +33,21 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.jdbc.SqlConfig;
 import org.springframework.web.util.UriComponentsBuilder;
+import tools.jackson.databind.json.JsonMapper;
 
 @SqlConfig(separator = ";;;")
 @AutoConfigureTestRestTemplate
 class ExternalApiV1IntegrationTest extends IntegrationTest {
 
   @Autowired private TestRestTemplate testRestTemplate;
+  @Autowired private JsonMapper jsonMapper;
+  @Autowired private JdbcTemplate jdbcTemplate;
 
   @Value("${jod.external-api.apiKey}")
   private String apiKey;
@@ -75,6 +86,101 @@ class ExternalApiV1IntegrationTest extends IntegrationTest {
     assertEquals(8, testProfile.paamaarat().size());
   }
 
+  @Sql(
+      scripts = {"/data/cleanup.sql", "/data/add_10_yksiloa.sql"},
+      executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+  @Sql(
+      scripts = {"/data/cleanup.sql"},
+      executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+  @Execution(ExecutionMode.SAME_THREAD)
+  @Test
+  void shouldStreamProfiilitAsNdjson() {
+    final ResponseEntity<String> response =
+        this.testRestTemplate.exchange(
+            EXT_API_V1_PATH + "/profiilit/ndjson",
+            HttpMethod.GET,
+            new HttpEntity<>(headersWithAuthentication()),
+            String.class);
+    assertEquals(HttpStatusCode.valueOf(200), response.getStatusCode());
+    assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+
+    final var lines = response.getBody().lines().toList();
+    assertEquals(10, lines.size());
+    final ExtProfiiliDto testProfile = jsonMapper.readValue(lines.getFirst(), ExtProfiiliDto.class);
+    assertEquals(4, testProfile.osaamisKiinnostukset().size());
+    assertEquals(5, testProfile.ammattiKiinnostukset().size());
+    assertEquals(13, testProfile.suosikit().size());
+    assertEquals(8, testProfile.paamaarat().size());
+  }
+
+  @Sql(
+      statements = {
+        """
+        INSERT INTO profiili_muutos (yksilo_id, tyyppi)
+        VALUES ('5c8d1f0e-3b7a-4f0e-9a51-2f1a6c0e7d01', 'MUOKATTU'),
+               ('5c8d1f0e-3b7a-4f0e-9a51-2f1a6c0e7d01', 'POISTETTU')
+        """
+      },
+      executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+  @Test
+  void shouldReturnProfiiliMuutoksetAfterPosition() {
+    final var yksiloId = UUID.fromString("5c8d1f0e-3b7a-4f0e-9a51-2f1a6c0e7d01");
+
+    final ExtProfiiliMuutoksetDto all = getMuutokset(null);
+    assertEquals(
+        List.of(ProfiiliMuutosTyyppi.MUOKATTU, ProfiiliMuutosTyyppi.POISTETTU),
+        all.muutokset().stream()
+            .filter(muutos -> muutos.yksiloId().equals(yksiloId))
+            .map(ExtProfiiliMuutosDto::tyyppi)
+            .toList());
+
+    final ExtProfiiliMuutoksetDto next = getMuutokset(all.seuraava());
+    assertEquals(
+        List.of(),
+        next.muutokset().stream().filter(muutos -> muutos.yksiloId().equals(yksiloId)).toList());
+  }
+
+  @Test
+  void shouldWaitForNewProfiiliMuutokset() {
+    final var yksiloId = UUID.randomUUID();
+    final String seuraava = getMuutokset(null).seuraava();
+
+    final var odotus = CompletableFuture.supplyAsync(() -> getMuutokset(seuraava));
+    jdbcTemplate.update(
+        "INSERT INTO profiili_muutos (yksilo_id, tyyppi) VALUES (?, 'MUOKATTU')", yksiloId);
+
+    // the changes of the tests running concurrently may be returned first
+    var muutokset = odotus.join();
+    while (!muutokset.muutokset().isEmpty()
+        && muutokset.muutokset().stream().noneMatch(muutos -> muutos.yksiloId().equals(yksiloId))) {
+      muutokset = getMuutokset(muutokset.seuraava());
+    }
+    assertEquals(
+        List.of(ProfiiliMuutosTyyppi.MUOKATTU),
+        muutokset.muutokset().stream()
+            .filter(muutos -> muutos.yksiloId().equals(yksiloId))
+            .map(ExtProfiiliMuutosDto::tyyppi)
+            .toList());
+  }
+
+  private ExtProfiiliMuutoksetDto getMuutokset(String jalkeen) {
+    final var url =
+        UriComponentsBuilder.fromPath(EXT_API_V1_PATH + "/profiilit/muutokset")
+            .queryParam("koko", "1000")
+            .queryParam("odota", "5");
+    if (jalkeen != null) {
+      url.queryParam("jalkeen", jalkeen);
+    }
+    final ResponseEntity<ExtProfiiliMuutoksetDto> response =
+        this.testRestTemplate.exchange(
+            url.encode().toUriString(),
+            HttpMethod.GET,
+            new HttpEntity<>(headersWithAuthentication()),
+            ExtProfiiliMuutoksetDto.class);
+    assertEquals(HttpStatusCode.valueOf(200), response.getStatusCode());
+    return response.getBody();
+  }
+
   @Test
   void shouldRespond400WhenTooBigPageSize() {
     String profiilitUrlWithParams =
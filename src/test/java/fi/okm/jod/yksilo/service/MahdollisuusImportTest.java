@@ -21,15 +21,18 @@ import fi.okm.jod.yksilo.domain.KoulutusmahdollisuusJakaumaTyyppi;
 import fi.okm.jod.yksilo.domain.KoulutusmahdollisuusTyyppi;
 import fi.okm.jod.yksilo.domain.TyomahdollisuusAineisto;
 import fi.okm.jod.yksilo.domain.TyomahdollisuusJakaumaTyyppi;
+import fi.okm.jod.yksilo.dto.MahdollisuusDto;
 import fi.okm.jod.yksilo.entity.Jakauma;
 import fi.okm.jod.yksilo.entity.koulutusmahdollisuus.Koulutusmahdollisuus;
 import fi.okm.jod.yksilo.entity.koulutusmahdollisuus.KoulutusmahdollisuusJakauma;
 import fi.okm.jod.yksilo.entity.tyomahdollisuus.Tyomahdollisuus;
 import fi.okm.jod.yksilo.entity.tyomahdollisuus.TyomahdollisuusJakauma;
+import fi.okm.jod.yksilo.repository.MahdollisuusRepository;
 import fi.okm.jod.yksilo.service.ehdotus.MahdollisuudetService;
 import fi.okm.jod.yksilo.testutil.TestUtil;
 import java.io.IOException;
 import java.net.URI;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -44,6 +47,7 @@ import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabas
 import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.jdbc.SqlConfig;
@@ -102,6 +106,7 @@ class MahdollisuusImportTest {
 
   @Autowired private TestEntityManager entityManager;
   @Autowired private MahdollisuudetService mahdollisuudetService;
+  @Autowired private MahdollisuusRepository mahdollisuusRepository;
 
   @Test
   void shouldImportKoulutusMahdollisuusData_extendedDataset() throws IOException {
@@ -412,6 +417,69 @@ class MahdollisuusImportTest {
     assertFalse(entity.isAktiivinen());
   }
 
+  @Test
+  void shouldImportOnlyChangedTyomahdollisuudet() throws IOException {
+    assertEquals(1, countChanged("tyomahdollisuus_data"));
+    runSqlProcedure(TYOMAHDOLLISUUS_IMPORT_DATA_PROCEDURE);
+    assertEquals(0, countChanged("tyomahdollisuus_data"));
+    var jakaumat = jakaumaIds(TYOMAHDOLLISUUS_ID);
+
+    // Unchanged data is not re-imported
+    runSqlProcedure(TYOMAHDOLLISUUS_IMPORT_DATA_PROCEDURE);
+    assertEquals(jakaumat, jakaumaIds(TYOMAHDOLLISUUS_ID));
+
+    runSqlScript(TYOMAHDOLLISUUS_UPDATE_WITH_EXTENDED_IMPORT_DATA_SQL);
+    assertEquals(1, countChanged("tyomahdollisuus_data"));
+    runSqlProcedure(TYOMAHDOLLISUUS_IMPORT_DATA_PROCEDURE);
+    assertThat(jakaumaIds(TYOMAHDOLLISUUS_ID)).doesNotContainAnyElementsOf(jakaumat);
+
+    // Opportunities missing from the import are deactivated when the import is finished
+    runSqlScript(TYOMAHDOLLISUUS_DELETE_IMPORT_DATA_SQL);
+    runSqlProcedure("tyomahdollisuus_data.finish");
+    assertFalse(entityManager.find(Tyomahdollisuus.class, TYOMAHDOLLISUUS_ID).isAktiivinen());
+  }
+
+  private long countChanged(String schema) {
+    return ((Number)
+            entityManager
+                .getEntityManager()
+                .createNativeQuery("SELECT COUNT(*) FROM " + schema + ".changed")
+                .getSingleResult())
+        .longValue();
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Long> jakaumaIds(UUID tyomahdollisuusId) {
+    var ids =
+        (List<Number>)
+            entityManager
+                .getEntityManager()
+                .createNativeQuery(
+                    "SELECT id FROM tyomahdollisuus_jakauma WHERE tyomahdollisuus_id = :id")
+                .setParameter("id", tyomahdollisuusId)
+                .getResultList();
+    return ids.stream().map(Number::longValue).toList();
+  }
+
+  @Test
+  void shouldRefreshMahdollisuusListaOnImport() throws IOException {
+    assertThat(mahdollisuusRepository.findMahdollisuusIds(Kieli.FI, Sort.Direction.ASC))
+        .extracting(MahdollisuusDto::id)
+        .doesNotContain(KOULUTUSMAHDOLLISUUS_ID);
+
+    runSqlProcedure(KOULUTUSMAHDOLLISUUS_IMPORT_DATA_PROCEDURE);
+    assertThat(mahdollisuusRepository.findMahdollisuusIds(Kieli.FI, Sort.Direction.ASC))
+        .extracting(MahdollisuusDto::id)
+        .contains(KOULUTUSMAHDOLLISUUS_ID);
+
+    runSqlScript(KOULUTUSMAHDOLLISUUS_DELETE_IMPORT_DATA_SQL);
+    runSqlProcedure(KOULUTUSMAHDOLLISUUS_CLEAR_DATA_PROCEDURE);
+    runSqlProcedure(KOULUTUSMAHDOLLISUUS_IMPORT_DATA_PROCEDURE);
+    assertThat(mahdollisuusRepository.findMahdollisuusIds(Kieli.FI, Sort.Direction.ASC))
+        .extracting(MahdollisuusDto::id)
+        .doesNotContain(KOULUTUSMAHDOLLISUUS_ID);
+  }
+
   @Test
   void shouldGetMahdollisuudetSuggestionsForPolkuVaihe() {
     var suggestions = mahdollisuudetService.getPolkuVaiheSuggestions(Set.of());
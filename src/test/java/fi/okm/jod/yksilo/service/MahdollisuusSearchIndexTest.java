@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class MahdollisuusSearchIndexTest {
+
+  private static final UUID A = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+  private static final UUID B = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+  private static final UUID C = UUID.fromString("00000000-0000-0000-0000-00000000000c");
+
+  private final MahdollisuusSearchIndex index =
+      MahdollisuusSearchIndex.builder()
+          .add(A, "Ohjelmistokehittäjä", "Kehität sovelluksia", null)
+          .add(B, "Kokki", "Valmistat ruokaa", "Ohjelmistokehittäjien lounasravintola")
+          .add(C, "Sairaanhoitaja", null, "Hoitotyö")
+          .build();
+
+  @Test
+  void shouldComputeTrigramsLikePgTrgm() {
+    assertEquals(Set.of("  c", " ca", "cat", "at "), MahdollisuusSearchIndex.trigrams("Cat"));
+    assertEquals(
+        Set.of("  a", " ab", "ab ", "  c", " cd", "cd "),
+        MahdollisuusSearchIndex.trigrams("ab, CD"));
+  }
+
+  @Test
+  void shouldFindSubstringsOfAnyText() {
+    assertEquals(Optional.of(List.of(C)), index.search("hoito", 0, 10));
+    assertEquals(Optional.of(List.of(C)), index.search("hoitaja", 0, 10));
+    assertEquals(Optional.of(List.of()), index.search("tarjoilija", 0, 10));
+  }
+
+  @Test
+  void shouldNotMatchTextsHavingOnlyTheTrigramsOfTheQuery() {
+    final var banaani = MahdollisuusSearchIndex.builder().add(A, "Banaani", null, null).build();
+    assertEquals(Optional.of(List.of()), banaani.search("anaana", 0, 10));
+    assertEquals(Optional.of(List.of(A)), banaani.search("anaan", 0, 10));
+  }
+
+  @Test
+  void shouldRankOtsikkoMatchesFirst() {
+    assertEquals(Optional.of(List.of(A, B)), index.search("ohjelmistokehittäj", 0, 10));
+  }
+
+  @Test
+  void shouldPaginateMatches() {
+    assertEquals(Optional.of(List.of(B)), index.search("ohjelmistokehittäj", 1, 1));
+    assertEquals(Optional.of(List.of()), index.search("ohjelmistokehittäj", 2, 1));
+  }
+
+  @Test
+  void shouldNotSearchTooShortQueries() {
+    assertTrue(index.search("it", 0, 10).isEmpty());
+  }
+}
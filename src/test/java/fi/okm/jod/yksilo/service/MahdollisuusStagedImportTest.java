@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fi.okm.jod.yksilo.testutil.TestUtil;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+/**
+ * Tests the staged import (import_changes() + finish()). The procedures commit the chunks, so the
+ * tests run without a test transaction in a database of their own, one at a time.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+@Sql(
+    scripts = {"/data/mahdollisuudet.sql"},
+    config = @SqlConfig(separator = ";;;"),
+    executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@DirtiesContext
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Execution(ExecutionMode.SAME_THREAD)
+@ResourceLock("SLOW")
+class MahdollisuusStagedImportTest {
+
+  @Container @ServiceConnection
+  static PostgreSQLContainer postgreSQLContainer = TestUtil.createPostgreSqlContainer();
+
+  private static final Kohde TYOMAHDOLLISUUS =
+      new Kohde(
+          "tyomahdollisuus",
+          UUID.fromString("bc77f514-8573-11ef-8f0c-b767f527df04"),
+          "Kouluttaja",
+          "Uusi Kouluttaja");
+  private static final Kohde KOULUTUSMAHDOLLISUUS =
+      new Kohde(
+          "koulutusmahdollisuus",
+          UUID.fromString("30080e88-f292-48a3-9835-41950817abd3"),
+          "Psykologian yliopistotutkinto",
+          "Uusi Psykologian yliopistotutkinto");
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void shouldImportOnlyChangedTyomahdollisuudetInChunks() throws IOException {
+    shouldImportOnlyChangedInChunks(TYOMAHDOLLISUUS, "tyo");
+  }
+
+  @Test
+  void shouldImportOnlyChangedKoulutusmahdollisuudetInChunks() throws IOException {
+    shouldImportOnlyChangedInChunks(KOULUTUSMAHDOLLISUUS, "koulutus");
+  }
+
+  private void shouldImportOnlyChangedInChunks(Kohde kohde, String data) throws IOException {
+    importChanges(kohde);
+    assertTrue(isAktiivinen(kohde));
+    assertEquals(kohde.otsikko(), otsikko(kohde));
+
+    // clear() deactivates everything, the unchanged opportunities are only reactivated
+    jdbcTemplate.execute("CALL " + kohde.schema() + ".clear()");
+    assertEquals(0, changed(kohde));
+    importChanges(kohde);
+    assertTrue(isAktiivinen(kohde));
+
+    runSqlScript("/data/mahdollisuudet-" + data + "-update-import-data-reduced.sql");
+    assertEquals(1, changed(kohde));
+    importChanges(kohde);
+    assertTrue(isAktiivinen(kohde));
+    assertEquals(kohde.uusiOtsikko(), otsikko(kohde));
+
+    // also deletes the other import data, so that the next test can insert it again
+    runSqlScript("/data/mahdollisuudet-" + data + "-delete-import-data.sql");
+    importChanges(kohde);
+    assertFalse(isAktiivinen(kohde));
+  }
+
+  private void importChanges(Kohde kohde) {
+    jdbcTemplate.execute("CALL " + kohde.schema() + ".import_changes(1)");
+    assertEquals(0, changed(kohde));
+    jdbcTemplate.execute("CALL " + kohde.schema() + ".finish()");
+  }
+
+  private int changed(Kohde kohde) {
+    return jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM " + kohde.schema() + ".changed", Integer.class);
+  }
+
+  private boolean isAktiivinen(Kohde kohde) {
+    return jdbcTemplate.queryForObject(
+        "SELECT aktiivinen FROM " + kohde.taulu() + " WHERE id = ?", Boolean.class, kohde.id());
+  }
+
+  private String otsikko(Kohde kohde) {
+    return jdbcTemplate.queryForObject(
+        "SELECT otsikko FROM %s_kaannos WHERE %s_id = ? AND kaannos_key = 'FI'"
+            .formatted(kohde.taulu(), kohde.taulu()),
+        String.class,
+        kohde.id());
+  }
+
+  private void runSqlScript(String scriptPath) throws IOException {
+    try (var resourceAsStream = getClass().getResourceAsStream(scriptPath)) {
+      assert resourceAsStream != null;
+      jdbcTemplate.execute(new String(resourceAsStream.readAllBytes(), StandardCharsets.UTF_8));
+    }
+  }
+
+  private record Kohde(String taulu, UUID id, String otsikko, String uusiOtsikko) {
+    String schema() {
+      return taulu + "_data";
+    }
+  }
+}
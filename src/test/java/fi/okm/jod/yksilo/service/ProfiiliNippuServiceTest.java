@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.service;
+
+import static fi.okm.jod.yksilo.testutil.LocalizedStrings.ls;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fi.okm.jod.yksilo.IntegrationTest;
+import fi.okm.jod.yksilo.domain.JodUser;
+import fi.okm.jod.yksilo.domain.Kieli;
+import fi.okm.jod.yksilo.dto.profiili.TyopaikkaDto;
+import fi.okm.jod.yksilo.entity.Yksilo;
+import fi.okm.jod.yksilo.repository.YksiloRepository;
+import fi.okm.jod.yksilo.service.profiili.ProfiiliNippuService;
+import fi.okm.jod.yksilo.service.profiili.TyopaikkaService;
+import fi.okm.jod.yksilo.testutil.TestJodUser;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.UUID;
+import java.util.function.Supplier;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+class ProfiiliNippuServiceTest extends IntegrationTest {
+  @Autowired private ProfiiliNippuService service;
+  @Autowired private TyopaikkaService tyopaikat;
+  @Autowired private YksiloRepository yksilot;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+  private JodUser jodUser;
+
+  @BeforeEach
+  void before() {
+    var id = yksilot.upsertTunnistusData("TEST:" + UUID.randomUUID(), null, null, null);
+    yksilot.save(new Yksilo(id));
+    jodUser = new TestJodUser(id);
+  }
+
+  @Test
+  void shouldNotReturnCachedBundleAfterModification() {
+    assertTrue(statements(() -> service.get(jodUser)) > 1);
+    // cached, only the modification time of the profile is read
+    assertEquals(1, statements(() -> service.get(jodUser)));
+    assertEquals(0, service.get(jodUser).tyopaikat().size());
+
+    tyopaikat.add(jodUser, new TyopaikkaDto(null, ls(Kieli.FI, "nimi"), null));
+    assertTrue(statements(() -> service.get(jodUser)) > 1);
+    // cached
+    assertEquals(1, statements(() -> service.get(jodUser)));
+    assertEquals(1, service.get(jodUser).tyopaikat().size());
+  }
+
+  /** Number of SQL statements prepared while getting the value. */
+  private long statements(Supplier<?> supplier) {
+    final Statistics statistics =
+        entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    final long before = statistics.getPrepareStatementCount();
+    supplier.get();
+    return statistics.getPrepareStatementCount() - before;
+  }
+}
@@ -9,6 +9,7 @@
 
 package fi.okm.jod.yksilo.service;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -18,11 +19,15 @@ import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.read.ListAppender;
 import fi.okm.jod.yksilo.IntegrationTest;
 import fi.okm.jod.yksilo.domain.JodUser;
+import fi.okm.jod.yksilo.domain.ProfiiliMuutosTyyppi;
+import fi.okm.jod.yksilo.entity.ProfiiliMuutos;
 import fi.okm.jod.yksilo.entity.Yksilo;
+import fi.okm.jod.yksilo.repository.ProfiiliMuutosRepository;
 import fi.okm.jod.yksilo.repository.YksiloRepository;
 import fi.okm.jod.yksilo.service.profiili.ProfileUpdatedAspect;
 import fi.okm.jod.yksilo.service.profiili.YksiloService;
 import fi.okm.jod.yksilo.testutil.TestJodUser;
+import java.util.List;
 import java.util.UUID;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -35,6 +40,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 public class ProfileUpdatedAspectTest extends IntegrationTest {
   @Autowired private YksiloService yksiloService;
   @Autowired private YksiloRepository yksilot;
+  @Autowired private ProfiiliMuutosRepository muutokset;
   private MockAppender mockAppender;
   private JodUser jodUser;
 
@@ -72,6 +78,23 @@ public class ProfileUpdatedAspectTest extends IntegrationTest {
     assertTrue(mockAppender.anyMatch("profile updated"));
   }
 
+  @Test
+  void shouldRecordDeletionToChangeLog() {
+    yksiloService.get(jodUser);
+    assertEquals(List.of(), changesOf(jodUser));
+
+    yksiloService.delete(jodUser);
+    // the deletion supersedes the modification recorded by the same transaction
+    assertEquals(List.of(ProfiiliMuutosTyyppi.POISTETTU), changesOf(jodUser));
+  }
+
+  private List<ProfiiliMuutosTyyppi> changesOf(JodUser user) {
+    return muutokset.findAll().stream()
+        .filter(muutos -> muutos.getYksiloId().equals(user.getId()))
+        .map(ProfiiliMuutos::getTyyppi)
+        .toList();
+  }
+
   static class MockAppender extends ListAppender<ILoggingEvent> {
     public boolean anyMatch(String message) {
       return list.stream()
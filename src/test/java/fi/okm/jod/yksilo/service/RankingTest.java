@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import org.junit.jupiter.api.Test;
+
+class RankingTest {
+
+  @Test
+  void shouldRankByDescendingScoreKeepingOrderOfEqualScores() {
+    var pisteet = new double[] {0.1, 0.9, 0.5, 0.9, 0.0, 0.5};
+
+    assertArrayEquals(new int[] {1, 3, 2, 5, 0, 4}, Ranking.rank(pisteet, pisteet.length));
+    assertArrayEquals(new int[] {1, 3, 2}, Ranking.rank(pisteet, 3));
+    assertArrayEquals(new int[] {1, 3, 2, 5, 0, 4}, Ranking.rank(pisteet, pisteet.length + 1));
+    assertArrayEquals(new int[0], Ranking.rank(pisteet, 0));
+  }
+}
@@ -12,6 +12,7 @@ package fi.okm.jod.yksilo.service;
 import static fi.okm.jod.yksilo.testutil.LocalizedStrings.ls;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import fi.okm.jod.yksilo.domain.Kieli;
 import fi.okm.jod.yksilo.dto.profiili.ToimenkuvaDto;
@@ -19,15 +20,19 @@ import fi.okm.jod.yksilo.dto.profiili.TyopaikkaDto;
 import fi.okm.jod.yksilo.dto.profiili.TyopaikkaUpdateDto;
 import fi.okm.jod.yksilo.repository.ToimenkuvaRepository;
 import fi.okm.jod.yksilo.repository.YksilonOsaaminenRepository;
+import fi.okm.jod.yksilo.service.ServiceValidationException;
 import fi.okm.jod.yksilo.service.profiili.ToimenkuvaService;
 import fi.okm.jod.yksilo.service.profiili.TyopaikkaService;
 import fi.okm.jod.yksilo.service.profiili.YksilonOsaaminenService;
 import java.net.URI;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Set;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
 
 @Import({TyopaikkaService.class, ToimenkuvaService.class, YksilonOsaaminenService.class})
 class TyopaikkaServiceTest extends AbstractServiceTest {
@@ -80,4 +85,47 @@ class TyopaikkaServiceTest extends AbstractServiceTest {
           service.delete(user, id);
         });
   }
+
+  @Test
+  void shouldAddOsaamisetOfAllToimenkuvat() {
+    service.add(
+        user,
+        Set.of(
+            new TyopaikkaDto(
+                null,
+                ls(Kieli.FI, "tyopaikka 1"),
+                Set.of(
+                    toimenkuva("toimenkuva 1", "urn:osaaminen:1", "urn:osaaminen:2"),
+                    toimenkuva("toimenkuva 2", "urn:osaaminen:1"))),
+            new TyopaikkaDto(
+                null,
+                ls(Kieli.FI, "tyopaikka 2"),
+                Set.of(toimenkuva("toimenkuva 3", "urn:osaaminen:2")))));
+
+    simulateCommit();
+
+    assertEquals(2, service.findAll(user).size());
+    assertEquals(4, osaaminen.findAllByYksiloId(user.getId(), Sort.unsorted()).size());
+  }
+
+  @Test
+  void shouldNotAddToimenkuvatWithUnknownOsaamiset() {
+    var dto =
+        new TyopaikkaDto(
+            null,
+            ls(Kieli.FI, "nimi"),
+            Set.of(toimenkuva("toimenkuva", "urn:osaaminen:1", "urn:osaaminen:unknown")));
+
+    assertThrows(ServiceValidationException.class, () -> service.add(user, dto));
+  }
+
+  private static ToimenkuvaDto toimenkuva(String nimi, String... osaamiset) {
+    return new ToimenkuvaDto(
+        null,
+        ls(Kieli.FI, nimi),
+        null,
+        LocalDate.now(),
+        null,
+        Arrays.stream(osaamiset).map(URI::create).collect(Collectors.toSet()));
+  }
 }
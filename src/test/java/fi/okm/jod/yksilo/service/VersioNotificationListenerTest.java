@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import fi.okm.jod.yksilo.IntegrationTest;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class VersioNotificationListenerTest extends IntegrationTest {
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  @Autowired private AmmattiService ammattiService;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void shouldRefreshSnapshotWhenNotified() throws InterruptedException {
+    final long version = ammattiService.currentVersion();
+
+    // notifies on commit
+    jdbcTemplate.update("UPDATE ammatti_versio SET versio = versio + 1");
+
+    final long deadline = System.nanoTime() + TIMEOUT.toNanos();
+    while (ammattiService.currentVersion() == version && System.nanoTime() < deadline) {
+      // the listener may not have been listening yet
+      jdbcTemplate.execute("NOTIFY " + VersioNotificationListener.CHANNEL + ", 'ammatti_versio'");
+      Thread.sleep(100);
+    }
+    // well before the periodic refresh
+    assertEquals(version + 1, ammattiService.currentVersion());
+  }
+}
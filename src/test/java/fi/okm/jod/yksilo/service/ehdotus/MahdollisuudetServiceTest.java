@@ -12,25 +12,26 @@ package fi.okm.jod.yksilo.service.ehdotus;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.within;
 
+import com.github.benmanes.caffeine.cache.Ticker;
 import fi.okm.jod.yksilo.domain.Kieli;
 import fi.okm.jod.yksilo.domain.KoulutusmahdollisuusJakaumaTyyppi;
 import fi.okm.jod.yksilo.repository.KoulutusmahdollisuusRepository;
+import fi.okm.jod.yksilo.repository.MahdollisuusRepository;
 import fi.okm.jod.yksilo.repository.TyomahdollisuusRepository;
 import fi.okm.jod.yksilo.service.AbstractServiceTest;
 import java.net.URI;
 import java.util.Set;
 import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.transaction.annotation.Transactional;
 
 @Transactional
 @Sql(value = {"/data/koulutusmahdollisuudet.sql", "/data/tyomahdollisuudet.sql"})
-@Import(MahdollisuudetService.class)
 class MahdollisuudetServiceTest extends AbstractServiceTest {
 
   private static final UUID koulutusIdActive1 =
@@ -41,10 +42,20 @@ class MahdollisuudetServiceTest extends AbstractServiceTest {
       UUID.fromString("c74eed41-c729-433e-8d36-4fc7527fe3df");
   private static final UUID tyoIdInactive = UUID.fromString("af34f11f-05b5-434c-963a-df6d89a2149b");
 
-  @Autowired private MahdollisuudetService mahdollisuudetService;
+  @Autowired private MahdollisuusRepository mahdollisuusRepository;
   @Autowired private KoulutusmahdollisuusRepository koulutusmahdollisuudet;
   @Autowired private TyomahdollisuusRepository tyomahdollisuudet;
 
+  private MahdollisuudetService mahdollisuudetService;
+  private TestTicker ticker;
+
+  @BeforeEach
+  void createService() {
+    ticker = new TestTicker();
+    mahdollisuudetService =
+        new MahdollisuudetService(mahdollisuusRepository, ticker, Runnable::run);
+  }
+
   @Test
   void shouldFetchTyoAndKoulutusMahdollisuusIdsWithTypes() {
     var result =
@@ -57,6 +68,18 @@ class MahdollisuudetServiceTest extends AbstractServiceTest {
         .doesNotContainKeys(koulutusIdInactive, tyoIdInactive);
   }
 
+  @Test
+  void shouldReverseOrderForDescendingSort() {
+    var asc =
+        mahdollisuudetService.fetchTyoAndKoulutusMahdollisuusIdsWithTypes(
+            Sort.Direction.ASC, Kieli.FI);
+    var desc =
+        mahdollisuudetService.fetchTyoAndKoulutusMahdollisuusIdsWithTypes(
+            Sort.Direction.DESC, Kieli.FI);
+
+    assertThat(desc.sequencedKeySet()).containsExactlyElementsOf(asc.sequencedKeySet().reversed());
+  }
+
   @Test
   void shouldHaveAlphabeticalOrder() {
     var result =
@@ -80,7 +103,9 @@ class MahdollisuudetServiceTest extends AbstractServiceTest {
         .executeUpdate();
     em.createNativeQuery("DELETE FROM tyomahdollisuus_kaannos WHERE kaannos_key = 'EN'")
         .executeUpdate();
+    em.createNativeQuery("UPDATE mahdollisuus_versio SET versio = versio + 1").executeUpdate();
     entityManager.flush();
+    ticker.set(MahdollisuudetService.CACHE_DURATION.toNanos() + 1);
 
     var result =
         mahdollisuudetService.fetchTyoAndKoulutusMahdollisuusIdsWithTypes(
@@ -89,6 +114,27 @@ class MahdollisuudetServiceTest extends AbstractServiceTest {
     assertThat(result).isEmpty();
   }
 
+  @Test
+  void shouldNotReloadIfVersionIsUnchanged() {
+    var result =
+        mahdollisuudetService.fetchTyoAndKoulutusMahdollisuusIdsWithTypes(
+            Sort.Direction.ASC, Kieli.FI);
+    var version = mahdollisuudetService.currentVersion();
+
+    entityManager
+        .getEntityManager()
+        .createNativeQuery("DELETE FROM tyomahdollisuus_kaannos WHERE kaannos_key = 'FI'")
+        .executeUpdate();
+    entityManager.flush();
+    ticker.set(MahdollisuudetService.CACHE_DURATION.toNanos() + 1);
+
+    assertThat(
+            mahdollisuudetService.fetchTyoAndKoulutusMahdollisuusIdsWithTypes(
+                Sort.Direction.ASC, Kieli.FI))
+        .isSameAs(result);
+    assertThat(mahdollisuudetService.currentVersion()).isEqualTo(version);
+  }
+
   @Test
   void shouldGetMahdollisuudetSuggestionsForPolkuVaihe_emptyInput() {
     var result = mahdollisuudetService.getPolkuVaiheSuggestions(Set.of());
@@ -125,10 +171,45 @@ class MahdollisuudetServiceTest extends AbstractServiceTest {
     assertThat(pisteet).isCloseTo(expected, within(0.01));
   }
 
+  @Test
+  void shouldRebuildPolkuVaiheSuggestionsWhenVersionChanges() {
+    var missingOsaamiset = Set.of(URI.create("urn:osaaminen:1"), URI.create("urn:osaaminen:2"));
+    assertThat(mahdollisuudetService.getPolkuVaiheSuggestions(missingOsaamiset)).hasSize(2);
+
+    var em = entityManager.getEntityManager();
+    em.createNativeQuery("UPDATE koulutusmahdollisuus SET aktiivinen = false WHERE id = :id")
+        .setParameter("id", koulutusIdActive1)
+        .executeUpdate();
+    entityManager.flush();
+    ticker.set(MahdollisuudetService.CACHE_DURATION.toNanos() + 1);
+    assertThat(mahdollisuudetService.getPolkuVaiheSuggestions(missingOsaamiset)).hasSize(2);
+
+    em.createNativeQuery("UPDATE mahdollisuus_versio SET versio = versio + 1").executeUpdate();
+    entityManager.flush();
+    ticker.set(2 * MahdollisuudetService.CACHE_DURATION.toNanos() + 2);
+    var result = mahdollisuudetService.getPolkuVaiheSuggestions(missingOsaamiset);
+
+    assertThat(result).hasSize(1);
+    assertThat(result.getFirst().mahdollisuusId()).isEqualTo(koulutusIdActive2);
+  }
+
   @Test
   void shouldGetMahdollisuudetSuggestionsForPolkuVaihe_noMatches() {
     var nonMatchingOsaamiset = Set.of(URI.create("nonexistent1"), URI.create("nonexistent2"));
     var result = mahdollisuudetService.getPolkuVaiheSuggestions(nonMatchingOsaamiset);
     assertThat(result).isEmpty();
   }
+
+  static class TestTicker implements Ticker {
+    private volatile long time = 0;
+
+    @Override
+    public long read() {
+      return time;
+    }
+
+    void set(long duration) {
+      time = duration;
+    }
+  }
 }
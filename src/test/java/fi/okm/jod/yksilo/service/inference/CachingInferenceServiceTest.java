@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.service.inference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import fi.okm.jod.yksilo.service.ServiceOverloadedException;
+import fi.okm.jod.yksilo.service.ServiceUnavailableException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+class CachingInferenceServiceTest {
+
+  private static final ParameterizedTypeReference<String> TYPE =
+      new ParameterizedTypeReference<>() {};
+
+  private final AtomicInteger calls = new AtomicInteger();
+
+  record Payload(Set<String> osaamiset, double painotus) {}
+
+  private CachingInferenceService<Payload, String> create(InferenceService<Payload, String> d) {
+    return new CachingInferenceService<>(
+        d, JsonMapper.builder().build(), Duration.ofMinutes(1), 10, Duration.ofSeconds(5));
+  }
+
+  @Test
+  void shouldCacheIdenticalRequests() {
+    var service = create((endpoint, payload, type) -> endpoint + calls.incrementAndGet());
+    var payload = new Payload(new TreeSet<>(Set.of("b", "a")), 0.5);
+    var samePayload = new Payload(new TreeSet<>(Set.of("a", "b")), 0.5);
+    var otherPayload = new Payload(new TreeSet<>(Set.of("a", "b")), 0.6);
+
+    var first = service.infer("fi", payload, TYPE);
+
+    assertEquals("fi1", first);
+    assertEquals(first, service.infer("fi", samePayload, TYPE));
+    assertEquals("sv2", service.infer("sv", samePayload, TYPE));
+    assertEquals("fi3", service.infer("fi", otherPayload, TYPE));
+  }
+
+  @Test
+  void shouldNotCacheFailures() {
+    var service =
+        create(
+            (endpoint, payload, type) -> {
+              if (calls.incrementAndGet() == 1) {
+                throw new ServiceOverloadedException("throttled", null);
+              }
+              return "ok";
+            });
+    var payload = new Payload(Set.of("a"), 1);
+
+    assertThrows(ServiceOverloadedException.class, () -> service.infer("fi", payload, TYPE));
+    assertEquals("ok", service.infer("fi", payload, TYPE));
+    assertEquals(2, calls.get());
+  }
+
+  @Test
+  void shouldCoalesceConcurrentRequests() throws Exception {
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    var service =
+        create(
+            (endpoint, payload, type) -> {
+              calls.incrementAndGet();
+              started.countDown();
+              try {
+                release.await();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              return "ok";
+            });
+    var payload = new Payload(Set.of("a"), 1);
+
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      var first = executor.submit(() -> service.infer("fi", payload, TYPE));
+      started.await();
+      List<Future<String>> others =
+          List.of(
+              executor.submit(() -> service.infer("fi", payload, TYPE)),
+              executor.submit(() -> service.infer("fi", payload, TYPE)));
+      release.countDown();
+
+      assertEquals("ok", first.get());
+      for (var other : others) {
+        assertEquals("ok", other.get());
+      }
+    }
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  void shouldNotWaitForInFlightRequestIndefinitely() throws Exception {
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    InferenceService<Payload, String> delegate =
+        (endpoint, payload, type) -> {
+          started.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return "ok";
+        };
+    var service =
+        new CachingInferenceService<>(
+            delegate, JsonMapper.builder().build(), Duration.ofMinutes(1), 10, Duration.ZERO);
+    var payload = new Payload(Set.of("a"), 1);
+
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      var first = executor.submit(() -> service.infer("fi", payload, TYPE));
+      started.await();
+      assertThrows(ServiceUnavailableException.class, () -> service.infer("fi", payload, TYPE));
+      release.countDown();
+      assertEquals("ok", first.get());
+    }
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2026 The Finnish Ministry of Education and Culture, The Finnish
+ * The Ministry of Economic Affairs and Employment, The Finnish National Agency of
+ * Education (Opetushallitus) and The Finnish Development and Administration centre
+ * for ELY Centres and TE Offices (KEHA).
+ *
+ * Licensed under the EUPL-1.2-or-later.
+ */
+
+package fi.okm.jod.yksilo.service.inference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fi.okm.jod.yksilo.service.ServiceOverloadedException;
+import fi.okm.jod.yksilo.service.ServiceUnavailableException;
+import fi.okm.jod.yksilo.service.ServiceValidationException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class InferenceInvokerTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+  private final AtomicInteger calls = new AtomicInteger();
+
+  private static InferenceProperties properties(int maxConcurrentRequests, Set<String> hedged) {
+    return new InferenceProperties(
+        maxConcurrentRequests,
+        Duration.ofMillis(50),
+        3,
+        Duration.ofMillis(1),
+        TIMEOUT,
+        TIMEOUT,
+        new InferenceProperties.Hedge(hedged, 0.5, Duration.ofMillis(1)));
+  }
+
+  @Test
+  void shouldRetryWhenOverloaded() {
+    var invoker = new InferenceInvoker(properties(1, Set.of()), Runnable::run);
+
+    var result =
+        invoker.invoke(
+            "fi",
+            () ->
+                calls.incrementAndGet() < 3
+                    ? CompletableFuture.failedFuture(new ServiceOverloadedException("busy", null))
+                    : CompletableFuture.completedFuture("ok"));
+
+    assertEquals("ok", InferenceInvoker.await(result, TIMEOUT));
+    assertEquals(3, calls.get());
+  }
+
+  @Test
+  void shouldGiveUpAfterMaxAttempts() {
+    var invoker = new InferenceInvoker(properties(1, Set.of()), Runnable::run);
+
+    var result =
+        invoker.<String>invoke(
+            "fi",
+            () -> {
+              calls.incrementAndGet();
+              return CompletableFuture.failedFuture(new ServiceOverloadedException("busy", null));
+            });
+
+    assertThrows(ServiceOverloadedException.class, () -> InferenceInvoker.await(result, TIMEOUT));
+    assertEquals(3, calls.get());
+  }
+
+  @Test
+  void shouldNotRetryOtherFailures() {
+    var invoker = new InferenceInvoker(properties(1, Set.of()), Runnable::run);
+
+    var result =
+        invoker.<String>invoke(
+            "fi",
+            () -> {
+              calls.incrementAndGet();
+              return CompletableFuture.failedFuture(new ServiceValidationException("invalid"));
+            });
+
+    assertThrows(ServiceValidationException.class, () -> InferenceInvoker.await(result, TIMEOUT));
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  void shouldLimitConcurrentRequests() {
+    var invoker = new InferenceInvoker(properties(1, Set.of()), Runnable::run);
+    var pending = new CompletableFuture<String>();
+
+    var first = invoker.invoke("fi", () -> pending);
+    var second = invoker.invoke("fi", () -> CompletableFuture.completedFuture("second"));
+    var other = invoker.invoke("sv", () -> CompletableFuture.completedFuture("other"));
+
+    assertEquals("other", InferenceInvoker.await(other, TIMEOUT));
+    assertThrows(ServiceOverloadedException.class, () -> InferenceInvoker.await(second, TIMEOUT));
+
+    pending.complete("first");
+    assertEquals("first", InferenceInvoker.await(first, TIMEOUT));
+    assertEquals(
+        "third",
+        InferenceInvoker.await(
+            invoker.invoke("fi", () -> CompletableFuture.completedFuture("third")), TIMEOUT));
+  }
+
+  @Test
+  void shouldHedgeSlowRequests() {
+    var invoker = new InferenceInvoker(properties(2, Set.of("fi")), Runnable::run);
+    for (int i = 0; i < InferenceInvoker.MIN_LATENCY_SAMPLES; i++) {
+      InferenceInvoker.await(
+          invoker.invoke("fi", () -> CompletableFuture.completedFuture("")), TIMEOUT);
+    }
+    var stuck = new CompletableFuture<String>();
+
+    var result =
+        invoker.invoke(
+            "fi",
+            () ->
+                calls.incrementAndGet() == 1 ? stuck : CompletableFuture.completedFuture("hedged"));
+
+    assertEquals("hedged", InferenceInvoker.await(result, TIMEOUT));
+    assertEquals(2, calls.get());
+    // the slower call is not left running
+    assertThrows(
+        CancellationException.class, () -> stuck.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  void shouldFailAfterDeadline() {
+    var invoker = new InferenceInvoker(properties(1, Set.of()), Runnable::run);
+
+    var pending = new CompletableFuture<String>();
+
+    var result = invoker.invoke("fi", Duration.ofMillis(10), () -> pending);
+
+    assertThrows(ServiceUnavailableException.class, () -> InferenceInvoker.await(result, TIMEOUT));
+    // the stuck call is cancelled and its permit released
+    assertThrows(
+        CancellationException.class, () -> pending.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS));
+    assertEquals(
+        "next",
+        InferenceInvoker.await(
+            invoker.invoke("fi", () -> CompletableFuture.completedFuture("next")), TIMEOUT));
+  }
+
+  @Test
+  void shouldCancelTheCallWhenCancelled() {
+    var invoker = new InferenceInvoker(properties(1, Set.of()), Runnable::run);
+    var pending = new CompletableFuture<String>();
+
+    invoker.invoke("fi", () -> pending).cancel(true);
+
+    assertTrue(pending.isCancelled());
+    // the permit of the cancelled call is released
+    assertEquals(
+        "next",
+        InferenceInvoker.await(
+            invoker.invoke("fi", () -> CompletableFuture.completedFuture("next")), TIMEOUT));
+  }
+
+  @Test
+  void shouldIgnoreBlankHedgeEndpoints() {
+    var hedge = new InferenceProperties.Hedge(Set.of("", " ", "fi"), 0.5, Duration.ofMillis(1));
+
+    assertEquals(Set.of("fi"), hedge.endpoints());
+  }
+}
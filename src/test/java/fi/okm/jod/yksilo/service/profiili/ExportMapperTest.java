@@ -44,7 +44,6 @@ class ExportMapperTest {
   void testNoNewOrDeletedMappingMethods() {
     Set<String> expectedMethods =
         Set.of(
-            "mapYksilo",
             "mapTyopaikka",
             "mapToimenkuva",
             "mapKoulutusKokonaisuus",
@@ -64,6 +64,7 @@ import org.springframework.test.context.jdbc.Sql;
 @Import({
   JakolinkkiService.class,
   YksiloService.class,
+  ExportWriter.class,
   YksilonSuosikkiService.class,
 })
 @Execution(ExecutionMode.SAME_THREAD)
@@ -16,6 +16,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import fi.okm.jod.yksilo.config.login.Attribute;
+import fi.okm.jod.yksilo.config.mapping.MappingConfig;
 import fi.okm.jod.yksilo.domain.Kieli;
 import fi.okm.jod.yksilo.domain.MahdollisuusTyyppi;
 import fi.okm.jod.yksilo.domain.Sukupuoli;
@@ -25,17 +26,22 @@ import fi.okm.jod.yksilo.repository.TyomahdollisuusRepository;
 import fi.okm.jod.yksilo.service.AbstractServiceTest;
 import fi.okm.jod.yksilo.service.NotFoundException;
 import fi.okm.jod.yksilo.service.ServiceValidationException;
+import java.io.ByteArrayOutputStream;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.jdbc.Sql;
+import tools.jackson.databind.ObjectMapper;
 
 @Sql(scripts = {"/data/mahdollisuudet-test-data.sql"})
-@Import({YksiloService.class, TavoiteService.class})
+@AutoConfigureJson
+@Import({YksiloService.class, ExportWriter.class, TavoiteService.class, MappingConfig.class})
 class YksiloServiceTest extends AbstractServiceTest {
   @Autowired private YksiloService service;
   @Autowired private TavoiteService tavoiteService;
   @Autowired private TyomahdollisuusRepository tyomahdollisuudet;
+  @Autowired private ObjectMapper objectMapper;
 
   @Test
   void shouldDeleteUserProfile() {
@@ -56,6 +62,36 @@ class YksiloServiceTest extends AbstractServiceTest {
     assertThrows(NotFoundException.class, () -> service.get(user));
   }
 
+  @Test
+  void shouldExportProfile() {
+    var tyomahdollisuusId = tyomahdollisuudet.findAll().getFirst().getId();
+    tavoiteService.add(
+        user,
+        new TavoiteDto(
+            null,
+            MahdollisuusTyyppi.TYOMAHDOLLISUUS,
+            tyomahdollisuusId,
+            ls("tavoite"),
+            ls("kuvaus"),
+            null,
+            emptySet(),
+            emptySet()));
+    simulateCommit();
+
+    var out = new ByteArrayOutputStream();
+    try (var generator = objectMapper.createGenerator(out)) {
+      service.export(user, generator);
+    }
+
+    var export = objectMapper.readTree(out.toByteArray());
+    assertEquals(user.getId().toString(), export.get("id").asString());
+    assertEquals(0, export.get("tyopaikat").size());
+    assertEquals(1, export.get("tavoitteet").size());
+    assertEquals(
+        tyomahdollisuusId.toString(),
+        export.get("tavoitteet").get(0).get("tyomahdollisuusId").asString());
+  }
+
   @Test
   void shouldUpdateTiedot() {
     var tiedot =
@@ -10,6 +10,7 @@
 package fi.okm.jod.yksilo.testutil;
 
 import java.nio.charset.StandardCharsets;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.postgresql.PostgreSQLContainer;
 import org.testcontainers.utility.DockerImageName;
@@ -69,4 +70,14 @@ public class TestUtil {
   public static GenericContainer<?> createRedisContainer() {
     return new GenericContainer<>(DockerImageName.parse(REDIS_VERSION)).withExposedPorts(6379);
   }
+
+  /** Creates a started connection factory of the Redis container, destroy it after the tests. */
+  public static LettuceConnectionFactory createRedisConnectionFactory(
+      GenericContainer<?> redisContainer) {
+    final var connectionFactory =
+        new LettuceConnectionFactory(redisContainer.getHost(), redisContainer.getFirstMappedPort());
+    connectionFactory.afterPropertiesSet();
+    connectionFactory.start();
+    return connectionFactory;
+  }
 }
@@ -6,3 +6,4 @@ TRUNCATE yksilo_ammatti_kiinnostukset CASCADE;;;
 TRUNCATE yksilo_osaamis_kiinnostukset CASCADE;;;
 TRUNCATE yksilo CASCADE;;;
 TRUNCATE tavoite CASCADE;;;
+TRUNCATE mahdollisuus_lista;;;
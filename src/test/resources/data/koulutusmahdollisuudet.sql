@@ -72,3 +72,8 @@ VALUES ('c74eed41-c729-433e-8d36-4fc7527fe3df', 'FI', 'Koulutusmahdollisuus 3',
         'Tiivistelmä'),
        ('c74eed41-c729-433e-8d36-4fc7527fe3df', 'EN', 'Educational opportunity 3', 'Description',
         'Summary');
+
+
+-- refreshes mahdollisuus_lista
+UPDATE mahdollisuus_versio
+SET versio = versio + 1;
@@ -68,3 +68,8 @@ VALUES ('af34f11f-05b5-434c-963a-df6d89a2149b', 'FI', 'Työmahdollisuus 3', 'Kuv
         'Tehtävät', 'Vaatimukset'),
        ('af34f11f-05b5-434c-963a-df6d89a2149b', 'EN', 'Job opportunity 3', 'Description', 'Summary',
         'Tasks', 'Requirements');
+
+
+-- refreshes mahdollisuus_lista
+UPDATE mahdollisuus_versio
+SET versio = versio + 1;